@@ -0,0 +1,115 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import net.kyori.hazzard.annotation.meta.ThreadSafe;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * The messages of a single scanned method without any variables, composed once per template.
+ * <p>
+ * Equal templates, e.g. of different locales, share their message, which is only {@link #invalidate(Object)
+ * invalidated} by the template instance it was composed of. Invalidating the template of one locale thus leaves the
+ * message to equal templates of other locales, unless it was composed of that very instance.
+ * </p>
+ * <p>
+ * At most {@link #MAX_TEMPLATES} templates are kept at once; beyond that, all messages are composed anew, so templates
+ * replaced by reloads cannot accumulate even if nobody {@link #invalidate(Object) invalidates} them.
+ * </p>
+ *
+ * @param <TemplateT> the intermediate message type
+ * @param <MessageT> the output/rendered message type
+ */
+@ThreadSafe
+/* package-private */ final class ConstantMessages<TemplateT, MessageT> {
+  /**
+   * The maximum amount of templates to keep messages of, which is well above the amount of locales usually served.
+   */
+  static final int MAX_TEMPLATES = 64;
+
+  private final String translationKey;
+  private final ConcurrentMap<TemplateT, Composed<TemplateT, MessageT>> messages = new ConcurrentHashMap<>();
+
+  ConstantMessages(final String translationKey) {
+    this.translationKey = translationKey;
+  }
+
+  /**
+   * Get the message of a template, composing it only if it has not been yet.
+   *
+   * @param template the template of the message
+   * @param composer the composer of the message, if necessary
+   * @return the composed message
+   */
+  MessageT message(final TemplateT template, final Function<TemplateT, MessageT> composer) {
+    final @Nullable Composed<TemplateT, MessageT> composed = this.messages.get(template);
+    if (composed != null) {
+      return composed.message();
+    }
+
+    if (this.messages.size() >= MAX_TEMPLATES) {
+      this.messages.clear();
+    }
+    return this.messages.computeIfAbsent(template, ignored -> new Composed<>(template, composer.apply(template)))
+        .message();
+  }
+
+  /**
+   * @return the translation key of the method
+   */
+  String translationKey() {
+    return this.translationKey;
+  }
+
+  /**
+   * @return the amount of templates messages are currently kept of
+   */
+  int size() {
+    return this.messages.size();
+  }
+
+  /**
+   * Forget the message of a template, if it was composed of that very instance.
+   *
+   * @param template the template instance
+   */
+  void invalidate(final TemplateT template) {
+    this.messages.computeIfPresent(template, (key, composed) -> composed.template() == template ? null : composed);
+  }
+
+  /**
+   * Forget all messages.
+   */
+  void clear() {
+    this.messages.clear();
+  }
+
+  /**
+   * A message along with the template instance it was composed of.
+   *
+   * @param template the template instance
+   * @param message the composed message
+   * @param <TemplateT> the intermediate message type
+   * @param <MessageT> the output/rendered message type
+   */
+  private record Composed<TemplateT, MessageT>(TemplateT template, MessageT message) {
+  }
+}
@@ -19,22 +19,33 @@ package net.kyori.hazzard;
 
 import io.leangen.geantyref.GenericTypeReflector;
 import io.leangen.geantyref.TypeToken;
+import java.lang.invoke.MethodHandle;
 import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.NavigableSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import net.kyori.hazzard.annotation.meta.ThreadSafe;
 import net.kyori.hazzard.exception.MissingHazzardMethodMappingException;
+import net.kyori.hazzard.exception.scan.InaccessibleDefaultMethodException;
 import net.kyori.hazzard.exception.scan.UnscannableMethodException;
+import net.kyori.hazzard.internal.ReflectiveUtils;
 import net.kyori.hazzard.message.IMessageComposer;
 import net.kyori.hazzard.message.IMessageSendingService;
+import net.kyori.hazzard.message.IMessageSuppressionService;
 import net.kyori.hazzard.message.TemplateLocator;
 import net.kyori.hazzard.model.HazzardMethod;
+import net.kyori.hazzard.model.ScanIndex;
 import net.kyori.hazzard.variable.ITemplateVariableResolver;
 import net.kyori.hazzard.viewer.IViewerLookupServiceLocator;
 import net.kyori.hazzard.util.Weighted;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.checkerframework.dataflow.qual.Pure;
 import org.checkerframework.dataflow.qual.SideEffectFree;
 
@@ -47,7 +58,7 @@ import org.checkerframework.dataflow.qual.SideEffectFree;
  * @param <VariableReplacementT> the finalised placeholder type, post-resolving, usually a component piece of MessageT
  */
 @ThreadSafe
-public final class Hazzard<ViewerT, TemplateT, MessageT, VariableReplacementT> {
+public final class Hazzard<ViewerT, TemplateT, MessageT, VariableReplacementT> implements AutoCloseable {
   /**
    * The type which is being proxied with this Hazzard instance.
    */
@@ -59,72 +70,175 @@ public final class Hazzard<ViewerT, TemplateT, MessageT, VariableReplacementT> {
   private final HazzardInvocationHandler<ViewerT, TemplateT, MessageT, VariableReplacementT> invocationHandler;
 
   /**
-   * The strategy for resolving template variables upon method invocation.
+   * The proxy instance of the {@link #proxiedType()}.
    */
-  private final net.kyori.hazzard.strategy.ITemplateVariableResolver<ViewerT, TemplateT, VariableReplacementT> templateVariableResolver;
+  private final Object proxy;
 
   /**
-   * The source of templates, potentially discriminated by viewer type.
+   * The runtime owning all state shared with other proxies.
    */
-  private final TemplateLocator<ViewerT, TemplateT> templateLocator;
+  private final HazzardRuntime<ViewerT, TemplateT, MessageT, VariableReplacementT> runtime;
 
   /**
-   * The template populator of all messages, before being sent via {@link #messageSender()}.
+   * All scanned methods of this proxy, excluding special-case methods such as {@code default} methods and any returning
+   * {@link Hazzard}.
    */
-  private final IMessageComposer<ViewerT, TemplateT, MessageT, VariableReplacementT> messageComposer;
+  private final Map<Method, HazzardMethod<? extends ViewerT>> scannedMethods;
 
   /**
-   * The message sender of messages to a given viewer with resolved variable replacements.
+   * The {@code default} methods of this proxy, unbound from the proxy instance.
    */
-  private final IMessageSendingService<ViewerT, MessageT> messageSender;
+  private final Map<Method, MethodHandle> defaultMethods;
 
   /**
-   * A navigable set for iterating through the {@link IViewerLookupServiceLocator}s with weight-based ordering.
+   * The messages of the scanned methods never resolving any variables, which are composed once per template.
    */
-  private final NavigableSet<Weighted<? extends IViewerLookupServiceLocator<? extends ViewerT>>> weightedViewerLookupResolvers;
+  private final Map<Method, ConstantMessages<TemplateT, MessageT>> constantMessages;
 
   /**
-   * A map of types to navigable sets for iterating through the {@link ITemplateVariableResolver}s with weight-based
-   * ordering.
+   * The pipelines of the scanned methods with any interceptors, or {@code null} if there are no interceptors at all.
    */
-  private final Map<Type, NavigableSet<Weighted<? extends ITemplateVariableResolver<? extends ViewerT, ?, ? extends VariableReplacementT>>>> weightedTemplateVariableResolver;
+  private final @Nullable Map<Method, InvocationPipeline<ViewerT, TemplateT, MessageT, VariableReplacementT>> pipelines;
 
   /**
-   * All scanned methods of this proxy, excluding special-case methods such as {@code default} methods and any returning
-   * {@link Hazzard}.
+   * Whether closing this instance closes the {@link #runtime} as well, as no other proxy shares it.
    */
-  private final Map<Method, HazzardMethod<? extends ViewerT>> scannedMethods;
+  private final boolean ownsRuntime;
 
-  Hazzard(final TypeToken<?> proxiedType,
-      final net.kyori.hazzard.strategy.ITemplateVariableResolver<ViewerT, TemplateT, VariableReplacementT> templateVariableResolver,
-      final TemplateLocator<ViewerT, TemplateT> templateLocator,
-      final IMessageComposer<ViewerT, TemplateT, MessageT, VariableReplacementT> messageComposer,
-      final IMessageSendingService<ViewerT, MessageT> messageSender,
-      final NavigableSet<Weighted<? extends IViewerLookupServiceLocator<? extends ViewerT>>> weightedViewerLookupResolvers,
-      final Map<Type, NavigableSet<Weighted<? extends ITemplateVariableResolver<? extends ViewerT, ?, ? extends VariableReplacementT>>>> weightedTemplateVariableResolver)
+  /**
+   * Whether this instance was closed, failing all further invocations of the proxy.
+   */
+  private volatile boolean closed;
+
+  Hazzard(final HazzardRuntime<ViewerT, TemplateT, MessageT, VariableReplacementT> runtime,
+      final TypeToken<?> proxiedType, final ClassLoader classLoader, final boolean ownsRuntime)
       throws UnscannableMethodException {
     this.proxiedType = proxiedType;
-    this.templateVariableResolver = templateVariableResolver;
-    this.templateLocator = templateLocator;
-    this.messageComposer = messageComposer;
-    this.messageSender = messageSender;
-    this.weightedViewerLookupResolvers = Collections.unmodifiableNavigableSet(weightedViewerLookupResolvers);
-    this.weightedTemplateVariableResolver = Collections.unmodifiableMap(weightedTemplateVariableResolver);
-
-    final Method[] methods = GenericTypeReflector.erase(proxiedType.getType()).getMethods();
+    this.runtime = runtime;
+    this.ownsRuntime = ownsRuntime;
+
+    final Class<?> proxiedClass = GenericTypeReflector.erase(proxiedType.getType());
+    final Method[] methods = proxiedClass.getMethods();
+    final Map<Method, MethodHandle> defaultMethods = new HashMap<>();
+    for (final Method method : methods) {
+      if (method.isDefault()) {
+        try {
+          defaultMethods.put(method, ReflectiveUtils.findDefaultMethod(method));
+        } catch (final NoSuchMethodException | IllegalAccessException ex) {
+          throw new InaccessibleDefaultMethodException(proxiedType.getType(), method, ex);
+        }
+      }
+    }
+    this.defaultMethods = Collections.unmodifiableMap(defaultMethods);
+
+    final @Nullable ScanIndexStore scanIndexStore = runtime.scanIndexStore();
+    final byte @Nullable [] classHash = scanIndexStore == null
+        ? null
+        : ScanIndexStore.classHash(proxiedClass, runtime.viewerLookupServiceLocators(),
+            runtime.templateVariableResolver());
+    final @Nullable ScanIndex scanIndex = scanIndexStore == null || classHash == null
+        ? null
+        : scanIndexStore.load(proxiedClass, classHash);
+
+    final Map<Method, HazzardMethod<? extends ViewerT>> scannedMethods = this.scanMethods(
+        methods, runtime.scanningPool(), scanIndex);
+    this.scannedMethods = Collections.unmodifiableMap(scannedMethods);
+    if (scanIndexStore != null && classHash != null && scanIndex == null) {
+      scanIndexStore.store(proxiedClass, classHash, scannedMethods);
+    }
+
+    final Map<Method, ConstantMessages<TemplateT, MessageT>> constantMessages = new HashMap<>();
+    if (runtime.messageComposer().isViewerInvariant()) {
+      scannedMethods.forEach((method, hazzardMethod) -> {
+        if (runtime.templateVariableResolver().resolvesNoVariables(hazzardMethod)) {
+          constantMessages.put(method, new ConstantMessages<>(hazzardMethod.translationKey()));
+        }
+      });
+    }
+    this.constantMessages = Collections.unmodifiableMap(constantMessages);
+    runtime.registerConstantMessages(constantMessages.values());
+
+    this.pipelines = this.compilePipelines(scannedMethods);
+
+    runtime.unfoldShadowedGlobalVariables(scannedMethods.values());
+
+    runtime.templatePrefetch().prefetch(this, scannedMethods.values());
+
+    this.invocationHandler = new HazzardInvocationHandler<>(this);
+    this.proxy = Proxy.newProxyInstance(classLoader,
+        new Class[]{GenericTypeReflector.erase(proxiedType.getType())},
+        this.invocationHandler);
+  }
+
+  private Map<Method, HazzardMethod<? extends ViewerT>> scanMethods(final Method[] methods,
+                                                                    final @Nullable ForkJoinPool scanningPool,
+                                                                    final @Nullable ScanIndex scanIndex)
+      throws UnscannableMethodException {
     final Map<Method, HazzardMethod<? extends ViewerT>> scannedMethods = new HashMap<>(methods.length);
+    if (scanningPool == null) {
+      for (final Method method : methods) {
+        if (method.isDefault() || method.getReturnType() == Hazzard.class) {
+          continue;
+        }
+
+        final HazzardMethod<? extends ViewerT> hazzardMethod = new HazzardMethod<>(this, this.proxiedType, method,
+            scanIndex == null ? null : scanIndex.entry(method));
+        scannedMethods.put(method, hazzardMethod);
+      }
+      return scannedMethods;
+    }
+
+    // Failures are returned rather than thrown, as the pool would only rethrow them wrapped.
+    final List<ForkJoinTask<Object>> tasks = new ArrayList<>(methods.length);
     for (final Method method : methods) {
       if (method.isDefault() || method.getReturnType() == Hazzard.class) {
         continue;
       }
 
-      final HazzardMethod<? extends ViewerT> hazzardMethod =
-          new HazzardMethod<>(this, proxiedType, method);
-      scannedMethods.put(method, hazzardMethod);
+      tasks.add(scanningPool.submit(() -> {
+        try {
+          return new HazzardMethod<>(this, this.proxiedType, method,
+              scanIndex == null ? null : scanIndex.entry(method));
+        } catch (final UnscannableMethodException ex) {
+          return ex;
+        }
+      }));
     }
-    this.scannedMethods = Collections.unmodifiableMap(scannedMethods);
+    for (final ForkJoinTask<Object> task : tasks) {
+      final Object result = task.join();
+      if (result instanceof UnscannableMethodException ex) {
+        throw ex;
+      }
 
-    this.invocationHandler = new HazzardInvocationHandler<>(this);
+      @SuppressWarnings("unchecked") // The task only ever returns methods scanned by this instance.
+      final HazzardMethod<? extends ViewerT> hazzardMethod = (HazzardMethod<? extends ViewerT>) result;
+      scannedMethods.put(hazzardMethod.reflectMethod(), hazzardMethod);
+    }
+    return scannedMethods;
+  }
+
+  private @Nullable Map<Method, InvocationPipeline<ViewerT, TemplateT, MessageT, VariableReplacementT>> compilePipelines(
+      final Map<Method, HazzardMethod<? extends ViewerT>> scannedMethods) {
+    final List<IInvocationInterceptor<ViewerT, TemplateT, MessageT, VariableReplacementT>> interceptors =
+        this.runtime.interceptors();
+    if (interceptors.isEmpty()) {
+      return null;
+    }
+
+    final Map<Method, InvocationPipeline<ViewerT, TemplateT, MessageT, VariableReplacementT>> pipelines = new HashMap<>();
+    scannedMethods.forEach((method, hazzardMethod) -> {
+      final List<IInvocationInterceptor<ViewerT, TemplateT, MessageT, VariableReplacementT>> methodInterceptors =
+          new ArrayList<>(interceptors.size());
+      for (final IInvocationInterceptor<ViewerT, TemplateT, MessageT, VariableReplacementT> interceptor : interceptors) {
+        if (interceptor.intercepts(hazzardMethod)) {
+          methodInterceptors.add(interceptor);
+        }
+      }
+      if (!methodInterceptors.isEmpty()) {
+        pipelines.put(method, InvocationPipeline.compile(this, methodInterceptors));
+      }
+    });
+    return Collections.unmodifiableMap(pipelines);
   }
 
   @SideEffectFree
@@ -140,6 +254,14 @@ public final class Hazzard<ViewerT, TemplateT, MessageT, VariableReplacementT> {
     return this.proxiedType.getType();
   }
 
+  /**
+   * @return the runtime backing this instance, shared with any other proxies created from it
+   */
+  @Pure
+  public HazzardRuntime<ViewerT, TemplateT, MessageT, VariableReplacementT> runtime() {
+    return this.runtime;
+  }
+
   /**
    * @return the proxy invocation handler instance for the current {@link #proxiedType()}
    */
@@ -153,25 +275,62 @@ public final class Hazzard<ViewerT, TemplateT, MessageT, VariableReplacementT> {
    */
   @Pure
   public net.kyori.hazzard.strategy.ITemplateVariableResolver<ViewerT, TemplateT, VariableReplacementT> templateVariableResolver() {
-    return this.templateVariableResolver;
+    return this.runtime.templateVariableResolver();
   }
 
   /**
-   * @return an unmodifiable view of a navigable set for iterating through the available {@link
+   * @return an unmodifiable navigable set for iterating through the available {@link
    * IViewerLookupServiceLocator}s with weight-based ordering
    */
   @Pure
   public NavigableSet<Weighted<? extends IViewerLookupServiceLocator<? extends ViewerT>>> viewerLookupServiceLocators() {
-    return this.weightedViewerLookupResolvers;
+    return this.runtime.viewerLookupServiceLocators();
   }
 
   /**
-   * @return an unmodifiable view of a map of types to navigable sets for iterating through the available {@link
+   * @return an unmodifiable map of types to navigable sets for iterating through the available {@link
    * ITemplateVariableResolver}s with weight-based ordering
    */
   @Pure
   public Map<Type, NavigableSet<Weighted<? extends ITemplateVariableResolver<? extends ViewerT, ?, ? extends VariableReplacementT>>>> weightedVariableResolvers() {
-    return this.weightedTemplateVariableResolver;
+    return this.runtime.weightedVariableResolvers();
+  }
+
+  /**
+   * @return the proxy instance of the {@link #proxiedType()}
+   */
+  @Pure
+  public Object proxy() {
+    return this.proxy;
+  }
+
+  /**
+   * Prepare a message of a method of the proxied type, allowing arguments to be bound to it once and its variables
+   * to be resolved only once per template.
+   *
+   * @param method the method of the proxied type to prepare
+   * @return the prepared message, without any arguments bound yet
+   * @throws MissingHazzardMethodMappingException if the method is not a scanned method of the proxied type
+   */
+  public PreparedMessage<ViewerT, TemplateT, MessageT, VariableReplacementT> prepare(final Method method)
+      throws MissingHazzardMethodMappingException {
+    return new PreparedMessage<>(this, this.scannedMethod(method));
+  }
+
+  /**
+   * Prepare a message of a method of the proxied type.
+   *
+   * @param name the name of the method
+   * @param parameterTypes the parameter types of the method
+   * @return the prepared message, without any arguments bound yet
+   * @throws NoSuchMethodException if the proxied type has no such method
+   * @throws MissingHazzardMethodMappingException if the method is not a scanned method of the proxied type
+   * @see #prepare(Method)
+   */
+  public PreparedMessage<ViewerT, TemplateT, MessageT, VariableReplacementT> prepare(final String name,
+                                                                                     final Class<?>... parameterTypes)
+      throws NoSuchMethodException, MissingHazzardMethodMappingException {
+    return this.prepare(GenericTypeReflector.erase(this.proxiedType()).getMethod(name, parameterTypes));
   }
 
   /**
@@ -191,24 +350,113 @@ public final class Hazzard<ViewerT, TemplateT, MessageT, VariableReplacementT> {
     return scanned;
   }
 
+  /**
+   * Close this instance, failing any further invocations of the proxy with an {@link IllegalStateException}. If the
+   * proxy was created by a {@link HazzardBuilder builder} rather than a shared {@link HazzardRuntime runtime}, the
+   * runtime is closed as well, releasing all of its caches. Otherwise, the runtime releases whatever it cached for
+   * this instance and the types of the class loader of the proxied type.
+   */
+  @Override
+  public void close() {
+    this.closed = true;
+    if (this.ownsRuntime) {
+      this.runtime.close();
+      return;
+    }
+
+    this.runtime.release(this.constantMessages.values(),
+        GenericTypeReflector.erase(this.proxiedType.getType()).getClassLoader());
+  }
+
+  /**
+   * @return whether this instance or its runtime was {@link #close() closed}
+   */
+  public boolean isClosed() {
+    return this.closed || this.runtime.isClosed();
+  }
+
+  /**
+   * Ensure this instance is not {@link #close() closed} before invoking a method of the proxy.
+   *
+   * @throws IllegalStateException if this instance or its runtime is closed
+   */
+  void checkOpen() {
+    if (this.isClosed()) {
+      throw new IllegalStateException(GenericTypeReflector.getTypeName(this.proxiedType()) + " is closed");
+    }
+  }
+
+  /**
+   * @param method the method of the proxied type
+   * @return the pipeline of the method, or {@code null} if no interceptor intercepts it
+   */
+  @Pure
+  @Nullable InvocationPipeline<ViewerT, TemplateT, MessageT, VariableReplacementT> pipeline(final Method method) {
+    final @Nullable Map<Method, InvocationPipeline<ViewerT, TemplateT, MessageT, VariableReplacementT>> pipelines =
+        this.pipelines;
+    return pipelines == null ? null : pipelines.get(method);
+  }
+
+  /**
+   * Find a {@code default} method of the proxied type.
+   *
+   * @param method the method to find
+   * @return the method handle of the type {@code (Object, Object[])Object}, taking the proxy and the arguments
+   * @throws MissingHazzardMethodMappingException if the method is not a {@code default} method of the proxied type
+   */
+  MethodHandle defaultMethod(final Method method) throws MissingHazzardMethodMappingException {
+    final var handle = this.defaultMethods.get(method);
+    if (handle == null) {
+      throw new MissingHazzardMethodMappingException(this.proxiedType(), method);
+    }
+
+    return handle;
+  }
+
+  /**
+   * @param method the method to check
+   * @return whether the method's message is only composed once per template, as it never has any variables
+   */
+  @Pure
+  public boolean isConstant(final Method method) {
+    return this.constantMessages.containsKey(method);
+  }
+
+  /**
+   * @param method the method of the proxied type
+   * @return the messages of the method composed once per template, or {@code null} if it is not
+   *     {@link #isConstant(Method) constant}
+   */
+  @Pure
+  @Nullable ConstantMessages<TemplateT, MessageT> constantMessages(final Method method) {
+    return this.constantMessages.get(method);
+  }
+
   /**
    * @return the source of Templates, per ViewerT
    */
   public TemplateLocator<ViewerT, TemplateT> templateLocator() {
-    return this.templateLocator;
+    return this.runtime.templateLocator();
   }
 
   /**
    * @return the composer of messages, used before sending via {@link #messageSender()}
    */
   public IMessageComposer<ViewerT, TemplateT, MessageT, VariableReplacementT> messageComposer() {
-    return this.messageComposer;
+    return this.runtime.messageComposer();
   }
 
   /**
    * @return the message sender of intermediate messages to a given receiver with resolved placeholders
    */
   public IMessageSendingService<ViewerT, MessageT> messageSender() {
-    return this.messageSender;
+    return this.runtime.messageSender();
+  }
+
+  /**
+   * @return the service deciding whether a message is suppressed before being composed and sent
+   */
+  public IMessageSuppressionService<ViewerT, VariableReplacementT> messageSuppressionService() {
+    return this.runtime.messageSuppressionService();
   }
 }
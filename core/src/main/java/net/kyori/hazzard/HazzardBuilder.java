@@ -17,22 +17,34 @@
  */
 package net.kyori.hazzard;
 
-import io.leangen.geantyref.GenericTypeReflector;
 import io.leangen.geantyref.TypeToken;
-import java.lang.reflect.Proxy;
 import java.lang.reflect.Type;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.NavigableSet;
 import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
 import net.kyori.hazzard.annotation.meta.NotThreadSafe;
+import net.kyori.hazzard.exception.scan.InvalidTemplateException;
 import net.kyori.hazzard.exception.scan.UnscannableMethodException;
 import net.kyori.hazzard.message.IMessageComposer;
+import net.kyori.hazzard.message.IMessageFilter;
 import net.kyori.hazzard.message.IMessageSendingService;
+import net.kyori.hazzard.message.IMessageSuppressionService;
+import net.kyori.hazzard.message.ITemplateChangeSource;
+import net.kyori.hazzard.message.ITemplateFolder;
+import net.kyori.hazzard.message.ITemplateValidator;
 import net.kyori.hazzard.message.TemplateLocator;
 import net.kyori.hazzard.variable.ITemplateVariableResolver;
 import net.kyori.hazzard.viewer.IViewerLookupServiceLocator;
 import net.kyori.hazzard.util.Weighted;
+import org.checkerframework.checker.nullness.qual.Nullable;
 import org.checkerframework.common.returnsreceiver.qual.This;
 import org.checkerframework.dataflow.qual.Deterministic;
 import org.checkerframework.dataflow.qual.Pure;
@@ -166,6 +178,17 @@ public final class HazzardBuilder {
     private final net.kyori.hazzard.strategy.ITemplateVariableResolver<ViewerT, TemplateT, ReplacementT> variableResolverStrategy;
     private final Map<Type, NavigableSet<Weighted<? extends ITemplateVariableResolver<? extends ViewerT, ?, ? extends ReplacementT>>>>
             weightedVariableResolvers = new HashMap<>();
+    private IMessageSuppressionService<ViewerT, ReplacementT> messageSuppressionService = IMessageSuppressionService.never();
+    private @Nullable IMessageFilter<ViewerT> messageFilter;
+    private final List<IInvocationInterceptor<ViewerT, TemplateT, MessageT, ReplacementT>> interceptors = new ArrayList<>();
+    private final Map<String, ReplacementT> globalVariables = new LinkedHashMap<>();
+    private @Nullable ITemplateFolder<TemplateT, ReplacementT> templateFolder;
+    private final List<ITemplateChangeSource<? extends TemplateT>> templateChangeSources = new ArrayList<>();
+    private final List<ViewerT> prefetchViewers = new ArrayList<>();
+    private @Nullable ITemplateValidator<TemplateT> templateValidator;
+    private @Nullable Consumer<? super InvalidTemplateException> invalidTemplateReporter;
+    private @Nullable ForkJoinPool scanningPool;
+    private @Nullable Path scanIndexDirectory;
 
     private Resolved(final TypeToken<T> proxiedType,
                      final NavigableSet<Weighted<? extends IViewerLookupServiceLocator<? extends ViewerT>>> weightedViewerLookupServiceLocator,
@@ -218,20 +241,197 @@ public final class HazzardBuilder {
       return this;
     }
 
-    @SideEffectFree
+    @Deterministic
+    public @This Resolved<T, ViewerT, TemplateT, MessageT, ReplacementT> suppressedBy(
+        final IMessageSuppressionService<ViewerT, ReplacementT> messageSuppressionService) {
+      this.messageSuppressionService = messageSuppressionService;
+      return this;
+    }
+
+    /**
+     * Register a filter of messages to send, consulted before their templates are located. Filters registered
+     * afterwards are only consulted for messages accepted by this one.
+     *
+     * @param messageFilter the filter to register
+     * @return this builder
+     */
+    @Deterministic
+    public @This Resolved<T, ViewerT, TemplateT, MessageT, ReplacementT> filteredBy(
+        final IMessageFilter<ViewerT> messageFilter) {
+      this.messageFilter = this.messageFilter == null ? messageFilter : this.messageFilter.and(messageFilter);
+      return this;
+    }
+
+    /**
+     * Register an interceptor around the stages of invoking proxied methods. Interceptors registered afterwards are
+     * nested within this one.
+     *
+     * @param interceptor the interceptor to register
+     * @return this builder
+     */
+    @Deterministic
+    public @This Resolved<T, ViewerT, TemplateT, MessageT, ReplacementT> intercepted(
+        final IInvocationInterceptor<ViewerT, TemplateT, MessageT, ReplacementT> interceptor) {
+      this.interceptors.add(interceptor);
+      return this;
+    }
+
+    /**
+     * Register a variable available to every template without a method parameter, e.g. the name of the server.
+     * <p>
+     * Global variables are folded into the templates once if a {@link #templateFolder(ITemplateFolder) template
+     * folder} is set, and otherwise passed to the composer along with the resolved variables of every message. Resolved
+     * variables take precedence over global variables of the same name; such global variables are never folded into
+     * the templates of the translation key of the method, and are composed instead.
+     * </p>
+     *
+     * @param name the name of the variable
+     * @param value the finalised value of the variable
+     * @return this builder
+     */
+    @Deterministic
+    public @This Resolved<T, ViewerT, TemplateT, MessageT, ReplacementT> globalVariable(final String name,
+                                                                                          final ReplacementT value) {
+      this.globalVariables.put(name, value);
+      return this;
+    }
+
+    @Deterministic
+    public @This Resolved<T, ViewerT, TemplateT, MessageT, ReplacementT> templateFolder(
+        final ITemplateFolder<TemplateT, ReplacementT> templateFolder) {
+      this.templateFolder = templateFolder;
+      return this;
+    }
+
+    /**
+     * Invalidate whatever the runtime cached for a template once the given source changes it, e.g. if the template
+     * locator is backed by reloadable sources without being one itself.
+     * <p>
+     * The template locator is listened to already if it is an {@link ITemplateChangeSource}. The runtime stops
+     * listening once it is {@link HazzardRuntime#close() closed}.
+     * </p>
+     *
+     * @param templateChangeSource the source of the changed templates
+     * @return this builder
+     */
+    @Deterministic
+    public @This Resolved<T, ViewerT, TemplateT, MessageT, ReplacementT> templateChangesOf(
+        final ITemplateChangeSource<? extends TemplateT> templateChangeSource) {
+      this.templateChangeSources.add(templateChangeSource);
+      return this;
+    }
+
+    /**
+     * Locate the templates of every scanned method for the given viewers when creating a proxy, rather than when the
+     * first message is sent. Every viewer should stand for a distinct template dimension, e.g. a locale.
+     * <p>
+     * Missing and {@link #validateTemplates(ITemplateValidator) invalid} templates fail the creation of the proxy
+     * with an {@link InvalidTemplateException}, unless they are {@link #reportInvalidTemplates(Consumer) reported}.
+     * </p>
+     *
+     * @param viewers the viewers to locate templates for
+     * @return this builder
+     */
+    @Deterministic
+    public @This Resolved<T, ViewerT, TemplateT, MessageT, ReplacementT> prefetchTemplates(
+        final Collection<? extends ViewerT> viewers) {
+      this.prefetchViewers.addAll(viewers);
+      return this;
+    }
+
+    /**
+     * Validate the {@link #prefetchTemplates(Collection) prefetched} templates of every scanned method, e.g. that
+     * they use all of its variables.
+     * <p>
+     * The validator is given the names of the variables the variable resolving strategy resolves from the arguments
+     * of the method under their own names.
+     * </p>
+     *
+     * @param templateValidator the validator of the templates
+     * @return this builder
+     */
+    @Deterministic
+    public @This Resolved<T, ViewerT, TemplateT, MessageT, ReplacementT> validateTemplates(
+        final ITemplateValidator<TemplateT> templateValidator) {
+      this.templateValidator = templateValidator;
+      return this;
+    }
+
+    /**
+     * Report missing and {@link #validateTemplates(ITemplateValidator) invalid} templates found when
+     * {@link #prefetchTemplates(Collection) prefetching} instead of failing the creation of the proxy, e.g. to log
+     * them.
+     *
+     * @param invalidTemplateReporter the reporter of every missing or invalid template
+     * @return this builder
+     */
+    @Deterministic
+    public @This Resolved<T, ViewerT, TemplateT, MessageT, ReplacementT> reportInvalidTemplates(
+        final Consumer<? super InvalidTemplateException> invalidTemplateReporter) {
+      this.invalidTemplateReporter = invalidTemplateReporter;
+      return this;
+    }
+
+    /**
+     * Scan the methods of created proxies in parallel on the given pool, rather than on the creating thread alone.
+     * <p>
+     * The registered {@link IViewerLookupServiceLocator}s are then consulted concurrently, and must be safe to do so.
+     * The creating thread still waits for the scan to complete.
+     * </p>
+     *
+     * @param scanningPool the pool to scan methods on
+     * @return this builder
+     * @see HazzardRuntime#createAll(List, ClassLoader)
+     */
+    @Deterministic
+    public @This Resolved<T, ViewerT, TemplateT, MessageT, ReplacementT> scanInParallel(final ForkJoinPool scanningPool) {
+      this.scanningPool = scanningPool;
+      return this;
+    }
+
+    /**
+     * Persist the results of scanning proxied types in the given directory, and load them instead of scanning the
+     * types again when they are proxied once more, e.g. after a restart.
+     * <p>
+     * The results hold the translation keys, viewer lookup decisions and
+     * {@link net.kyori.hazzard.strategy.ITemplateVariableResolver#scanPlaceholders(java.lang.reflect.Method)
+     * placeholders} of all methods. They are only used while the class files of the type and its supertypes, the
+     * registered {@link IViewerLookupServiceLocator}s and the variable resolving strategy stay the same.
+     * </p>
+     *
+     * @param scanIndexDirectory the directory to persist the results in
+     * @return this builder
+     */
+    @Deterministic
+    public @This Resolved<T, ViewerT, TemplateT, MessageT, ReplacementT> scanIndexDirectory(final Path scanIndexDirectory) {
+      this.scanIndexDirectory = scanIndexDirectory;
+      return this;
+    }
+
     public T create() throws UnscannableMethodException {
       return this.create(Thread.currentThread().getContextClassLoader());
     }
 
-    @SuppressWarnings("unchecked") // Proxy returns Object; we expect T which is provided in #proxiedType.
-    @SideEffectFree
     public T create(final ClassLoader classLoader) throws UnscannableMethodException {
-      final Hazzard<ViewerT, TemplateT, MessageT, ReplacementT> hazzard = new Hazzard<>(this.proxiedType, this.variableResolverStrategy,
-          this.templateLocator, this.messageComposer, this.messageSender, this.weightedViewerLookupServiceLocator,
-          this.weightedVariableResolvers);
-      return (T) Proxy.newProxyInstance(classLoader,
-          new Class[]{GenericTypeReflector.erase(this.proxiedType.getType())},
-          hazzard.invocationHandler());
+      // The runtime only backs this proxy, so closing the proxy closes it as well.
+      return this.runtime().create(this.proxiedType, classLoader, true);
+    }
+
+    /**
+     * Create a runtime of the current configuration, from which any amount of proxies of other types may be created
+     * sharing all resolvers, services and caches.
+     *
+     * @return the created runtime
+     */
+    public HazzardRuntime<ViewerT, TemplateT, MessageT, ReplacementT> runtime() {
+      return new HazzardRuntime<>(this.variableResolverStrategy, this.templateLocator, this.messageComposer,
+          this.messageSender, this.messageSuppressionService, this.messageFilter, List.copyOf(this.interceptors),
+          this.weightedViewerLookupServiceLocator,
+          this.weightedVariableResolvers, this.globalVariables, this.templateFolder,
+          List.copyOf(this.templateChangeSources),
+          new TemplatePrefetch<>(List.copyOf(this.prefetchViewers), this.templateValidator,
+              this.invalidTemplateReporter), this.scanningPool,
+          this.scanIndexDirectory == null ? null : new ScanIndexStore(this.scanIndexDirectory));
     }
   }
 }
@@ -22,8 +22,13 @@ import java.lang.invoke.MethodHandle;
 import java.lang.reflect.InvocationHandler;
 import java.lang.reflect.Method;
 import java.lang.reflect.Proxy;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
 import net.kyori.hazzard.annotation.meta.ThreadSafe;
-import net.kyori.hazzard.internal.ReflectiveUtils;
+import net.kyori.hazzard.exception.HazzardException;
+import net.kyori.hazzard.message.IMessageFilter;
+import net.kyori.hazzard.model.HazzardMethod;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
@@ -59,6 +64,9 @@ import org.checkerframework.checker.nullness.qual.Nullable;
       return this.proxiedToString();
     }
 
+    // A closed proxy may belong to an unloaded plugin; nothing should be resolved for it anymore.
+    this.hazzard.checkOpen();
+
     // With that out of the way, get rid of nulls in our parameters.
     // We do not want a null array as that becomes inconvenient to us.
     if (args == null) {
@@ -69,12 +77,8 @@ import org.checkerframework.checker.nullness.qual.Nullable;
     // We have nothing to do if the user has specified a default implementation...
     if (method.isDefault()) {
       // ... in which case, find it and invoke it appropriately.
-      final MethodHandle handle = ReflectiveUtils.findMethod(method, proxy);
-      if (args.length == 0) {
-        return handle.invoke();
-      } else {
-        return handle.invokeWithArguments(args);
-      }
+      final MethodHandle handle = this.hazzard.defaultMethod(method);
+      return (Object) handle.invokeExact(proxy, args);
     }
 
     // If for some reason the user wants to access the Hazzard instance, we will let them do so,
@@ -84,10 +88,122 @@ import org.checkerframework.checker.nullness.qual.Nullable;
     }
 
     final var hazzardMethod = this.hazzard.scannedMethod(method);
-    final ViewerT viewer = hazzardMethod.viewerLookupService().lookup(method, proxy, args);
-    final TemplateT template = this.hazzard.templateLocator().templateOf(viewer, hazzardMethod.translationKey());
-    final var resolvedPlaceholders =
-        this.hazzard.templateVariableResolver()
+
+    // A supplied message is only resolved and composed once, and only if it is requested at all.
+    if (method.getReturnType() == Supplier.class) {
+      final @Nullable InvocationPipeline<ViewerT, TemplateT, MessageT, ReplacementT> pipeline =
+          this.hazzard.pipeline(method);
+      final ViewerT viewer = pipeline == null
+          ? hazzardMethod.viewerLookupService().lookup(method, proxy, args)
+          : pipeline.lookup().lookup(proxy, hazzardMethod, args);
+      final TemplateT template = pipeline == null
+          ? this.hazzard.runtime().templateOf(viewer, hazzardMethod)
+          : pipeline.locate().locate(viewer, hazzardMethod);
+      final @Nullable Object[] arguments = args;
+      return new LazyMessage<>(() -> {
+        // A message requested only after its proxy was closed is never rendered, like any other use of it.
+        this.hazzard.checkOpen();
+        return this.render(viewer, template, hazzardMethod, arguments, false, null);
+      });
+    }
+
+    final boolean send = method.getReturnType() == void.class;
+    final @Nullable MessageT renderedMessage = this.dispatch(proxy, hazzardMethod, args, send, null);
+    return send ? null : renderedMessage;
+  }
+
+  /**
+   * Render a message of a scanned method, and send it if wanted.
+   *
+   * @param proxy the proxy the method was invoked on
+   * @param hazzardMethod the scanned method
+   * @param args the arguments of the invocation
+   * @param send whether to send the message rather than only rendering it
+   * @param prepared the prepared message resolving part of the variables, if any
+   * @return the rendered message, or {@code null} if it was sent or suppressed
+   * @throws HazzardException if any stage of the pipeline fails
+   */
+  @Nullable MessageT dispatch(final Object proxy, final HazzardMethod<? extends ViewerT> hazzardMethod,
+                              final @Nullable Object[] args, final boolean send,
+                              final @Nullable PreparedMessage<ViewerT, TemplateT, MessageT, ReplacementT> prepared)
+      throws HazzardException {
+    final @Nullable InvocationPipeline<ViewerT, TemplateT, MessageT, ReplacementT> pipeline =
+        this.hazzard.pipeline(hazzardMethod.reflectMethod());
+    return pipeline == null
+        ? this.invokeStages(proxy, hazzardMethod, args, send, prepared)
+        : pipeline.dispatch().dispatch(proxy, hazzardMethod, args, send, prepared);
+  }
+
+  /**
+   * Render a message of a scanned method stage by stage, and send it if wanted.
+   *
+   * @param proxy the proxy the method was invoked on
+   * @param hazzardMethod the scanned method
+   * @param args the arguments of the invocation
+   * @param send whether to send the message rather than only rendering it
+   * @param prepared the prepared message resolving part of the variables, if any
+   * @return the rendered message, or {@code null} if it was sent or suppressed
+   * @throws HazzardException if any stage of the pipeline fails
+   */
+  @Nullable MessageT invokeStages(final Object proxy, final HazzardMethod<? extends ViewerT> hazzardMethod,
+                                  final @Nullable Object[] args, final boolean send,
+                                  final @Nullable PreparedMessage<ViewerT, TemplateT, MessageT, ReplacementT> prepared)
+      throws HazzardException {
+    final Method method = hazzardMethod.reflectMethod();
+    // Without any interceptors of the method, every stage is invoked directly.
+    final @Nullable InvocationPipeline<ViewerT, TemplateT, MessageT, ReplacementT> pipeline =
+        this.hazzard.pipeline(method);
+    final ViewerT viewer = pipeline == null
+        ? hazzardMethod.viewerLookupService().lookup(method, proxy, args)
+        : pipeline.lookup().lookup(proxy, hazzardMethod, args);
+
+    // A filtered message is dropped before doing any work for it at all.
+    final @Nullable IMessageFilter<ViewerT> messageFilter = this.hazzard.runtime().messageFilter();
+    if (send && messageFilter != null && !messageFilter.accept(viewer, hazzardMethod, args)) {
+      return null;
+    }
+
+    final TemplateT template = pipeline == null
+        ? this.hazzard.runtime().templateOf(viewer, hazzardMethod)
+        : pipeline.locate().locate(viewer, hazzardMethod);
+    return this.render(viewer, template, hazzardMethod, args, send, prepared);
+  }
+
+  /**
+   * Render a message of a scanned method with its located template, and send it if wanted.
+   *
+   * @param viewer the viewer of the message
+   * @param template the template of the message
+   * @param hazzardMethod the scanned method
+   * @param args the arguments of the invocation
+   * @param send whether to send the message rather than only rendering it
+   * @param prepared the prepared message resolving part of the variables, if any
+   * @return the rendered message, or {@code null} if it was sent or suppressed
+   * @throws HazzardException if the variables could not be resolved
+   */
+  private @Nullable MessageT render(final ViewerT viewer, final TemplateT template,
+                                    final HazzardMethod<? extends ViewerT> hazzardMethod,
+                                    final @Nullable Object[] args, final boolean send,
+                                    final @Nullable PreparedMessage<ViewerT, TemplateT, MessageT, ReplacementT> prepared)
+      throws HazzardException {
+    final Method method = hazzardMethod.reflectMethod();
+    final @Nullable InvocationPipeline<ViewerT, TemplateT, MessageT, ReplacementT> pipeline =
+        this.hazzard.pipeline(method);
+    final @Nullable ConstantMessages<TemplateT, MessageT> constantMessages = this.hazzard.constantMessages(method);
+    final boolean constant = constantMessages != null;
+    final Map<String, ? extends ReplacementT> globalVariables =
+        this.hazzard.runtime().composedGlobalVariables(hazzardMethod);
+    final Map<String, ? extends ReplacementT> resolvedPlaceholders;
+    if (constant) {
+      resolvedPlaceholders = globalVariables;
+    } else {
+      final Map<String, ? extends ReplacementT> resolvedVariables;
+      if (pipeline != null) {
+        resolvedVariables = pipeline.resolve().resolve(viewer, template, hazzardMethod, args, prepared);
+      } else if (prepared != null) {
+        resolvedVariables = prepared.resolveVariables(viewer, template, args);
+      } else {
+        resolvedVariables = this.hazzard.templateVariableResolver()
             .resolveVariables(
                 this.hazzard,
                 viewer,
@@ -95,20 +211,58 @@ import org.checkerframework.checker.nullness.qual.Nullable;
                 hazzardMethod,
                 args
             );
-    final MessageT renderedMessage = this.hazzard.messageComposer().compose(
+      }
+      resolvedPlaceholders = globalVariables.isEmpty()
+          ? resolvedVariables
+          : withGlobalVariables(globalVariables, resolvedVariables);
+    }
+
+    // A suppressed message is dropped before doing the work of composing it.
+    if (send && this.hazzard.messageSuppressionService().suppress(viewer, hazzardMethod, resolvedPlaceholders)) {
+      return null;
+    }
+
+    // Without any variables, the message is the same for every invocation with the same template.
+    final MessageT renderedMessage = constantMessages != null
+        ? constantMessages.message(template, constantTemplate ->
+            this.compose(pipeline, viewer, constantTemplate, resolvedPlaceholders, hazzardMethod))
+        : this.compose(pipeline, viewer, template, resolvedPlaceholders, hazzardMethod);
+
+    if (send) {
+      if (pipeline == null) {
+        this.hazzard.messageSender().send(viewer, renderedMessage);
+      } else {
+        pipeline.send().send(viewer, renderedMessage, hazzardMethod);
+      }
+      return null;
+    }
+
+    return renderedMessage;
+  }
+
+  private MessageT compose(final @Nullable InvocationPipeline<ViewerT, TemplateT, MessageT, ReplacementT> pipeline,
+                           final ViewerT viewer, final TemplateT template,
+                           final Map<String, ? extends ReplacementT> resolvedPlaceholders,
+                           final HazzardMethod<? extends ViewerT> hazzardMethod) {
+    if (pipeline != null) {
+      return pipeline.compose().compose(viewer, template, resolvedPlaceholders, hazzardMethod);
+    }
+
+    return this.hazzard.messageComposer().compose(
         viewer,
         template,
         resolvedPlaceholders,
-        method,
+        hazzardMethod.reflectMethod(),
         this.hazzard.proxiedType()
     );
+  }
 
-    if (method.getReturnType() == void.class) {
-      this.hazzard.messageSender().send(viewer, renderedMessage);
-      return null;
-    } else {
-      return renderedMessage;
-    }
+  private static <ReplacementT> Map<String, ReplacementT> withGlobalVariables(
+      final Map<String, ? extends ReplacementT> globalVariables,
+      final Map<String, ? extends ReplacementT> resolvedVariables) {
+    final Map<String, ReplacementT> variables = new LinkedHashMap<>(globalVariables);
+    variables.putAll(resolvedVariables);
+    return variables;
   }
 
   private boolean proxiedEquals(final @Nullable Object @Nullable [] args) {
@@ -0,0 +1,658 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard;
+
+import io.leangen.geantyref.TypeToken;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import net.kyori.hazzard.annotation.meta.ThreadSafe;
+import net.kyori.hazzard.exception.MissingTranslationKeyException;
+import net.kyori.hazzard.exception.scan.UnscannableMethodException;
+import net.kyori.hazzard.message.FoldingTemplateLocator;
+import net.kyori.hazzard.message.IMessageComposer;
+import net.kyori.hazzard.message.IMessageFilter;
+import net.kyori.hazzard.message.IMessageSendingService;
+import net.kyori.hazzard.message.IMessageSuppressionService;
+import net.kyori.hazzard.message.ITemplateChangeListener;
+import net.kyori.hazzard.message.ITemplateChangeSource;
+import net.kyori.hazzard.message.ITemplateFolder;
+import net.kyori.hazzard.message.IndexedTemplateLocator;
+import net.kyori.hazzard.message.TemplateLocator;
+import net.kyori.hazzard.model.HazzardMethod;
+import net.kyori.hazzard.model.TranslationKeyIndex;
+import net.kyori.hazzard.variable.ITemplateVariableResolver;
+import net.kyori.hazzard.viewer.IViewerLookupServiceLocator;
+import net.kyori.hazzard.util.Weighted;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.dataflow.qual.Pure;
+
+/**
+ * The shared state of any amount of Hazzard-driven proxies.
+ * <p>
+ * A runtime owns the strategies, services and resolver registrations once; every proxy created from it only scans its
+ * own methods. Any caches held by the components, such as the type hierarchy cache of a supertype strategy, are
+ * therefore shared by all of these proxies as well.
+ * </p>
+ *
+ * @param <ViewerT> the message receiving type
+ * @param <TemplateT> the intermediate message type e.g. a localization string with placeholders.
+ * @param <MessageT> the output/rendered message type e.g. a richly formatted string.
+ * @param <VariableReplacementT> the finalised placeholder type, post-resolving, usually a component piece of MessageT
+ */
+@ThreadSafe
+public final class HazzardRuntime<ViewerT, TemplateT, MessageT, VariableReplacementT>
+    implements AutoCloseable, ITemplateChangeListener<TemplateT> {
+  /**
+   * The strategy for resolving template variables upon method invocation.
+   */
+  private final net.kyori.hazzard.strategy.ITemplateVariableResolver<ViewerT, TemplateT, VariableReplacementT> templateVariableResolver;
+
+  /**
+   * The source of templates, potentially discriminated by viewer type.
+   */
+  private final TemplateLocator<ViewerT, TemplateT> templateLocator;
+
+  /**
+   * The template populator of all messages, before being sent via {@link #messageSender()}.
+   */
+  private final IMessageComposer<ViewerT, TemplateT, MessageT, VariableReplacementT> messageComposer;
+
+  /**
+   * The message sender of messages to a given viewer with resolved variable replacements.
+   */
+  private final IMessageSendingService<ViewerT, MessageT> messageSender;
+
+  /**
+   * The service deciding whether a message is suppressed before being composed and sent.
+   */
+  private final IMessageSuppressionService<ViewerT, VariableReplacementT> messageSuppressionService;
+
+  /**
+   * The filter of messages to send before locating their templates, or {@code null} to send all of them.
+   */
+  private final @Nullable IMessageFilter<ViewerT> messageFilter;
+
+  /**
+   * The interceptors around the stages of invoking proxied methods, the outermost one first.
+   */
+  private final List<IInvocationInterceptor<ViewerT, TemplateT, MessageT, VariableReplacementT>> interceptors;
+
+  /**
+   * A navigable set for iterating through the {@link IViewerLookupServiceLocator}s with weight-based ordering.
+   */
+  private final NavigableSet<Weighted<? extends IViewerLookupServiceLocator<? extends ViewerT>>> weightedViewerLookupResolvers;
+
+  /**
+   * A map of types to navigable sets for iterating through the {@link ITemplateVariableResolver}s with weight-based
+   * ordering.
+   */
+  private final Map<Type, NavigableSet<Weighted<? extends ITemplateVariableResolver<? extends ViewerT, ?, ? extends VariableReplacementT>>>> weightedTemplateVariableResolver;
+
+  /**
+   * The source of templates if it accepts interned translation key IDs, otherwise {@code null}.
+   */
+  private final @Nullable IndexedTemplateLocator<ViewerT, TemplateT> indexedTemplateLocator;
+
+  /**
+   * The interned translation keys of all proxies of this runtime.
+   */
+  private final TranslationKeyIndex translationKeyIndex = new TranslationKeyIndex();
+
+  /**
+   * The templates to locate when creating a proxy.
+   */
+  private final TemplatePrefetch<ViewerT, TemplateT> templatePrefetch;
+
+  /**
+   * The pool to scan methods on in parallel, or {@code null} to scan them on the creating thread.
+   */
+  private final @Nullable ForkJoinPool scanningPool;
+
+  /**
+   * The store of persisted scan results, or {@code null} to always scan proxied types.
+   */
+  private final @Nullable ScanIndexStore scanIndexStore;
+
+  /**
+   * All global variables, available to every template.
+   */
+  private final Map<String, VariableReplacementT> globalVariables;
+
+  /**
+   * The locator folding the global variables into the templates, or {@code null} if they are composed instead.
+   */
+  private final @Nullable FoldingTemplateLocator<ViewerT, TemplateT, VariableReplacementT> foldingTemplateLocator;
+
+  /**
+   * The sources of changed templates this runtime listens to, until it is closed.
+   */
+  private final List<ITemplateChangeSource<? extends TemplateT>> templateChangeSources;
+
+  /**
+   * The listener registered with the {@link #templateChangeSources}, referring to this runtime only weakly; runtimes
+   * backing a single proxy are rarely closed, and must not be kept reachable by the sources outliving them.
+   */
+  private final WeakTemplateChangeListener<TemplateT> templateChangeListener;
+
+  /**
+   * The messages composed once per template of all methods without any variables, one cache per scanned method.
+   */
+  private final Set<ConstantMessages<TemplateT, MessageT>> constantMessages = ConcurrentHashMap.newKeySet();
+
+  /**
+   * Whether this runtime was closed, failing all of its proxies.
+   */
+  private volatile boolean closed;
+
+  HazzardRuntime(
+      final net.kyori.hazzard.strategy.ITemplateVariableResolver<ViewerT, TemplateT, VariableReplacementT> templateVariableResolver,
+      final TemplateLocator<ViewerT, TemplateT> templateLocator,
+      final IMessageComposer<ViewerT, TemplateT, MessageT, VariableReplacementT> messageComposer,
+      final IMessageSendingService<ViewerT, MessageT> messageSender,
+      final IMessageSuppressionService<ViewerT, VariableReplacementT> messageSuppressionService,
+      final @Nullable IMessageFilter<ViewerT> messageFilter,
+      final List<IInvocationInterceptor<ViewerT, TemplateT, MessageT, VariableReplacementT>> interceptors,
+      final NavigableSet<Weighted<? extends IViewerLookupServiceLocator<? extends ViewerT>>> weightedViewerLookupResolvers,
+      final Map<Type, NavigableSet<Weighted<? extends ITemplateVariableResolver<? extends ViewerT, ?, ? extends VariableReplacementT>>>> weightedTemplateVariableResolver,
+      final Map<String, VariableReplacementT> globalVariables,
+      final @Nullable ITemplateFolder<TemplateT, VariableReplacementT> templateFolder,
+      final List<ITemplateChangeSource<? extends TemplateT>> templateChangeSources,
+      final TemplatePrefetch<ViewerT, TemplateT> templatePrefetch,
+      final @Nullable ForkJoinPool scanningPool,
+      final @Nullable ScanIndexStore scanIndexStore) {
+    this.templateVariableResolver = templateVariableResolver;
+    this.templatePrefetch = templatePrefetch;
+    this.scanningPool = scanningPool;
+    this.scanIndexStore = scanIndexStore;
+    this.messageComposer = messageComposer;
+    this.messageSender = messageSender;
+    this.messageSuppressionService = messageSuppressionService;
+    this.messageFilter = messageFilter;
+    this.interceptors = interceptors;
+
+    // The builder stays usable after creating a runtime, so none of its collections may leak in here.
+    this.weightedViewerLookupResolvers = Collections.unmodifiableNavigableSet(new TreeSet<>(weightedViewerLookupResolvers));
+    final Map<Type, NavigableSet<Weighted<? extends ITemplateVariableResolver<? extends ViewerT, ?, ? extends VariableReplacementT>>>> variableResolvers =
+        new HashMap<>(weightedTemplateVariableResolver.size());
+    weightedTemplateVariableResolver.forEach((type, resolvers) ->
+        variableResolvers.put(type, Collections.unmodifiableNavigableSet(new TreeSet<>(resolvers))));
+    this.weightedTemplateVariableResolver = Collections.unmodifiableMap(variableResolvers);
+
+    this.globalVariables = Collections.unmodifiableMap(new LinkedHashMap<>(globalVariables));
+    if (templateFolder != null && !globalVariables.isEmpty()) {
+      this.foldingTemplateLocator = new FoldingTemplateLocator<>(templateLocator, templateFolder, this.globalVariables);
+      this.templateLocator = this.foldingTemplateLocator;
+    } else {
+      this.foldingTemplateLocator = null;
+      this.templateLocator = templateLocator;
+    }
+
+    final List<ITemplateChangeSource<? extends TemplateT>> changeSources = new ArrayList<>(templateChangeSources);
+    if (templateLocator instanceof ITemplateChangeSource<?> && !changeSources.contains(templateLocator)) {
+      @SuppressWarnings("unchecked") // A locator of TemplateT only changes templates of TemplateT.
+      final ITemplateChangeSource<? extends TemplateT> changeSource =
+          (ITemplateChangeSource<? extends TemplateT>) templateLocator;
+      changeSources.add(changeSource);
+    }
+    this.templateChangeSources = List.copyOf(changeSources);
+    this.indexedTemplateLocator = this.templateLocator instanceof IndexedTemplateLocator<ViewerT, TemplateT> indexed
+        ? indexed
+        : null;
+
+    this.templateChangeListener = new WeakTemplateChangeListener<>(this, this.templateChangeSources);
+    for (final ITemplateChangeSource<? extends TemplateT> templateChangeSource : this.templateChangeSources) {
+      templateChangeSource.addListener(this.templateChangeListener);
+    }
+  }
+
+  /**
+   * Create a proxy of the given type, backed by this runtime.
+   *
+   * @param proxiedType the type to proxy
+   * @param <T> the type to proxy
+   * @return the created proxy
+   * @throws UnscannableMethodException if any method of the type could not be scanned
+   * @throws IllegalStateException if this runtime is closed
+   */
+  public <T> T create(final TypeToken<T> proxiedType) throws UnscannableMethodException {
+    return this.create(proxiedType, Thread.currentThread().getContextClassLoader());
+  }
+
+  /**
+   * Create a proxy of the given type, backed by this runtime.
+   *
+   * @param proxiedType the type to proxy
+   * @param classLoader the class loader to define the proxy class in
+   * @param <T> the type to proxy
+   * @return the created proxy
+   * @throws UnscannableMethodException if any method of the type could not be scanned
+   * @throws IllegalStateException if this runtime is closed
+   */
+  public <T> T create(final TypeToken<T> proxiedType, final ClassLoader classLoader) throws UnscannableMethodException {
+    return this.create(proxiedType, classLoader, false);
+  }
+
+  /**
+   * Create a proxy of the given type, backed by this runtime.
+   *
+   * @param proxiedType the type to proxy
+   * @param classLoader the class loader to define the proxy class in
+   * @param ownsRuntime whether closing the proxy closes this runtime as well
+   * @param <T> the type to proxy
+   * @return the created proxy
+   * @throws UnscannableMethodException if any method of the type could not be scanned
+   * @throws IllegalStateException if this runtime is closed
+   */
+  @SuppressWarnings("unchecked") // Proxy returns Object; we expect T which is provided in proxiedType.
+  <T> T create(final TypeToken<T> proxiedType, final ClassLoader classLoader, final boolean ownsRuntime)
+      throws UnscannableMethodException {
+    if (this.closed) {
+      throw new IllegalStateException("The runtime is closed");
+    }
+
+    return (T) new Hazzard<>(this, proxiedType, classLoader, ownsRuntime).proxy();
+  }
+
+  /**
+   * Close this runtime, failing any further invocations of its proxies and releasing all of its caches, including
+   * those of its {@link #templateVariableResolver() strategy}. This should be done when unloading the class loader of
+   * the proxied types, as the caches would otherwise keep the types loaded.
+   */
+  @Override
+  public void close() {
+    this.closed = true;
+    this.templateChangeListener.unregister();
+    for (final ConstantMessages<TemplateT, MessageT> messages : this.constantMessages) {
+      messages.clear();
+    }
+    this.constantMessages.clear();
+    if (this.foldingTemplateLocator != null) {
+      this.foldingTemplateLocator.invalidateAll();
+    }
+    this.templateVariableResolver.close();
+  }
+
+  /**
+   * @return whether this runtime was {@link #close() closed}
+   */
+  public boolean isClosed() {
+    return this.closed;
+  }
+
+  /**
+   * Create proxies of all the given types at once, backed by this runtime.
+   * <p>
+   * If the runtime scans in parallel, the types are scanned concurrently as well, sharing the pool with the scans of
+   * their methods. Either way, all proxies share the type hierarchy caches and interned translation keys of this
+   * runtime, so types with common supertypes only have them resolved once.
+   * </p>
+   *
+   * @param proxiedTypes the types to proxy
+   * @param classLoader the class loader to define the proxy classes in
+   * @return the created proxies, in order of their types
+   * @throws UnscannableMethodException if any method of any type could not be scanned, after closing the proxies of
+   *     all other types
+   * @throws IllegalStateException if this runtime is closed
+   */
+  public List<Object> createAll(final List<? extends TypeToken<?>> proxiedTypes, final ClassLoader classLoader)
+      throws UnscannableMethodException {
+    if (this.closed) {
+      throw new IllegalStateException("The runtime is closed");
+    }
+
+    final List<Hazzard<ViewerT, TemplateT, MessageT, VariableReplacementT>> created =
+        new ArrayList<>(proxiedTypes.size());
+    @Nullable UnscannableMethodException failure = null;
+    final @Nullable ForkJoinPool scanningPool = this.scanningPool;
+    if (scanningPool == null) {
+      for (final TypeToken<?> proxiedType : proxiedTypes) {
+        try {
+          created.add(new Hazzard<>(this, proxiedType, classLoader, false));
+        } catch (final UnscannableMethodException ex) {
+          failure = ex;
+          break;
+        }
+      }
+    } else {
+      final List<ForkJoinTask<Object>> tasks = new ArrayList<>(proxiedTypes.size());
+      for (final TypeToken<?> proxiedType : proxiedTypes) {
+        tasks.add(scanningPool.submit(() -> {
+          try {
+            return new Hazzard<>(this, proxiedType, classLoader, false);
+          } catch (final UnscannableMethodException ex) {
+            return ex;
+          }
+        }));
+      }
+      // Every task is joined even after a failure, so all proxies created meanwhile can be closed.
+      for (final ForkJoinTask<Object> task : tasks) {
+        final Object result = task.join();
+        if (result instanceof UnscannableMethodException ex) {
+          if (failure == null) {
+            failure = ex;
+          } else {
+            failure.addSuppressed(ex);
+          }
+        } else {
+          @SuppressWarnings("unchecked") // Tasks only return instances of this runtime, or exceptions.
+          final Hazzard<ViewerT, TemplateT, MessageT, VariableReplacementT> hazzard =
+              (Hazzard<ViewerT, TemplateT, MessageT, VariableReplacementT>) result;
+          created.add(hazzard);
+        }
+      }
+    }
+
+    if (failure != null) {
+      // Proxies of a failed batch are never handed out, so nothing would ever close them.
+      for (final Hazzard<ViewerT, TemplateT, MessageT, VariableReplacementT> hazzard : created) {
+        hazzard.close();
+      }
+      throw failure;
+    }
+
+    final List<Object> proxies = new ArrayList<>(created.size());
+    for (final Hazzard<ViewerT, TemplateT, MessageT, VariableReplacementT> hazzard : created) {
+      proxies.add(hazzard.proxy());
+    }
+    return Collections.unmodifiableList(proxies);
+  }
+
+  /**
+   * @return the pool to scan methods on in parallel, or {@code null} to scan them on the creating thread
+   */
+  @Pure
+  @Nullable ForkJoinPool scanningPool() {
+    return this.scanningPool;
+  }
+
+  /**
+   * @return the store of persisted scan results, or {@code null} to always scan proxied types
+   */
+  @Pure
+  @Nullable ScanIndexStore scanIndexStore() {
+    return this.scanIndexStore;
+  }
+
+  /**
+   * @return the templates to locate when creating a proxy
+   */
+  @Pure
+  TemplatePrefetch<ViewerT, TemplateT> templatePrefetch() {
+    return this.templatePrefetch;
+  }
+
+  /**
+   * Locate the template of a scanned method, by its interned translation key ID if the template locator accepts it.
+   *
+   * @param viewer the viewer of the message
+   * @param hazzardMethod the scanned method
+   * @return the located template
+   * @throws MissingTranslationKeyException if there is no template for the translation key
+   */
+  TemplateT templateOf(final ViewerT viewer, final HazzardMethod<?> hazzardMethod)
+      throws MissingTranslationKeyException {
+    final @Nullable IndexedTemplateLocator<ViewerT, TemplateT> indexedTemplateLocator = this.indexedTemplateLocator;
+    if (indexedTemplateLocator != null) {
+      return indexedTemplateLocator.templateOf(viewer, hazzardMethod.translationKeyId(),
+          hazzardMethod.translationKey());
+    }
+
+    return this.templateLocator.templateOf(viewer, hazzardMethod.translationKey());
+  }
+
+  /**
+   * Invalidate everything cached for a template instance of a translation key, e.g. once it was replaced by reloading
+   * the templates.
+   * <p>
+   * Changes of the template locator and of the {@link HazzardBuilder.Resolved#templateChangesOf(ITemplateChangeSource)
+   * registered sources} are invalidated already.
+   * </p>
+   *
+   * @param translationKey the translation key of the template
+   * @param template the template as it was located by the template locator given to the builder
+   */
+  public void invalidateTemplate(final String translationKey, final TemplateT template) {
+    final @Nullable FoldingTemplateLocator<ViewerT, TemplateT, VariableReplacementT> foldingTemplateLocator =
+        this.foldingTemplateLocator;
+    final @Nullable TemplateT foldedTemplate = foldingTemplateLocator == null
+        ? null
+        : foldingTemplateLocator.invalidate(translationKey, template);
+    for (final ConstantMessages<TemplateT, MessageT> messages : this.constantMessages) {
+      if (!messages.translationKey().equals(translationKey)) {
+        continue;
+      }
+
+      messages.invalidate(template);
+      if (foldedTemplate != null) {
+        messages.invalidate(foldedTemplate);
+      }
+    }
+  }
+
+  @Override
+  public void templateChanged(final Locale locale, final String translationKey, final @Nullable TemplateT previous,
+                              final @Nullable TemplateT current) {
+    if (previous != null) {
+      this.invalidateTemplate(translationKey, previous);
+    }
+  }
+
+  /**
+   * Register the caches of constant messages of a proxy, so they are invalidated along with their templates.
+   *
+   * @param constantMessages the caches of the methods of the proxy without any variables
+   */
+  void registerConstantMessages(final Collection<ConstantMessages<TemplateT, MessageT>> constantMessages) {
+    this.constantMessages.addAll(constantMessages);
+  }
+
+  /**
+   * Release whatever is cached for a closed proxy, so neither it nor the class loader of its type is kept reachable.
+   *
+   * @param constantMessages the caches of the methods of the proxy without any variables
+   * @param classLoader the class loader of the proxied type, or {@code null} if it is the bootstrap class loader
+   */
+  void release(final Collection<ConstantMessages<TemplateT, MessageT>> constantMessages,
+               final @Nullable ClassLoader classLoader) {
+    this.constantMessages.removeAll(constantMessages);
+    for (final ConstantMessages<TemplateT, MessageT> messages : constantMessages) {
+      messages.clear();
+    }
+    if (classLoader != null) {
+      this.templateVariableResolver.evict(classLoader);
+    }
+  }
+
+  /**
+   * @return the current template variable resolving strategy
+   */
+  @Pure
+  public net.kyori.hazzard.strategy.ITemplateVariableResolver<ViewerT, TemplateT, VariableReplacementT> templateVariableResolver() {
+    return this.templateVariableResolver;
+  }
+
+  /**
+   * @return an unmodifiable navigable set for iterating through the available {@link IViewerLookupServiceLocator}s
+   * with weight-based ordering
+   */
+  @Pure
+  public NavigableSet<Weighted<? extends IViewerLookupServiceLocator<? extends ViewerT>>> viewerLookupServiceLocators() {
+    return this.weightedViewerLookupResolvers;
+  }
+
+  /**
+   * @return an unmodifiable map of types to navigable sets for iterating through the available {@link
+   * ITemplateVariableResolver}s with weight-based ordering
+   */
+  @Pure
+  public Map<Type, NavigableSet<Weighted<? extends ITemplateVariableResolver<? extends ViewerT, ?, ? extends VariableReplacementT>>>> weightedVariableResolvers() {
+    return this.weightedTemplateVariableResolver;
+  }
+
+  /**
+   * @return the interned translation keys of all proxies of this runtime
+   */
+  @Pure
+  public TranslationKeyIndex translationKeyIndex() {
+    return this.translationKeyIndex;
+  }
+
+  /**
+   * @return an unmodifiable map of the global variables available to every template
+   */
+  @Pure
+  public Map<String, VariableReplacementT> globalVariables() {
+    return this.globalVariables;
+  }
+
+  /**
+   * Get the global variables to pass to the composer along with the resolved variables of a method, which are those
+   * not folded into its templates.
+   *
+   * @param hazzardMethod the scanned method
+   * @return an unmodifiable map of the global variables to compose
+   */
+  Map<String, VariableReplacementT> composedGlobalVariables(final HazzardMethod<?> hazzardMethod) {
+    final @Nullable FoldingTemplateLocator<ViewerT, TemplateT, VariableReplacementT> foldingTemplateLocator =
+        this.foldingTemplateLocator;
+    return foldingTemplateLocator == null
+        ? this.globalVariables
+        : foldingTemplateLocator.unfoldedGlobalVariables(hazzardMethod.translationKey());
+  }
+
+  /**
+   * Leave the global variables named like variables of the given methods unfolded in their templates, as the resolved
+   * variables take precedence.
+   *
+   * @param hazzardMethods the scanned methods of a proxy
+   */
+  void unfoldShadowedGlobalVariables(final Collection<? extends HazzardMethod<? extends ViewerT>> hazzardMethods) {
+    final @Nullable FoldingTemplateLocator<ViewerT, TemplateT, VariableReplacementT> foldingTemplateLocator =
+        this.foldingTemplateLocator;
+    if (foldingTemplateLocator == null) {
+      return;
+    }
+
+    for (final HazzardMethod<? extends ViewerT> hazzardMethod : hazzardMethods) {
+      final Set<String> shadowed = new HashSet<>(this.templateVariableResolver.variableNames(hazzardMethod));
+      shadowed.retainAll(this.globalVariables.keySet());
+      if (!shadowed.isEmpty()) {
+        foldingTemplateLocator.unfold(hazzardMethod.translationKey(), shadowed);
+      }
+    }
+  }
+
+  /**
+   * @return the source of Templates, per ViewerT, with any global variables folded into them
+   */
+  @Pure
+  public TemplateLocator<ViewerT, TemplateT> templateLocator() {
+    return this.templateLocator;
+  }
+
+  /**
+   * @return the composer of messages, used before sending via {@link #messageSender()}
+   */
+  @Pure
+  public IMessageComposer<ViewerT, TemplateT, MessageT, VariableReplacementT> messageComposer() {
+    return this.messageComposer;
+  }
+
+  /**
+   * @return the message sender of intermediate messages to a given receiver with resolved placeholders
+   */
+  @Pure
+  public IMessageSendingService<ViewerT, MessageT> messageSender() {
+    return this.messageSender;
+  }
+
+  /**
+   * @return the service deciding whether a message is suppressed before being composed and sent
+   */
+  @Pure
+  public IMessageSuppressionService<ViewerT, VariableReplacementT> messageSuppressionService() {
+    return this.messageSuppressionService;
+  }
+
+  /**
+   * @return an unmodifiable list of the interceptors around the stages of invoking proxied methods, the outermost one
+   * first
+   */
+  @Pure
+  public List<IInvocationInterceptor<ViewerT, TemplateT, MessageT, VariableReplacementT>> interceptors() {
+    return this.interceptors;
+  }
+
+  /**
+   * @return the filter of messages to send before locating their templates, or {@code null} if all are sent
+   */
+  @Pure
+  public @Nullable IMessageFilter<ViewerT> messageFilter() {
+    return this.messageFilter;
+  }
+
+  /**
+   * A listener forwarding template changes to a runtime as long as it is reachable otherwise, which unregisters itself
+   * from its sources on the first change after the runtime was collected.
+   *
+   * @param <TemplateT> the intermediate message type
+   */
+  private static final class WeakTemplateChangeListener<TemplateT> implements ITemplateChangeListener<TemplateT> {
+    private final WeakReference<ITemplateChangeListener<TemplateT>> runtime;
+    private final List<ITemplateChangeSource<? extends TemplateT>> sources;
+
+    private WeakTemplateChangeListener(final ITemplateChangeListener<TemplateT> runtime,
+                                       final List<ITemplateChangeSource<? extends TemplateT>> sources) {
+      this.runtime = new WeakReference<>(runtime);
+      this.sources = sources;
+    }
+
+    @Override
+    public void templateChanged(final Locale locale, final String translationKey, final @Nullable TemplateT previous,
+                                final @Nullable TemplateT current) {
+      final @Nullable ITemplateChangeListener<TemplateT> runtime = this.runtime.get();
+      if (runtime == null) {
+        this.unregister();
+        return;
+      }
+
+      runtime.templateChanged(locale, translationKey, previous, current);
+    }
+
+    private void unregister() {
+      for (final ITemplateChangeSource<? extends TemplateT> source : this.sources) {
+        source.removeListener(this);
+      }
+    }
+  }
+}
@@ -0,0 +1,188 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard;
+
+import java.util.Map;
+import net.kyori.hazzard.annotation.meta.ThreadSafe;
+import net.kyori.hazzard.exception.HazzardException;
+import net.kyori.hazzard.exception.MissingTranslationKeyException;
+import net.kyori.hazzard.exception.VariableResolutionException;
+import net.kyori.hazzard.exception.ViewerNotFoundException;
+import net.kyori.hazzard.model.HazzardMethod;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An interceptor around the stages of invoking a proxied method, e.g. for logging or metrics.
+ * <p>
+ * Every stage is given the next interceptor of the stage, or the stage itself, to proceed with; by default, all
+ * stages simply proceed. Interceptors are compiled into a pipeline per scanned method when creating a proxy, so
+ * methods no interceptor {@link #intercepts(HazzardMethod) intercepts} are invoked without any indirection at all.
+ * </p>
+ * <p>
+ * The interceptor registered first is the outermost one of every stage.
+ * </p>
+ *
+ * @param <ViewerT> the message receiving type
+ * @param <TemplateT> the intermediate message type
+ * @param <MessageT> the output/rendered message type
+ * @param <ReplacementT> the finalised placeholder type
+ */
+@ThreadSafe
+public interface IInvocationInterceptor<ViewerT, TemplateT, MessageT, ReplacementT> {
+  /**
+   * @param hazzardMethod the scanned method
+   * @return whether this interceptor is part of the pipeline of the method
+   */
+  default boolean intercepts(final HazzardMethod<? extends ViewerT> hazzardMethod) {
+    return true;
+  }
+
+  /**
+   * Intercept a whole invocation rendering a message, around all of its other stages. Unlike any other stage, this
+   * one is always left again, whether the message is sent, filtered, suppressed, only rendered or fails.
+   *
+   * @param proxy the proxy the method was invoked on
+   * @param hazzardMethod the scanned method
+   * @param arguments the arguments of the invocation
+   * @param send whether the message is sent rather than only rendered
+   * @param prepared the prepared message resolving part of the variables, if any
+   * @param next the next interceptor of the stage, or the stage itself
+   * @return the rendered message, or {@code null} if it was sent or suppressed
+   * @throws HazzardException if any stage of the invocation fails
+   */
+  default @Nullable MessageT dispatch(
+      final Object proxy, final HazzardMethod<? extends ViewerT> hazzardMethod, final @Nullable Object[] arguments,
+      final boolean send, final @Nullable PreparedMessage<ViewerT, TemplateT, MessageT, ReplacementT> prepared,
+      final DispatchStage<ViewerT, TemplateT, MessageT, ReplacementT> next) throws HazzardException {
+    return next.dispatch(proxy, hazzardMethod, arguments, send, prepared);
+  }
+
+  default ViewerT lookup(final Object proxy, final HazzardMethod<? extends ViewerT> hazzardMethod,
+                         final @Nullable Object[] arguments, final LookupStage<ViewerT> next)
+      throws ViewerNotFoundException {
+    return next.lookup(proxy, hazzardMethod, arguments);
+  }
+
+  default TemplateT locate(final ViewerT viewer, final HazzardMethod<? extends ViewerT> hazzardMethod,
+                           final LocateStage<ViewerT, TemplateT> next) throws MissingTranslationKeyException {
+    return next.locate(viewer, hazzardMethod);
+  }
+
+  default Map<String, ? extends ReplacementT> resolve(
+      final ViewerT viewer, final TemplateT template, final HazzardMethod<? extends ViewerT> hazzardMethod,
+      final @Nullable Object[] arguments,
+      final @Nullable PreparedMessage<ViewerT, TemplateT, MessageT, ReplacementT> prepared,
+      final ResolveStage<ViewerT, TemplateT, MessageT, ReplacementT> next) throws VariableResolutionException {
+    return next.resolve(viewer, template, hazzardMethod, arguments, prepared);
+  }
+
+  default MessageT compose(final ViewerT viewer, final TemplateT template,
+                           final Map<String, ? extends ReplacementT> variables,
+                           final HazzardMethod<? extends ViewerT> hazzardMethod,
+                           final ComposeStage<ViewerT, TemplateT, MessageT, ReplacementT> next) {
+    return next.compose(viewer, template, variables, hazzardMethod);
+  }
+
+  default void send(final ViewerT viewer, final MessageT message, final HazzardMethod<? extends ViewerT> hazzardMethod,
+                    final SendStage<ViewerT, MessageT> next) {
+    next.send(viewer, message, hazzardMethod);
+  }
+
+  /**
+   * The stage rendering a message, and sending it if wanted. Lazily supplied messages are not dispatched, but only
+   * rendered once they are requested.
+   *
+   * @param <ViewerT> the message receiving type
+   * @param <TemplateT> the intermediate message type
+   * @param <MessageT> the output/rendered message type
+   * @param <ReplacementT> the finalised placeholder type
+   */
+  @FunctionalInterface
+  interface DispatchStage<ViewerT, TemplateT, MessageT, ReplacementT> {
+    @Nullable MessageT dispatch(final Object proxy, final HazzardMethod<? extends ViewerT> hazzardMethod,
+                                final @Nullable Object[] arguments, final boolean send,
+                                final @Nullable PreparedMessage<ViewerT, TemplateT, MessageT, ReplacementT> prepared)
+        throws HazzardException;
+  }
+
+  /**
+   * The stage looking up the viewer of a message.
+   *
+   * @param <ViewerT> the message receiving type
+   */
+  @FunctionalInterface
+  interface LookupStage<ViewerT> {
+    ViewerT lookup(final Object proxy, final HazzardMethod<? extends ViewerT> hazzardMethod,
+                   final @Nullable Object[] arguments) throws ViewerNotFoundException;
+  }
+
+  /**
+   * The stage locating the template of a message.
+   *
+   * @param <ViewerT> the message receiving type
+   * @param <TemplateT> the intermediate message type
+   */
+  @FunctionalInterface
+  interface LocateStage<ViewerT, TemplateT> {
+    TemplateT locate(final ViewerT viewer, final HazzardMethod<? extends ViewerT> hazzardMethod)
+        throws MissingTranslationKeyException;
+  }
+
+  /**
+   * The stage resolving the variables of a message, excluding any global variables, which is skipped for methods
+   * without any variables.
+   *
+   * @param <ViewerT> the message receiving type
+   * @param <TemplateT> the intermediate message type
+   * @param <MessageT> the output/rendered message type
+   * @param <ReplacementT> the finalised placeholder type
+   */
+  @FunctionalInterface
+  interface ResolveStage<ViewerT, TemplateT, MessageT, ReplacementT> {
+    Map<String, ? extends ReplacementT> resolve(
+        final ViewerT viewer, final TemplateT template, final HazzardMethod<? extends ViewerT> hazzardMethod,
+        final @Nullable Object[] arguments,
+        final @Nullable PreparedMessage<ViewerT, TemplateT, MessageT, ReplacementT> prepared)
+        throws VariableResolutionException;
+  }
+
+  /**
+   * The stage composing a message, which may be skipped for messages composed once per template.
+   *
+   * @param <ViewerT> the message receiving type
+   * @param <TemplateT> the intermediate message type
+   * @param <MessageT> the output/rendered message type
+   * @param <ReplacementT> the finalised placeholder type
+   */
+  @FunctionalInterface
+  interface ComposeStage<ViewerT, TemplateT, MessageT, ReplacementT> {
+    MessageT compose(final ViewerT viewer, final TemplateT template, final Map<String, ? extends ReplacementT> variables,
+                     final HazzardMethod<? extends ViewerT> hazzardMethod);
+  }
+
+  /**
+   * The stage sending a message.
+   *
+   * @param <ViewerT> the message receiving type
+   * @param <MessageT> the output/rendered message type
+   */
+  @FunctionalInterface
+  interface SendStage<ViewerT, MessageT> {
+    void send(final ViewerT viewer, final MessageT message, final HazzardMethod<? extends ViewerT> hazzardMethod);
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard;
+
+import java.util.List;
+import net.kyori.hazzard.IInvocationInterceptor.ComposeStage;
+import net.kyori.hazzard.IInvocationInterceptor.DispatchStage;
+import net.kyori.hazzard.IInvocationInterceptor.LocateStage;
+import net.kyori.hazzard.IInvocationInterceptor.LookupStage;
+import net.kyori.hazzard.IInvocationInterceptor.ResolveStage;
+import net.kyori.hazzard.IInvocationInterceptor.SendStage;
+
+/**
+ * The stages of invoking a single scanned method, with its interceptors compiled in.
+ *
+ * @param dispatch the stage rendering and sending the message, around all other stages
+ * @param lookup the stage looking up the viewer
+ * @param locate the stage locating the template
+ * @param resolve the stage resolving the variables
+ * @param compose the stage composing the message
+ * @param send the stage sending the message
+ */
+/* package-private */ record InvocationPipeline<ViewerT, TemplateT, MessageT, ReplacementT>(
+    DispatchStage<ViewerT, TemplateT, MessageT, ReplacementT> dispatch,
+    LookupStage<ViewerT> lookup,
+    LocateStage<ViewerT, TemplateT> locate,
+    ResolveStage<ViewerT, TemplateT, MessageT, ReplacementT> resolve,
+    ComposeStage<ViewerT, TemplateT, MessageT, ReplacementT> compose,
+    SendStage<ViewerT, MessageT> send
+) {
+  /**
+   * Compile the interceptors of a method around the stages of a proxy.
+   *
+   * @param hazzard the proxy the method was scanned for
+   * @param interceptors the interceptors of the method, the outermost one first
+   * @return the pipeline of the method
+   */
+  static <ViewerT, TemplateT, MessageT, ReplacementT> InvocationPipeline<ViewerT, TemplateT, MessageT, ReplacementT> compile(
+      final Hazzard<ViewerT, TemplateT, MessageT, ReplacementT> hazzard,
+      final List<? extends IInvocationInterceptor<ViewerT, TemplateT, MessageT, ReplacementT>> interceptors) {
+    final HazzardRuntime<ViewerT, TemplateT, MessageT, ReplacementT> runtime = hazzard.runtime();
+    DispatchStage<ViewerT, TemplateT, MessageT, ReplacementT> dispatch =
+        (proxy, hazzardMethod, arguments, sent, prepared) ->
+            hazzard.invocationHandler().invokeStages(proxy, hazzardMethod, arguments, sent, prepared);
+    LookupStage<ViewerT> lookup = (proxy, hazzardMethod, arguments) ->
+        hazzardMethod.viewerLookupService().lookup(hazzardMethod.reflectMethod(), proxy, arguments);
+    LocateStage<ViewerT, TemplateT> locate = runtime::templateOf;
+    ResolveStage<ViewerT, TemplateT, MessageT, ReplacementT> resolve =
+        (viewer, template, hazzardMethod, arguments, prepared) -> prepared != null
+            ? prepared.resolveVariables(viewer, template, arguments)
+            : runtime.templateVariableResolver().resolveVariables(hazzard, viewer, template, hazzardMethod, arguments);
+    ComposeStage<ViewerT, TemplateT, MessageT, ReplacementT> compose = (viewer, template, variables, hazzardMethod) ->
+        runtime.messageComposer().compose(viewer, template, variables, hazzardMethod.reflectMethod(),
+            hazzard.proxiedType());
+    SendStage<ViewerT, MessageT> send = (viewer, message, hazzardMethod) -> runtime.messageSender().send(viewer, message);
+
+    for (int idx = interceptors.size() - 1; idx >= 0; --idx) {
+      final IInvocationInterceptor<ViewerT, TemplateT, MessageT, ReplacementT> interceptor = interceptors.get(idx);
+      final DispatchStage<ViewerT, TemplateT, MessageT, ReplacementT> nextDispatch = dispatch;
+      dispatch = (proxy, hazzardMethod, arguments, sent, prepared) ->
+          interceptor.dispatch(proxy, hazzardMethod, arguments, sent, prepared, nextDispatch);
+      final LookupStage<ViewerT> nextLookup = lookup;
+      lookup = (proxy, hazzardMethod, arguments) -> interceptor.lookup(proxy, hazzardMethod, arguments, nextLookup);
+      final LocateStage<ViewerT, TemplateT> nextLocate = locate;
+      locate = (viewer, hazzardMethod) -> interceptor.locate(viewer, hazzardMethod, nextLocate);
+      final ResolveStage<ViewerT, TemplateT, MessageT, ReplacementT> nextResolve = resolve;
+      resolve = (viewer, template, hazzardMethod, arguments, prepared) ->
+          interceptor.resolve(viewer, template, hazzardMethod, arguments, prepared, nextResolve);
+      final ComposeStage<ViewerT, TemplateT, MessageT, ReplacementT> nextCompose = compose;
+      compose = (viewer, template, variables, hazzardMethod) ->
+          interceptor.compose(viewer, template, variables, hazzardMethod, nextCompose);
+      final SendStage<ViewerT, MessageT> nextSend = send;
+      send = (viewer, message, hazzardMethod) -> interceptor.send(viewer, message, hazzardMethod, nextSend);
+    }
+
+    return new InvocationPipeline<>(dispatch, lookup, locate, resolve, compose, send);
+  }
+}
@@ -0,0 +1,81 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard;
+
+import java.util.function.Supplier;
+import net.kyori.hazzard.annotation.meta.ThreadSafe;
+import net.kyori.hazzard.exception.HazzardException;
+import net.kyori.hazzard.internal.ThrowableUtils;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A message rendered only once it is first requested, and reused afterwards.
+ * <p>
+ * Any {@link HazzardException} of rendering is thrown by {@link #get()} as is, despite being checked; the message is
+ * then rendered anew on the next request. A message not yet rendered once its proxy is closed is never rendered at
+ * all, failing with an {@link IllegalStateException} instead.
+ * </p>
+ *
+ * @param <MessageT> the output/rendered message type
+ */
+@ThreadSafe
+/* package-private */ final class LazyMessage<MessageT> implements Supplier<MessageT> {
+  /**
+   * The renderer of the message, released once the message is rendered.
+   */
+  private volatile @Nullable Renderer<MessageT> renderer;
+
+  /**
+   * The rendered message, only set once the {@link #renderer} is released.
+   */
+  private @Nullable MessageT message;
+
+  LazyMessage(final Renderer<MessageT> renderer) {
+    this.renderer = renderer;
+  }
+
+  @Override
+  @SuppressWarnings("nullness") // The message is set once the renderer is released.
+  public MessageT get() {
+    if (this.renderer != null) {
+      synchronized (this) {
+        final @Nullable Renderer<MessageT> renderer = this.renderer;
+        if (renderer != null) {
+          try {
+            this.message = renderer.render();
+          } catch (final HazzardException ex) {
+            ThrowableUtils.sneakyThrow(ex);
+          }
+          this.renderer = null;
+        }
+      }
+    }
+
+    return this.message;
+  }
+
+  /**
+   * The deferred rendering of a message.
+   *
+   * @param <MessageT> the output/rendered message type
+   */
+  @FunctionalInterface
+  interface Renderer<MessageT> {
+    MessageT render() throws HazzardException;
+  }
+}
@@ -0,0 +1,206 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import net.kyori.hazzard.annotation.meta.ThreadSafe;
+import net.kyori.hazzard.exception.HazzardException;
+import net.kyori.hazzard.exception.VariableResolutionException;
+import net.kyori.hazzard.model.HazzardMethod;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.dataflow.qual.Pure;
+import org.checkerframework.dataflow.qual.SideEffectFree;
+
+/**
+ * A reusable message of a single scanned method, with any amount of its arguments bound up front.
+ * <p>
+ * The variables of bound arguments are resolved only once per template, rather than on every invocation; they should
+ * therefore not resolve differently for viewers sharing a template. Every invocation supplies the remaining arguments
+ * in order, including the one the viewer is looked up from.
+ * </p>
+ * <p>
+ * Prepared messages are immutable; {@link #bind(int, Object) binding} an argument creates a new one.
+ * </p>
+ *
+ * @param <ViewerT> the message receiving type
+ * @param <TemplateT> the intermediate message type
+ * @param <MessageT> the output/rendered message type
+ * @param <ReplacementT> the finalised placeholder type
+ */
+@ThreadSafe
+public final class PreparedMessage<ViewerT, TemplateT, MessageT, ReplacementT> {
+  private final Hazzard<ViewerT, TemplateT, MessageT, ReplacementT> hazzard;
+  private final HazzardMethod<? extends ViewerT> hazzardMethod;
+  private final @Nullable Object[] boundArguments;
+  private final boolean[] bound;
+  private final int unboundCount;
+
+  /**
+   * The resolved variables of the bound arguments, per template; like {@link ConstantMessages}, at most
+   * {@link ConstantMessages#MAX_TEMPLATES} templates are kept at once, so templates replaced by reloads cannot
+   * accumulate.
+   */
+  private final ConcurrentMap<TemplateT, Map<String, ? extends ReplacementT>> boundVariables = new ConcurrentHashMap<>();
+
+  PreparedMessage(final Hazzard<ViewerT, TemplateT, MessageT, ReplacementT> hazzard,
+                  final HazzardMethod<? extends ViewerT> hazzardMethod) {
+    this(hazzard, hazzardMethod, new Object[hazzardMethod.reflectMethod().getParameterCount()],
+        new boolean[hazzardMethod.reflectMethod().getParameterCount()]);
+  }
+
+  private PreparedMessage(final Hazzard<ViewerT, TemplateT, MessageT, ReplacementT> hazzard,
+                          final HazzardMethod<? extends ViewerT> hazzardMethod,
+                          final @Nullable Object[] boundArguments, final boolean[] bound) {
+    this.hazzard = hazzard;
+    this.hazzardMethod = hazzardMethod;
+    this.boundArguments = boundArguments;
+    this.bound = bound;
+
+    int unboundCount = 0;
+    for (final boolean isBound : bound) {
+      if (!isBound) {
+        ++unboundCount;
+      }
+    }
+    this.unboundCount = unboundCount;
+  }
+
+  /**
+   * @return the scanned method of this message
+   */
+  @Pure
+  public HazzardMethod<? extends ViewerT> hazzardMethod() {
+    return this.hazzardMethod;
+  }
+
+  /**
+   * @return the amount of arguments every invocation has to supply
+   */
+  @Pure
+  public int unboundCount() {
+    return this.unboundCount;
+  }
+
+  /**
+   * Bind an argument of the method.
+   *
+   * @param index the index of the parameter in the method
+   * @param value the argument to bind
+   * @return a new prepared message with the argument bound
+   * @throws IndexOutOfBoundsException if the method has no parameter at the index
+   */
+  @SideEffectFree
+  public PreparedMessage<ViewerT, TemplateT, MessageT, ReplacementT> bind(final int index, final @Nullable Object value) {
+    final @Nullable Object[] boundArguments = Arrays.copyOf(this.boundArguments, this.boundArguments.length);
+    final boolean[] bound = Arrays.copyOf(this.bound, this.bound.length);
+    boundArguments[index] = value;
+    bound[index] = true;
+    return new PreparedMessage<>(this.hazzard, this.hazzardMethod, boundArguments, bound);
+  }
+
+  /**
+   * Render the message without sending it.
+   *
+   * @param arguments the unbound arguments, in order of their parameters
+   * @return the rendered message
+   * @throws IllegalArgumentException if not exactly {@link #unboundCount()} arguments are given
+   * @throws IllegalStateException if the proxy was closed
+   * @throws HazzardException if the viewer, template or variables could not be resolved
+   */
+  @SuppressWarnings("nullness") // Messages are only null when they are sent or suppressed.
+  public MessageT render(final @Nullable Object... arguments) throws HazzardException {
+    this.hazzard.checkOpen();
+    return this.hazzard.invocationHandler().dispatch(this.hazzard.proxy(), this.hazzardMethod,
+        this.arguments(arguments), false, this);
+  }
+
+  /**
+   * Render and send the message, unless it is suppressed.
+   *
+   * @param arguments the unbound arguments, in order of their parameters
+   * @throws IllegalArgumentException if not exactly {@link #unboundCount()} arguments are given
+   * @throws IllegalStateException if the proxy was closed
+   * @throws HazzardException if the viewer, template or variables could not be resolved
+   */
+  public void send(final @Nullable Object... arguments) throws HazzardException {
+    this.hazzard.checkOpen();
+    this.hazzard.invocationHandler().dispatch(this.hazzard.proxy(), this.hazzardMethod,
+        this.arguments(arguments), true, this);
+  }
+
+  /**
+   * Resolve the variables of an invocation, resolving those of the bound arguments only if the template is new.
+   *
+   * @param viewer the viewer of the message
+   * @param template the template of the message
+   * @param arguments all arguments of the invocation
+   * @return the resolved variables
+   * @throws VariableResolutionException if any variable could not be resolved
+   */
+  Map<String, ? extends ReplacementT> resolveVariables(final ViewerT viewer, final TemplateT template,
+                                                       final @Nullable Object[] arguments)
+      throws VariableResolutionException {
+    final var variableResolver = this.hazzard.templateVariableResolver();
+    @Nullable Map<String, ? extends ReplacementT> boundVariables = this.boundVariables.get(template);
+    if (boundVariables == null) {
+      boundVariables = variableResolver.resolveVariables(this.hazzard, viewer, template, this.hazzardMethod,
+          arguments, idx -> this.bound[idx]);
+      if (this.boundVariables.size() >= ConstantMessages.MAX_TEMPLATES) {
+        this.boundVariables.clear();
+      }
+      // Racing threads resolve the same variables; whichever is first is kept.
+      this.boundVariables.putIfAbsent(template, boundVariables);
+    }
+
+    if (this.unboundCount == 0) {
+      return boundVariables;
+    }
+
+    final Map<String, ReplacementT> variables = new LinkedHashMap<>(boundVariables);
+    variables.putAll(variableResolver.resolveVariables(this.hazzard, viewer, template, this.hazzardMethod,
+        arguments, idx -> !this.bound[idx]));
+    return variables;
+  }
+
+  /**
+   * @return the amount of templates the variables of the bound arguments are currently kept of
+   */
+  int boundTemplateCount() {
+    return this.boundVariables.size();
+  }
+
+  private @Nullable Object[] arguments(final @Nullable Object[] unboundArguments) {
+    if (unboundArguments.length != this.unboundCount) {
+      throw new IllegalArgumentException("expected " + this.unboundCount + " unbound arguments; got "
+          + unboundArguments.length);
+    }
+
+    final @Nullable Object[] arguments = Arrays.copyOf(this.boundArguments, this.boundArguments.length);
+    int unboundIdx = 0;
+    for (int idx = 0; idx < arguments.length; ++idx) {
+      if (!this.bound[idx]) {
+        arguments[idx] = unboundArguments[unboundIdx++];
+      }
+    }
+    return arguments;
+  }
+}
@@ -0,0 +1,178 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import net.kyori.hazzard.model.HazzardMethod;
+import net.kyori.hazzard.model.ScanIndex;
+import net.kyori.hazzard.strategy.ITemplateVariableResolver;
+import net.kyori.hazzard.util.Weighted;
+import net.kyori.hazzard.viewer.IViewerLookupServiceLocator;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * The directory to persist the {@link ScanIndex scan indices} of proxied types in, one file per type.
+ * <p>
+ * The indices are a cache: any index which cannot be read, or was created for other class files or locators, is
+ * ignored, and any which cannot be written is skipped.
+ * </p>
+ *
+ * @param directory the directory of the index files
+ */
+/* package-private */ record ScanIndexStore(Path directory) {
+  private static final String EXTENSION = ".hzi";
+
+  /**
+   * Hash the class files of a type and all its superinterfaces, along with the viewer lookup service locators and the
+   * variable resolving strategy.
+   *
+   * @param type the proxied type
+   * @param viewerLookupServiceLocators the locators the methods are scanned with
+   * @param templateVariableResolver the strategy scanning the placeholders of the methods
+   * @return the hash, or {@code null} if any class file could not be read
+   */
+  static byte @Nullable [] classHash(final Class<?> type,
+                                     final Iterable<? extends Weighted<? extends IViewerLookupServiceLocator<?>>> viewerLookupServiceLocators,
+                                     final ITemplateVariableResolver<?, ?, ?> templateVariableResolver) {
+    final MessageDigest digest;
+    try {
+      digest = MessageDigest.getInstance("SHA-256");
+    } catch (final NoSuchAlgorithmException ex) {
+      return null;
+    }
+
+    final Set<Class<?>> types = new LinkedHashSet<>();
+    final Deque<Class<?>> pending = new ArrayDeque<>();
+    pending.add(type);
+    while (!pending.isEmpty()) {
+      final Class<?> next = pending.poll();
+      if (types.add(next)) {
+        pending.addAll(List.of(next.getInterfaces()));
+      }
+    }
+
+    for (final Class<?> hashed : types) {
+      final @Nullable ClassLoader classLoader = hashed.getClassLoader();
+      if (classLoader == null) {
+        return null;
+      }
+
+      try (final @Nullable InputStream classFile =
+               classLoader.getResourceAsStream(hashed.getName().replace('.', '/') + ".class")) {
+        if (classFile == null) {
+          return null;
+        }
+        digest.update(classFile.readAllBytes());
+      } catch (final IOException ex) {
+        return null;
+      }
+    }
+
+    for (final Weighted<? extends IViewerLookupServiceLocator<?>> locator : viewerLookupServiceLocators) {
+      digest.update((typeName(locator.value()) + '@' + locator.weight()).getBytes(StandardCharsets.UTF_8));
+    }
+    digest.update(typeName(templateVariableResolver).getBytes(StandardCharsets.UTF_8));
+    return digest.digest();
+  }
+
+  private static String typeName(final Object object) {
+    // Names of hidden classes, e.g. of lambdas, differ between runs; their nest hosts do not.
+    final Class<?> type = object.getClass();
+    return type.isHidden() ? type.getNestHost().getName() : type.getName();
+  }
+
+  /**
+   * Load the index of a type.
+   *
+   * @param type the proxied type
+   * @param classHash the current {@link #classHash(Class, Iterable, ITemplateVariableResolver) class hash} of the type
+   * @return the index, or {@code null} if there is no valid one
+   */
+  @Nullable ScanIndex load(final Class<?> type, final byte[] classHash) {
+    final Path file = this.file(type);
+    if (!Files.isRegularFile(file)) {
+      return null;
+    }
+
+    try (final DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+      return ScanIndex.read(input, classHash);
+    } catch (final IOException ex) {
+      // A corrupt index is simply replaced.
+      return null;
+    }
+  }
+
+  /**
+   * Store the index of a type, replacing any previous one.
+   *
+   * @param type the proxied type
+   * @param classHash the current {@link #classHash(Class, Iterable, ITemplateVariableResolver) class hash} of the type
+   * @param scannedMethods the scanned methods of the type
+   */
+  void store(final Class<?> type, final byte[] classHash,
+             final Map<?, ? extends HazzardMethod<?>> scannedMethods) {
+    final Map<String, ScanIndex.Entry> entries = new HashMap<>(scannedMethods.size());
+    for (final HazzardMethod<?> hazzardMethod : scannedMethods.values()) {
+      entries.put(ScanIndex.descriptor(hazzardMethod.reflectMethod()), hazzardMethod.indexEntry());
+    }
+
+    @Nullable Path temporaryFile = null;
+    try {
+      Files.createDirectories(this.directory);
+      temporaryFile = Files.createTempFile(this.directory, type.getName(), EXTENSION);
+      try (final OutputStream output = new BufferedOutputStream(Files.newOutputStream(temporaryFile))) {
+        new ScanIndex(classHash, entries).write(new DataOutputStream(output));
+      }
+      // Concurrently starting instances must never read a partially written index.
+      Files.move(temporaryFile, this.file(type), StandardCopyOption.REPLACE_EXISTING,
+          StandardCopyOption.ATOMIC_MOVE);
+    } catch (final IOException ex) {
+      // The type is scanned again next time.
+      if (temporaryFile != null) {
+        try {
+          Files.deleteIfExists(temporaryFile);
+        } catch (final IOException ignored) {
+          // Nothing more to do about it.
+        }
+      }
+    }
+  }
+
+  private Path file(final Class<?> type) {
+    return this.directory.resolve(type.getName() + EXTENSION);
+  }
+}
@@ -0,0 +1,82 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+import net.kyori.hazzard.exception.MissingTranslationKeyException;
+import net.kyori.hazzard.exception.scan.InvalidTemplateException;
+import net.kyori.hazzard.message.ITemplateValidator;
+import net.kyori.hazzard.model.HazzardMethod;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * The templates to locate, and optionally validate, for every scanned method when creating a proxy.
+ *
+ * @param viewers the viewers to locate templates for
+ * @param templateValidator the validator of located templates, if any
+ * @param invalidTemplateReporter the reporter of missing and invalid templates, if they should not fail the creation
+ */
+/* package-private */ record TemplatePrefetch<ViewerT, TemplateT>(
+    List<ViewerT> viewers,
+    @Nullable ITemplateValidator<TemplateT> templateValidator,
+    @Nullable Consumer<? super InvalidTemplateException> invalidTemplateReporter
+) {
+  /**
+   * Locate the templates of the given methods for every viewer.
+   *
+   * @param hazzard the proxy the methods were scanned for
+   * @param hazzardMethods the scanned methods
+   * @throws InvalidTemplateException if a template is missing or invalid, and there is no reporter
+   */
+  void prefetch(final Hazzard<ViewerT, TemplateT, ?, ?> hazzard,
+                final Collection<? extends HazzardMethod<? extends ViewerT>> hazzardMethods)
+      throws InvalidTemplateException {
+    for (final HazzardMethod<? extends ViewerT> hazzardMethod : hazzardMethods) {
+      final Set<String> variableNames = hazzard.templateVariableResolver().variableNames(hazzardMethod);
+      for (final ViewerT viewer : this.viewers) {
+        final TemplateT template;
+        try {
+          template = hazzard.runtime().templateOf(viewer, hazzardMethod);
+        } catch (final MissingTranslationKeyException ex) {
+          this.invalid(new InvalidTemplateException(hazzard.proxiedType(), hazzardMethod.reflectMethod(),
+              "Missing template " + hazzardMethod.translationKey() + " for viewer " + viewer, ex));
+          continue;
+        }
+
+        final @Nullable String problem = this.templateValidator == null
+            ? null
+            : this.templateValidator.validate(template, variableNames);
+        if (problem != null) {
+          this.invalid(new InvalidTemplateException(hazzard.proxiedType(), hazzardMethod.reflectMethod(),
+              "Invalid template " + hazzardMethod.translationKey() + " for viewer " + viewer + ": " + problem, null));
+        }
+      }
+    }
+  }
+
+  private void invalid(final InvalidTemplateException ex) throws InvalidTemplateException {
+    if (this.invalidTemplateReporter == null) {
+      throw ex;
+    }
+
+    this.invalidTemplateReporter.accept(ex);
+  }
+}
@@ -21,4 +21,13 @@ public final class MissingTranslationKeyException extends HazzardException {
   public MissingTranslationKeyException(final String translationKey) {
     super("Missing translation key: " + translationKey);
   }
+
+  /**
+   * @param translationKey the missing key
+   * @param writableStackTrace whether to capture the stack trace; an exception without one may be cached and thrown
+   *                           any amount of times, as is useful for keys known to be missing
+   */
+  public MissingTranslationKeyException(final String translationKey, final boolean writableStackTrace) {
+    super("Missing translation key: " + translationKey, null, false, writableStackTrace);
+  }
 }
@@ -0,0 +1,32 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard.exception.scan;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An exception for a template found to be missing or invalid while prefetching the templates of a proxy.
+ */
+public final class InvalidTemplateException extends UnscannableMethodException {
+  public InvalidTemplateException(final Type owner, final Method method, final String message,
+                                  final @Nullable Throwable cause) {
+    super(owner, method, message, cause);
+  }
+}
@@ -0,0 +1,189 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard.message;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import net.kyori.hazzard.annotation.meta.ThreadSafe;
+import net.kyori.hazzard.exception.MissingTranslationKeyException;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A template locator folding global variables into the templates of another, once per translation key and distinct
+ * template.
+ * <p>
+ * Equal templates of a translation key, e.g. of different locales, share their folded template, which is only
+ * {@link #invalidate(String, Object) invalidated} by the template instance it was folded of.
+ * </p>
+ * <p>
+ * Global variables can be left {@link #unfold(String, Collection) unfolded} per translation key, e.g. as a method
+ * resolves a variable of the same name which must take precedence; these are then to be composed as usual.
+ * </p>
+ * <p>
+ * It passes interned translation key IDs on if the other locator is an {@link IndexedTemplateLocator}.
+ * </p>
+ *
+ * @param <ViewerT> the viewer type
+ * @param <TemplateT> the intermediate message type
+ * @param <ReplacementT> the finalised replacement type
+ */
+@ThreadSafe
+public final class FoldingTemplateLocator<ViewerT, TemplateT, ReplacementT>
+    implements IndexedTemplateLocator<ViewerT, TemplateT> {
+  /**
+   * The folding state of every translation key located so far.
+   */
+  private final ConcurrentMap<String, Folding<TemplateT, ReplacementT>> foldings = new ConcurrentHashMap<>();
+
+  private final TemplateLocator<ViewerT, TemplateT> delegate;
+  private final ITemplateFolder<TemplateT, ReplacementT> templateFolder;
+  private final Map<String, ? extends ReplacementT> globalVariables;
+
+  /**
+   * @param delegate the locator of the templates to fold
+   * @param templateFolder the folder of the global variables
+   * @param globalVariables the global variables, which must not change afterwards
+   */
+  public FoldingTemplateLocator(final TemplateLocator<ViewerT, TemplateT> delegate,
+                                final ITemplateFolder<TemplateT, ReplacementT> templateFolder,
+                                final Map<String, ? extends ReplacementT> globalVariables) {
+    this.delegate = delegate;
+    this.templateFolder = templateFolder;
+    this.globalVariables = globalVariables;
+  }
+
+  @Override
+  public TemplateT templateOf(final ViewerT viewer, final String translationKey) throws MissingTranslationKeyException {
+    return this.fold(translationKey, this.delegate.templateOf(viewer, translationKey));
+  }
+
+  @Override
+  public TemplateT templateOf(final ViewerT viewer, final int translationKeyId, final String translationKey)
+      throws MissingTranslationKeyException {
+    if (this.delegate instanceof IndexedTemplateLocator<ViewerT, TemplateT> indexedDelegate) {
+      return this.fold(translationKey, indexedDelegate.templateOf(viewer, translationKeyId, translationKey));
+    }
+
+    return this.templateOf(viewer, translationKey);
+  }
+
+  private TemplateT fold(final String translationKey, final TemplateT template) {
+    final Folding<TemplateT, ReplacementT> folding =
+        this.foldings.computeIfAbsent(translationKey, ignored -> new Folding<>(Collections.emptyMap()));
+    return folding.folded().computeIfAbsent(template, ignored -> {
+      if (folding.unfolded().isEmpty()) {
+        return new Folded<>(template, this.templateFolder.fold(template, this.globalVariables));
+      }
+
+      final Map<String, ReplacementT> globalVariables = new LinkedHashMap<>(this.globalVariables);
+      globalVariables.keySet().removeAll(folding.unfolded().keySet());
+      return new Folded<>(template, this.templateFolder.fold(template, globalVariables));
+    }).folded();
+  }
+
+  /**
+   * Leave global variables of a translation key unfolded from now on, in addition to those left unfolded already.
+   *
+   * @param translationKey the translation key
+   * @param names the names of the global variables to leave unfolded; names of no global variable are ignored
+   */
+  public void unfold(final String translationKey, final Collection<String> names) {
+    this.foldings.compute(translationKey, (key, current) -> {
+      final Map<String, ReplacementT> unfolded = current == null
+          ? new LinkedHashMap<>()
+          : new LinkedHashMap<>(current.unfolded());
+      for (final String name : names) {
+        if (this.globalVariables.containsKey(name)) {
+          unfolded.put(name, this.globalVariables.get(name));
+        }
+      }
+      // Templates folded with fewer variables left unfolded are dropped along with the previous state.
+      return current != null && unfolded.size() == current.unfolded().size()
+          ? current
+          : new Folding<>(Collections.unmodifiableMap(unfolded));
+    });
+  }
+
+  /**
+   * @param translationKey the translation key
+   * @return an unmodifiable map of the global variables left unfolded in the templates of the translation key, which
+   *     must be composed instead
+   */
+  public Map<String, ReplacementT> unfoldedGlobalVariables(final String translationKey) {
+    final @Nullable Folding<TemplateT, ReplacementT> folding = this.foldings.get(translationKey);
+    return folding == null ? Collections.emptyMap() : folding.unfolded();
+  }
+
+  /**
+   * Forget the folded template of a located template, if it was folded of that very instance, e.g. once it is no
+   * longer located.
+   *
+   * @param translationKey the translation key of the template
+   * @param template the template instance as it was located
+   * @return the folded template that was forgotten, or {@code null} if there was none
+   */
+  public @Nullable TemplateT invalidate(final String translationKey, final TemplateT template) {
+    final @Nullable Folding<TemplateT, ReplacementT> folding = this.foldings.get(translationKey);
+    if (folding == null) {
+      return null;
+    }
+
+    final @Nullable Folded<TemplateT> folded = folding.folded().get(template);
+    return folded != null && folded.template() == template && folding.folded().remove(template, folded)
+        ? folded.folded()
+        : null;
+  }
+
+  /**
+   * Forget all folded templates.
+   */
+  public void invalidateAll() {
+    for (final Folding<TemplateT, ReplacementT> folding : this.foldings.values()) {
+      folding.folded().clear();
+    }
+  }
+
+  /**
+   * The folding state of a translation key.
+   *
+   * @param unfolded the global variables left unfolded
+   * @param folded the folded templates by the located template
+   * @param <TemplateT> the intermediate message type
+   * @param <ReplacementT> the finalised replacement type
+   */
+  private record Folding<TemplateT, ReplacementT>(Map<String, ReplacementT> unfolded,
+                                                  ConcurrentMap<TemplateT, Folded<TemplateT>> folded) {
+    Folding(final Map<String, ReplacementT> unfolded) {
+      this(unfolded, new ConcurrentHashMap<>());
+    }
+  }
+
+  /**
+   * A folded template along with the template instance it was folded of.
+   *
+   * @param template the template instance as it was located
+   * @param folded the folded template
+   * @param <TemplateT> the intermediate message type
+   */
+  private record Folded<TemplateT>(TemplateT template, TemplateT folded) {
+  }
+}
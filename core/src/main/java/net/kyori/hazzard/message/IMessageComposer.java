@@ -52,4 +52,15 @@ public interface IMessageComposer<ViewerT, TemplateT, MessageT, ReplacementT> {
                    final Method annotatedMethod,
                    final Type owningType
   );
+
+  /**
+   * Whether the composed message only depends on the template, replacement values, method and owning type, but never
+   * on the viewer. The messages of methods without any variables are composed only once per template if so, and the
+   * same message instance is then returned and sent for every invocation; it should therefore be immutable.
+   *
+   * @return whether the viewer is irrelevant to {@link #compose}
+   */
+  default boolean isViewerInvariant() {
+    return false;
+  }
 }
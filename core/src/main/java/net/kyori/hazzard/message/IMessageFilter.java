@@ -0,0 +1,57 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard.message;
+
+import net.kyori.hazzard.annotation.meta.ThreadSafe;
+import net.kyori.hazzard.model.HazzardMethod;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A filter deciding whether a message should be sent to a viewer at all, e.g. because the viewer has muted its
+ * category or is offline.
+ * <p>
+ * It is consulted right after the viewer is looked up, so a filtered message is never located, resolved nor composed.
+ * Contrary to an {@link IMessageSuppressionService}, it can therefore only judge by the arguments of the invocation.
+ * Only methods sending their message are subject to filtering; methods returning the rendered message always render it.
+ * </p>
+ *
+ * @param <ViewerT> the viewer type
+ */
+@FunctionalInterface
+@ThreadSafe
+public interface IMessageFilter<ViewerT> {
+  /**
+   * Decide whether to send a message.
+   *
+   * @param viewer the receiver of the message
+   * @param hazzardMethod the scanned method that was invoked
+   * @param arguments the arguments of the invocation
+   * @return whether the message should be sent; if not, it is dropped before locating its template
+   */
+  boolean accept(final ViewerT viewer, final HazzardMethod<? extends ViewerT> hazzardMethod,
+                 final @Nullable Object[] arguments);
+
+  /**
+   * @param other the filter to consult after this one
+   * @return a filter accepting only messages accepted by both filters
+   */
+  default IMessageFilter<ViewerT> and(final IMessageFilter<ViewerT> other) {
+    return (viewer, hazzardMethod, arguments) ->
+        this.accept(viewer, hazzardMethod, arguments) && other.accept(viewer, hazzardMethod, arguments);
+  }
+}
@@ -0,0 +1,56 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard.message;
+
+import java.util.Map;
+import net.kyori.hazzard.annotation.meta.ThreadSafe;
+import net.kyori.hazzard.model.HazzardMethod;
+
+/**
+ * A service deciding whether a message about to be sent should be suppressed, e.g. because the viewer has just received
+ * the very same message.
+ * <p>
+ * It is consulted once the template variables are resolved, but before the message is composed, so a suppressed
+ * message is never rendered. Only methods sending their message are subject to suppression; methods returning the
+ * rendered message always render it.
+ * </p>
+ *
+ * @param <ViewerT> the viewer type
+ * @param <ReplacementT> the finalised replacement type
+ */
+@FunctionalInterface
+@ThreadSafe
+public interface IMessageSuppressionService<ViewerT, ReplacementT> {
+  /**
+   * @return a service never suppressing any message
+   */
+  static <ViewerT, ReplacementT> IMessageSuppressionService<ViewerT, ReplacementT> never() {
+    return (viewer, hazzardMethod, replacementValues) -> false;
+  }
+
+  /**
+   * Decide whether to suppress a message.
+   *
+   * @param viewer the receiver of the message
+   * @param hazzardMethod the scanned method that was invoked
+   * @param replacementValues the resolved placeholders of the message
+   * @return whether the message should be dropped without being composed or sent
+   */
+  boolean suppress(final ViewerT viewer, final HazzardMethod<? extends ViewerT> hazzardMethod,
+                   final Map<String, ? extends ReplacementT> replacementValues);
+}
@@ -0,0 +1,46 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard.message;
+
+import java.util.Locale;
+import net.kyori.hazzard.annotation.meta.ThreadSafe;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A listener of templates changed by reloading an {@link ITemplateChangeSource}.
+ * <p>
+ * It is typically used to invalidate whatever was cached for the previous template only; a
+ * {@link net.kyori.hazzard.HazzardRuntime} does so for the changes of its template locator, if it is a source of them.
+ * </p>
+ *
+ * @param <TemplateT> the intermediate message type
+ */
+@FunctionalInterface
+@ThreadSafe
+public interface ITemplateChangeListener<TemplateT> {
+  /**
+   * Handle a changed template, after the catalog containing it was published.
+   *
+   * @param locale the locale of the template
+   * @param translationKey the key of the template
+   * @param previous the previous template, or {@code null} if it was added
+   * @param current the current template, or {@code null} if it was removed
+   */
+  void templateChanged(final Locale locale, final String translationKey, final @Nullable TemplateT previous,
+                       final @Nullable TemplateT current);
+}
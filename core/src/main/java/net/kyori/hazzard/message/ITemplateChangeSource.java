@@ -0,0 +1,45 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard.message;
+
+import net.kyori.hazzard.annotation.meta.ThreadSafe;
+
+/**
+ * A source of templates which may change, notifying its listeners of every changed template.
+ * <p>
+ * Templates which did not change must keep their instance, so whatever was cached for them stays valid.
+ * </p>
+ *
+ * @param <TemplateT> the intermediate message type
+ */
+@ThreadSafe
+public interface ITemplateChangeSource<TemplateT> {
+  /**
+   * Add a listener of the templates changed from now on.
+   *
+   * @param listener the listener to add
+   */
+  void addListener(final ITemplateChangeListener<? super TemplateT> listener);
+
+  /**
+   * Remove a listener, if it was added.
+   *
+   * @param listener the listener to remove
+   */
+  void removeListener(final ITemplateChangeListener<? super TemplateT> listener);
+}
@@ -0,0 +1,43 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard.message;
+
+import java.util.Map;
+import net.kyori.hazzard.annotation.meta.ThreadSafe;
+
+/**
+ * A folder of global variables into templates, substituting them once per template rather than on every composition.
+ *
+ * @param <TemplateT> the intermediate message type
+ * @param <ReplacementT> the finalised replacement type
+ */
+@FunctionalInterface
+@ThreadSafe
+public interface ITemplateFolder<TemplateT, ReplacementT> {
+  /**
+   * Substitute the global variables in a template.
+   * <p>
+   * <b>Note:</b> The folded template must still contain all other variables, so they can be composed as usual.
+   * </p>
+   *
+   * @param template the template as it is located
+   * @param globalVariables the global variables to substitute
+   * @return the template with the global variables substituted
+   */
+  TemplateT fold(final TemplateT template, final Map<String, ? extends ReplacementT> globalVariables);
+}
@@ -0,0 +1,40 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard.message;
+
+import java.util.Set;
+import net.kyori.hazzard.annotation.meta.ThreadSafe;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A validator of templates prefetched when creating a proxy, e.g. checking that every variable of a method is used.
+ *
+ * @param <TemplateT> the intermediate message type
+ */
+@FunctionalInterface
+@ThreadSafe
+public interface ITemplateValidator<TemplateT> {
+  /**
+   * Validate a template.
+   *
+   * @param template the template to validate
+   * @param variableNames the names of the variables resolved from the method's arguments
+   * @return a description of the problem with the template, or {@code null} if it is valid
+   */
+  @Nullable String validate(final TemplateT template, final Set<String> variableNames);
+}
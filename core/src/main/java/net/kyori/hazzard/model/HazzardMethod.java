@@ -20,6 +20,7 @@ package net.kyori.hazzard.model;
 import io.leangen.geantyref.TypeToken;
 import java.lang.reflect.Method;
 import java.util.Iterator;
+import java.util.List;
 import net.kyori.hazzard.Hazzard;
 import net.kyori.hazzard.annotation.TranslationKey;
 import net.kyori.hazzard.annotation.meta.ThreadSafe;
@@ -55,20 +56,61 @@ public final class HazzardMethod<ViewerT> {
    */
   private final String translationKey;
 
+  /**
+   * The {@link TranslationKeyIndex interned ID} of the {@link #translationKey}.
+   */
+  private final int translationKeyId;
+
   /**
    * The locator for a given receiver of this message.
    */
   private final IViewerLookupService<? extends ViewerT> viewerLookupService;
 
+  /**
+   * The index of the locator of the {@link #viewerLookupService}, in descending order of weight.
+   */
+  private int viewerLookupLocatorIndex;
+
+  /**
+   * The placeholders resolved from the arguments of this method, in the order of their parameters.
+   */
+  private final List<ScannedPlaceholder> placeholders;
+
   public HazzardMethod(final Hazzard<ViewerT, ?, ?, ?> hazzard, final TypeToken<?> owner, final Method reflectMethod)
       throws UnscannableMethodException {
+    this(hazzard, owner, reflectMethod, null);
+  }
+
+  /**
+   * Scan a method, taking the results of an earlier scan for granted where possible.
+   *
+   * @param hazzard the hazzard instance
+   * @param owner the owning type of the method
+   * @param reflectMethod the method to scan
+   * @param indexed the results of an earlier scan of the method, if any
+   * @throws UnscannableMethodException if the method could not be scanned
+   */
+  public HazzardMethod(final Hazzard<ViewerT, ?, ?, ?> hazzard, final TypeToken<?> owner, final Method reflectMethod,
+                       final ScanIndex.@Nullable Entry indexed)
+      throws UnscannableMethodException {
     this.owner = owner;
     this.reflectMethod = reflectMethod;
 
-    final TranslationKey translationKey = this.findTranslationKeyAnnotation();
-    this.translationKey = translationKey.value();
-
-    this.viewerLookupService = this.findViewerLookupService(hazzard);
+    this.translationKey = indexed == null
+        ? this.findTranslationKeyAnnotation().value()
+        : indexed.translationKey();
+    this.translationKeyId = hazzard.runtime().translationKeyIndex().intern(this.translationKey);
+
+    final @Nullable IViewerLookupService<? extends ViewerT> indexedViewerLookupService = indexed == null
+        ? null
+        : this.indexedViewerLookupService(hazzard, indexed.viewerLookupLocatorIndex());
+    this.viewerLookupService = indexedViewerLookupService == null
+        ? this.findViewerLookupService(hazzard)
+        : indexedViewerLookupService;
+
+    this.placeholders = indexed == null
+        ? List.copyOf(hazzard.templateVariableResolver().scanPlaceholders(reflectMethod))
+        : indexed.placeholders();
   }
 
   @Pure
@@ -86,11 +128,33 @@ public final class HazzardMethod<ViewerT> {
     return this.translationKey;
   }
 
+  @Pure
+  public int translationKeyId() {
+    return this.translationKeyId;
+  }
+
   @Pure
   public IViewerLookupService<? extends ViewerT> viewerLookupService() {
     return this.viewerLookupService;
   }
 
+  /**
+   * @return the placeholders resolved from the arguments of this method, in the order of their parameters
+   * @see net.kyori.hazzard.strategy.ITemplateVariableResolver#scanPlaceholders(Method)
+   */
+  @Pure
+  public List<ScannedPlaceholder> placeholders() {
+    return this.placeholders;
+  }
+
+  /**
+   * @return the scan results of this method, to skip scanning it again
+   */
+  @Pure
+  public ScanIndex.Entry indexEntry() {
+    return new ScanIndex.Entry(this.translationKey, this.viewerLookupLocatorIndex, this.placeholders);
+  }
+
   private TranslationKey findTranslationKeyAnnotation() throws MissingTranslationKeyAnnotationException {
     final @Nullable TranslationKey annotation = this.reflectMethod.getAnnotation(TranslationKey.class);
     //noinspection ConstantConditions -- this is completely not true. It may be null, per its Javadocs.
@@ -106,16 +170,33 @@ public final class HazzardMethod<ViewerT> {
     final Iterator<Weighted<? extends IViewerLookupServiceLocator<? extends ViewerT>>> locators =
         hazzard.viewerLookupServiceLocators().descendingIterator();
 
-    while (locators.hasNext()) {
+    for (int idx = 0; locators.hasNext(); ++idx) {
       final IViewerLookupServiceLocator<? extends ViewerT> serviceLocator = locators.next().value();
       final @Nullable IViewerLookupService<? extends ViewerT> lookupServiceResult =
               serviceLocator.resolve(this.reflectMethod, this.owner.getType());
 
       if (lookupServiceResult != null) {
+        this.viewerLookupLocatorIndex = idx;
         return lookupServiceResult;
       }
     }
 
     throw new ViewerLookupNotFoundException(this.owner.getType(), this.reflectMethod);
   }
+
+  private @Nullable IViewerLookupService<? extends ViewerT> indexedViewerLookupService(
+      final Hazzard<ViewerT, ?, ?, ?> hazzard, final int locatorIndex) {
+    final Iterator<Weighted<? extends IViewerLookupServiceLocator<? extends ViewerT>>> locators =
+        hazzard.viewerLookupServiceLocators().descendingIterator();
+    for (int idx = 0; locators.hasNext(); ++idx) {
+      final IViewerLookupServiceLocator<? extends ViewerT> serviceLocator = locators.next().value();
+      if (idx == locatorIndex) {
+        this.viewerLookupLocatorIndex = idx;
+        return serviceLocator.resolve(this.reflectMethod, this.owner.getType());
+      }
+    }
+
+    // The index does not match the locators; scan all of them instead.
+    return null;
+  }
 }
@@ -0,0 +1,166 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard.model;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import net.kyori.hazzard.annotation.meta.ThreadSafe;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.dataflow.qual.Pure;
+
+/**
+ * The persistable results of scanning the methods of a proxied type, keyed by their method descriptors: the translation
+ * key, viewer lookup service locator and placeholders of every method.
+ * <p>
+ * An index is only valid for the exact class files, viewer lookup service locators and variable resolving strategy it
+ * was created with, which is what its class hash identifies. Reading an index of another hash or
+ * {@link #VERSION format version} yields nothing, so the type is scanned anew instead.
+ * </p>
+ */
+@ThreadSafe
+public final class ScanIndex {
+  /**
+   * The version of the binary format, bumped on every incompatible change.
+   */
+  public static final int VERSION = 1;
+
+  private static final int MAGIC = 0x485A5349; // "HZSI"
+
+  private final byte[] classHash;
+  private final Map<String, Entry> entries;
+
+  public ScanIndex(final byte[] classHash, final Map<String, Entry> entries) {
+    this.classHash = classHash.clone();
+    this.entries = Collections.unmodifiableMap(new HashMap<>(entries));
+  }
+
+  /**
+   * Get the descriptor of a method, by which it is identified in an index.
+   *
+   * @param method the method to describe
+   * @return the declaring class, name and JVM descriptor of the method
+   */
+  public static String descriptor(final Method method) {
+    return method.getDeclaringClass().getName() + '#' + method.getName()
+        + MethodType.methodType(method.getReturnType(), method.getParameterTypes()).toMethodDescriptorString();
+  }
+
+  /**
+   * Read an index, if it was written for the given class hash in the current format version.
+   *
+   * @param input the input to read from
+   * @param classHash the hash of the classes and locators the index must have been created with
+   * @return the read index, or {@code null} if it is of another format version or class hash
+   * @throws IOException if the input could not be read, or is no index at all
+   */
+  public static @Nullable ScanIndex read(final DataInput input, final byte[] classHash) throws IOException {
+    if (input.readInt() != MAGIC) {
+      throw new IOException("not a scan index");
+    }
+    if (input.readUnsignedShort() != VERSION) {
+      return null;
+    }
+
+    final byte[] readClassHash = new byte[input.readUnsignedShort()];
+    input.readFully(readClassHash);
+    if (!Arrays.equals(readClassHash, classHash)) {
+      return null;
+    }
+
+    final int size = input.readInt();
+    final Map<String, Entry> entries = new HashMap<>(size);
+    for (int idx = 0; idx < size; ++idx) {
+      final String descriptor = input.readUTF();
+      final String translationKey = input.readUTF();
+      final int viewerLookupLocatorIndex = input.readInt();
+      final int placeholderCount = input.readUnsignedShort();
+      final List<ScannedPlaceholder> placeholders = new ArrayList<>(placeholderCount);
+      for (int placeholderIdx = 0; placeholderIdx < placeholderCount; ++placeholderIdx) {
+        placeholders.add(new ScannedPlaceholder(input.readUTF(), input.readUnsignedByte(), input.readBoolean()));
+      }
+      entries.put(descriptor, new Entry(translationKey, viewerLookupLocatorIndex, placeholders));
+    }
+    return new ScanIndex(readClassHash, entries);
+  }
+
+  /**
+   * Write this index in the current format version.
+   *
+   * @param output the output to write to
+   * @throws IOException if the output could not be written
+   */
+  public void write(final DataOutput output) throws IOException {
+    output.writeInt(MAGIC);
+    output.writeShort(VERSION);
+    output.writeShort(this.classHash.length);
+    output.write(this.classHash);
+    output.writeInt(this.entries.size());
+    for (final Map.Entry<String, Entry> entry : this.entries.entrySet()) {
+      output.writeUTF(entry.getKey());
+      output.writeUTF(entry.getValue().translationKey());
+      output.writeInt(entry.getValue().viewerLookupLocatorIndex());
+      output.writeShort(entry.getValue().placeholders().size());
+      for (final ScannedPlaceholder placeholder : entry.getValue().placeholders()) {
+        output.writeUTF(placeholder.name());
+        // Methods never have more than 255 parameters.
+        output.writeByte(placeholder.parameterIndex());
+        output.writeBoolean(placeholder.validated());
+      }
+    }
+  }
+
+  /**
+   * @param method the method to get the entry of
+   * @return the scan results of the method, or {@code null} if it is not part of this index
+   */
+  @Pure
+  public @Nullable Entry entry(final Method method) {
+    return this.entries.get(descriptor(method));
+  }
+
+  /**
+   * @return an unmodifiable map of method descriptors to their scan results
+   */
+  @Pure
+  public Map<String, Entry> entries() {
+    return this.entries;
+  }
+
+  /**
+   * The scan results of a single method.
+   *
+   * @param translationKey the translation key of the method
+   * @param viewerLookupLocatorIndex the index of the viewer lookup service locator resolving the viewer lookup service
+   *     of the method, in descending order of weight
+   * @param placeholders the placeholders resolved from the arguments of the method, in the order of their parameters
+   */
+  public record Entry(String translationKey, int viewerLookupLocatorIndex, List<ScannedPlaceholder> placeholders) {
+    public Entry {
+      placeholders = List.copyOf(placeholders);
+    }
+  }
+}
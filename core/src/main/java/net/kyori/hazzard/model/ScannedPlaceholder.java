@@ -0,0 +1,31 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard.model;
+
+/**
+ * A placeholder resolved from an argument of a scanned method, as found by the
+ * {@link net.kyori.hazzard.strategy.ITemplateVariableResolver#scanPlaceholders(java.lang.reflect.Method) strategy}
+ * resolving its variables.
+ *
+ * @param name the name of the placeholder
+ * @param parameterIndex the index of the parameter of the argument
+ * @param validated whether templates are {@link net.kyori.hazzard.message.ITemplateValidator validated} to use the
+ *     placeholder
+ */
+public record ScannedPlaceholder(String name, int parameterIndex, boolean validated) {
+}
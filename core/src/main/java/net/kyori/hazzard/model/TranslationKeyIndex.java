@@ -0,0 +1,80 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard.model;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import net.kyori.hazzard.annotation.meta.ThreadSafe;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An index of translation keys to dense integer IDs, starting at {@code 0}, assigned in order of first interning.
+ */
+@ThreadSafe
+public final class TranslationKeyIndex {
+  private final ConcurrentMap<String, Integer> ids = new ConcurrentHashMap<>();
+  private volatile String[] keys = new String[0];
+
+  /**
+   * Get the ID of a translation key, assigning the next one if it has none yet.
+   *
+   * @param translationKey the key to intern
+   * @return the ID of the key
+   */
+  public int intern(final String translationKey) {
+    final @Nullable Integer id = this.ids.get(translationKey);
+    if (id != null) {
+      return id;
+    }
+
+    synchronized (this.ids) {
+      return this.ids.computeIfAbsent(translationKey, key -> {
+        final String[] keys = Arrays.copyOf(this.keys, this.keys.length + 1);
+        keys[keys.length - 1] = key;
+        this.keys = keys;
+        return keys.length - 1;
+      });
+    }
+  }
+
+  /**
+   * @param translationKey the key to get the ID of
+   * @return the ID of the key, or {@code -1} if it was never interned
+   */
+  public int id(final String translationKey) {
+    final @Nullable Integer id = this.ids.get(translationKey);
+    return id == null ? -1 : id;
+  }
+
+  /**
+   * @param id the ID of the key
+   * @return the key of the ID
+   * @throws IndexOutOfBoundsException if no key has the ID
+   */
+  public String key(final int id) {
+    return this.keys[id];
+  }
+
+  /**
+   * @return the amount of interned keys, which is also the next ID to be assigned
+   */
+  public int size() {
+    return this.keys.length;
+  }
+}
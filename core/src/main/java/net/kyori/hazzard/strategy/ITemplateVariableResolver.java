@@ -17,11 +17,17 @@
  */
 package net.kyori.hazzard.strategy;
 
+import java.lang.reflect.Method;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.IntPredicate;
 import net.kyori.hazzard.Hazzard;
 import net.kyori.hazzard.annotation.meta.ThreadSafe;
 import net.kyori.hazzard.exception.VariableResolutionException;
 import net.kyori.hazzard.model.HazzardMethod;
+import net.kyori.hazzard.model.ScannedPlaceholder;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
@@ -44,4 +50,85 @@ public interface ITemplateVariableResolver<ViewerT, TemplateT, TemplateVariableV
                                                                 final TemplateT template, final HazzardMethod<? extends ViewerT> hazzardMethod,
                                                                 final @Nullable Object[] parameters)
       throws VariableResolutionException;
+
+  /**
+   * Resolve the template variables of only the parameters accepted by the filter, e.g. to resolve the bound arguments
+   * of a {@link net.kyori.hazzard.PreparedMessage} once and the remaining ones on every invocation.
+   * <p>
+   * The default implementation resolves all variables with every other parameter replaced by {@code null}.
+   * </p>
+   *
+   * @param hazzard the {@link Hazzard} meta instance for resolvers
+   * @param template the invocation's template
+   * @param hazzardMethod the scanned method that was invoked
+   * @param parameters the parameters in the invocation to this method
+   * @param parameterFilter the filter of parameter indices to resolve variables of
+   * @return a map of the resolved variables
+   */
+  default Map<String, ? extends TemplateVariableValue> resolveVariables(final Hazzard<ViewerT, TemplateT, ?, TemplateVariableValue> hazzard, final ViewerT receiver,
+                                                                        final TemplateT template, final HazzardMethod<? extends ViewerT> hazzardMethod,
+                                                                        final @Nullable Object[] parameters, final IntPredicate parameterFilter)
+      throws VariableResolutionException {
+    final @Nullable Object[] filteredParameters = new Object[parameters.length];
+    for (int idx = 0; idx < parameters.length; ++idx) {
+      if (parameterFilter.test(idx)) {
+        filteredParameters[idx] = parameters[idx];
+      }
+    }
+
+    return this.resolveVariables(hazzard, receiver, template, hazzardMethod, filteredParameters);
+  }
+
+  /**
+   * Scan the parameters of a method for the placeholders this strategy resolves from their arguments. This is done
+   * once per {@link HazzardMethod scanned method}, which keeps the results as its
+   * {@link HazzardMethod#placeholders() placeholders}, so strategies need not look at the parameters again on every
+   * invocation. The results may be persisted and reused by later scans of the same class files.
+   *
+   * @param method the method to scan
+   * @return the placeholders in the order of their parameters, or an empty list if this strategy does not scan any
+   */
+  default List<ScannedPlaceholder> scanPlaceholders(final Method method) {
+    return Collections.emptyList();
+  }
+
+  /**
+   * Whether this strategy never resolves any variables for the given method, regardless of the viewer and arguments
+   * it is invoked with. The messages of such methods are composed once per template and reused afterwards, if the
+   * {@link net.kyori.hazzard.message.IMessageComposer#isViewerInvariant() composer allows so}.
+   *
+   * @param hazzardMethod the scanned method
+   * @return whether {@link #resolveVariables} always returns an empty map for the method
+   */
+  default boolean resolvesNoVariables(final HazzardMethod<? extends ViewerT> hazzardMethod) {
+    return false;
+  }
+
+  /**
+   * The names of the variables this strategy resolves directly from the arguments of the given method, used to
+   * {@link net.kyori.hazzard.message.ITemplateValidator validate} its templates. Arguments which variable resolvers
+   * expand into differently named variables should be left out, as their templates never use these names.
+   *
+   * @param hazzardMethod the scanned method
+   * @return the names of the variables, or an empty set if they are unknown
+   */
+  default Set<String> variableNames(final HazzardMethod<? extends ViewerT> hazzardMethod) {
+    return Collections.emptySet();
+  }
+
+  /**
+   * Release any caches held by this strategy, e.g. of types of an unloaded class loader. The strategy stays usable
+   * afterwards, and builds up its caches anew if it is.
+   */
+  default void close() {
+  }
+
+  /**
+   * Release any caches held by this strategy involving types of the given class loader, e.g. once the last proxy of
+   * its types was closed, so it can be unloaded. The strategy stays usable afterwards.
+   *
+   * @param classLoader the class loader to release the types of
+   */
+  default void evict(final ClassLoader classLoader) {
+  }
 }
@@ -0,0 +1,138 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.leangen.geantyref.TypeToken;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.kyori.hazzard.annotation.TemplateArgument;
+import net.kyori.hazzard.annotation.TranslationKey;
+import net.kyori.hazzard.message.IMessageComposer;
+import net.kyori.hazzard.strategy.StandardTemplateVariableResolution;
+import net.kyori.hazzard.strategy.supertype.StandardSupertypeThenInterfaceSupertypeStrategy;
+import net.kyori.hazzard.util.VariableWrapper;
+import net.kyori.hazzard.variable.ReplacementResult;
+import org.junit.jupiter.api.Test;
+
+/* package-private */ class ConstantMessageTest {
+  @Test
+  void composesConstantMessagesOncePerTemplate() throws Exception {
+    final List<String> sent = new ArrayList<>();
+    final CountingComposer composer = new CountingComposer(true);
+    final Messages messages = createMessages(composer, sent);
+
+    messages.prefix("en");
+    messages.prefix("en");
+    messages.prefix("sv");
+    messages.prefix("en");
+
+    assertThat(sent).containsExactly("prefix/en", "prefix/en", "prefix/sv", "prefix/en");
+    assertThat(composer.compositions.get()).isEqualTo(2);
+  }
+
+  @Test
+  void composesMessagesWithVariablesEveryTime() throws Exception {
+    final List<String> sent = new ArrayList<>();
+    final CountingComposer composer = new CountingComposer(true);
+    final Messages messages = createMessages(composer, sent);
+
+    messages.greeting("en", "Alice");
+    messages.greeting("en", "Alice");
+
+    assertThat(sent).containsExactly("greeting/en Alice", "greeting/en Alice");
+    assertThat(composer.compositions.get()).isEqualTo(2);
+  }
+
+  @Test
+  void composesEveryTimeForViewerDependentComposer() throws Exception {
+    final List<String> sent = new ArrayList<>();
+    final CountingComposer composer = new CountingComposer(false);
+    final Messages messages = createMessages(composer, sent);
+
+    messages.prefix("en");
+    messages.prefix("en");
+
+    assertThat(composer.compositions.get()).isEqualTo(2);
+  }
+
+  @Test
+  void boundsTemplatesPerMethod() throws Exception {
+    final List<String> sent = new ArrayList<>();
+    final Messages messages = createMessages(new CountingComposer(true), sent);
+
+    for (int viewer = 0; viewer < ConstantMessages.MAX_TEMPLATES * 3; ++viewer) {
+      messages.prefix("viewer" + viewer);
+    }
+
+    final ConstantMessages<String, String> constantMessages =
+        messages.hazzard().constantMessages(Messages.class.getMethod("prefix", String.class));
+    assertThat(constantMessages).isNotNull();
+    assertThat(constantMessages.size()).isLessThanOrEqualTo(ConstantMessages.MAX_TEMPLATES);
+  }
+
+  private static Messages createMessages(final CountingComposer composer, final List<String> sent) throws Exception {
+    return Hazzard.<Messages, String>builder(TypeToken.get(Messages.class))
+        .viewerLookupServiceLocator((method, proxy) -> (method1, proxy1, parameters) -> (String) parameters[0], 1)
+        .templateLocator((viewer, key) -> key + '/' + viewer)
+        .composed(composer)
+        .sent((viewer, message) -> sent.add(message))
+        .variableResolver(new StandardTemplateVariableResolution<>(
+            new StandardSupertypeThenInterfaceSupertypeStrategy(false)))
+        .weightedVariableResolver(String.class, (name, value, viewer, owner, method, parameters) ->
+            Map.of(name, VariableWrapper.finalResult(ReplacementResult.conclusionValue(value))), 1)
+        .create();
+  }
+
+  interface Messages {
+    @TranslationKey("prefix")
+    void prefix(final String viewer);
+
+    @TranslationKey("greeting")
+    void greeting(final String viewer, @TemplateArgument("name") final String name);
+
+    Hazzard<String, String, String, String> hazzard();
+  }
+
+  private static final class CountingComposer implements IMessageComposer<String, String, String, String> {
+    private final AtomicInteger compositions = new AtomicInteger();
+    private final boolean viewerInvariant;
+
+    private CountingComposer(final boolean viewerInvariant) {
+      this.viewerInvariant = viewerInvariant;
+    }
+
+    @Override
+    public String compose(final String viewer, final String template, final Map<String, ? extends String> replacementValues,
+                          final Method annotatedMethod, final Type owningType) {
+      this.compositions.incrementAndGet();
+      final String name = replacementValues.get("name");
+      return name == null ? template : template + ' ' + name;
+    }
+
+    @Override
+    public boolean isViewerInvariant() {
+      return this.viewerInvariant;
+    }
+  }
+}
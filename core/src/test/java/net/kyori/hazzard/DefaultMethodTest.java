@@ -18,20 +18,29 @@
 package net.kyori.hazzard;
 
 import static net.kyori.hazzard.util.Unit.UNIT;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import io.leangen.geantyref.TypeToken;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
+import net.kyori.hazzard.annotation.TemplateArgument;
+import net.kyori.hazzard.annotation.TranslationKey;
 import net.kyori.hazzard.message.IMessageComposer;
 import net.kyori.hazzard.message.IMessageSendingService;
 import net.kyori.hazzard.message.TemplateLocator;
 import net.kyori.hazzard.strategy.StandardTemplateVariableResolution;
 import net.kyori.hazzard.strategy.supertype.StandardSupertypeThenInterfaceSupertypeStrategy;
 import net.kyori.hazzard.util.Unit;
+import net.kyori.hazzard.util.VariableWrapper;
+import net.kyori.hazzard.variable.ReplacementResult;
 import org.junit.jupiter.api.Test;
 
 @SuppressWarnings("unchecked")
@@ -91,4 +100,58 @@ class DefaultMethodTest {
     verify(sender).send(UNIT, UNIT);
   }
 
+  @Test
+  void invokesDefaultMethodsOnOwnProxy() throws Exception {
+    final List<String> first = new ArrayList<>();
+    final List<String> second = new ArrayList<>();
+    final Messages firstMessages = createMessages(first);
+    final Messages secondMessages = createMessages(second);
+
+    firstMessages.welcome("Alice");
+    secondMessages.welcome("Bob");
+
+    assertThat(first).containsExactly("greeting Alice");
+    assertThat(second).containsExactly("greeting Bob");
+  }
+
+  @Test
+  void passesReturnValuesAndExceptions() throws Exception {
+    final Messages messages = createMessages(new ArrayList<>());
+
+    assertThat(messages.rendered("Carol", 2)).isEqualTo("greeting Carol, greeting Carol");
+    assertThatThrownBy(() -> messages.rendered("Carol", -1)).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private static Messages createMessages(final List<String> sent) throws Exception {
+    return Hazzard.<Messages, String>builder(TypeToken.get(Messages.class))
+        .viewerLookupServiceLocator((method, proxy) -> (method1, proxy1, parameters) -> "viewer", 1)
+        .templateLocator((viewer, key) -> key)
+        .<String, String>composed((viewer, template, replacements, method, owner) ->
+            template + ' ' + replacements.get("name"))
+        .sent((viewer, message) -> sent.add(message))
+        .variableResolver(new StandardTemplateVariableResolution<>(
+            new StandardSupertypeThenInterfaceSupertypeStrategy(false)))
+        .weightedVariableResolver(String.class, (name, value, viewer, owner, method, parameters) ->
+            Map.of(name, VariableWrapper.finalResult(ReplacementResult.conclusionValue(value))), 1)
+        .create();
+  }
+
+  interface Messages {
+    @TranslationKey("greeting")
+    void greeting(@TemplateArgument("name") final String name);
+
+    @TranslationKey("greeting")
+    String renderGreeting(@TemplateArgument("name") final String name);
+
+    default void welcome(final String name) {
+      this.greeting(name);
+    }
+
+    default String rendered(final String name, final int times) {
+      if (times < 0) {
+        throw new IllegalArgumentException("times must not be negative");
+      }
+      return String.join(", ", Collections.nCopies(times, this.renderGreeting(name)));
+    }
+  }
 }
@@ -0,0 +1,301 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.leangen.geantyref.TypeToken;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Serializable;
+import java.lang.ref.WeakReference;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ForkJoinPool;
+import net.kyori.hazzard.annotation.TemplateArgument;
+import net.kyori.hazzard.annotation.TranslationKey;
+import net.kyori.hazzard.exception.scan.MissingTranslationKeyAnnotationException;
+import net.kyori.hazzard.message.ITemplateChangeListener;
+import net.kyori.hazzard.message.ITemplateChangeSource;
+import net.kyori.hazzard.message.TemplateLocator;
+import net.kyori.hazzard.strategy.StandardTemplateVariableResolution;
+import net.kyori.hazzard.strategy.supertype.StandardSupertypeThenInterfaceSupertypeStrategy;
+import net.kyori.hazzard.util.VariableWrapper;
+import net.kyori.hazzard.variable.ReplacementResult;
+import org.junit.jupiter.api.Test;
+
+/* package-private */ class HazzardRuntimeTest {
+  @Test
+  void proxiesShareRuntime() throws Exception {
+    final List<String> sent = new ArrayList<>();
+    final var builder = Hazzard.<Greetings, String>builder(TypeToken.get(Greetings.class))
+        .viewerLookupServiceLocator((method, proxy) -> (method1, proxy1, parameters) -> "viewer", 1)
+        .templateLocator((viewer, key) -> key + ":%s")
+        .<String, String>composed((viewer, template, replacements, method, owner) ->
+            String.format(template, replacements.get("name")))
+        .sent((viewer, message) -> sent.add(message))
+        .variableResolver(new StandardTemplateVariableResolution<>(
+            new StandardSupertypeThenInterfaceSupertypeStrategy(false)))
+        .weightedVariableResolver(String.class, (name, value, viewer, owner, method, parameters) ->
+            Map.of(name, VariableWrapper.finalResult(ReplacementResult.conclusionValue(value))), 1);
+    final HazzardRuntime<String, String, String, String> runtime = builder.runtime();
+
+    runtime.create(TypeToken.get(Greetings.class)).hello("Alice");
+    runtime.create(TypeToken.get(Farewells.class)).goodbye("Bob");
+
+    assertThat(sent).containsExactly("hello:Alice", "goodbye:Bob");
+  }
+
+  @Test
+  void runtimeIsDetachedFromBuilder() {
+    final var builder = Hazzard.<Greetings, String>builder(TypeToken.get(Greetings.class))
+        .viewerLookupServiceLocator((method, proxy) -> (method1, proxy1, parameters) -> "viewer", 1)
+        .templateLocator((viewer, key) -> key)
+        .<String, String>composed((viewer, template, replacements, method, owner) -> template)
+        .sent((viewer, message) -> { })
+        .variableResolver(new StandardTemplateVariableResolution<>(
+            new StandardSupertypeThenInterfaceSupertypeStrategy(false)));
+    final HazzardRuntime<String, String, String, String> runtime = builder.runtime();
+
+    builder.weightedVariableResolver(String.class, (name, value, viewer, owner, method, parameters) -> null, 1);
+
+    assertThat(runtime.weightedVariableResolvers()).isEmpty();
+  }
+
+  @Test
+  void createsAllInParallel() throws Exception {
+    final List<String> sent = Collections.synchronizedList(new ArrayList<>());
+    final ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      final HazzardRuntime<String, String, String, String> runtime = runtimeBuilder(sent)
+          .scanInParallel(pool)
+          .runtime();
+
+      final List<Object> proxies = runtime.createAll(
+          List.of(TypeToken.get(Greetings.class), TypeToken.get(Farewells.class)),
+          HazzardRuntimeTest.class.getClassLoader());
+      ((Greetings) proxies.get(0)).hello("Alice");
+      ((Farewells) proxies.get(1)).goodbye("Bob");
+
+      assertThat(sent).containsExactly("hello:Alice", "goodbye:Bob");
+      assertThatThrownBy(() -> runtime.create(TypeToken.get(Unannotated.class)))
+          .isInstanceOf(MissingTranslationKeyAnnotationException.class);
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  void closingFailsProxies() throws Exception {
+    final List<String> sent = new ArrayList<>();
+    final HazzardRuntime<String, String, String, String> runtime = runtimeBuilder(sent).runtime();
+    final ClosableGreetings greetings = runtime.create(TypeToken.get(ClosableGreetings.class));
+    final Farewells farewells = runtime.create(TypeToken.get(Farewells.class));
+
+    greetings.hazzard().close();
+    assertThatThrownBy(() -> greetings.hello("Alice")).isInstanceOf(IllegalStateException.class);
+    farewells.goodbye("Bob");
+
+    runtime.close();
+    assertThatThrownBy(() -> farewells.goodbye("Bob")).isInstanceOf(IllegalStateException.class);
+    assertThatThrownBy(() -> runtime.create(TypeToken.get(Greetings.class))).isInstanceOf(IllegalStateException.class);
+    assertThat(sent).containsExactly("goodbye:Bob");
+  }
+
+  @Test
+  void closingReleasesClassLoaderOfSharedRuntimeProxy() throws Exception {
+    final List<String> sent = new ArrayList<>();
+    final HazzardRuntime<String, String, String, String> runtime = runtimeBuilder(sent)
+        .weightedVariableResolver(Serializable.class, (name, value, viewer, owner, method, parameters) ->
+            Map.of(name, VariableWrapper.finalResult(ReplacementResult.conclusionValue(value.toString()))), 1)
+        .runtime();
+
+    final WeakReference<ClassLoader> classLoader = greetAndClose(runtime);
+    for (int attempt = 0; attempt < 100 && classLoader.get() != null; ++attempt) {
+      System.gc();
+      Thread.sleep(10);
+    }
+
+    assertThat(classLoader.get()).isNull();
+    assertThat(sent).containsExactly("hello:Alice");
+  }
+
+  @Test
+  void neverKeepsUnclosedProxiesReachableFromTemplateChangeSources() throws Exception {
+    final ChangingTemplateLocator locator = new ChangingTemplateLocator();
+
+    final WeakReference<Greetings> greetings = greetAndDrop(locator);
+    for (int attempt = 0; attempt < 100 && greetings.get() != null; ++attempt) {
+      System.gc();
+      Thread.sleep(10);
+    }
+
+    assertThat(greetings.get()).isNull();
+    locator.change("hello");
+    assertThat(locator.listeners).isEmpty();
+  }
+
+  private static WeakReference<Greetings> greetAndDrop(final ChangingTemplateLocator locator) throws Exception {
+    final Greetings greetings = Hazzard.<Greetings, String>builder(TypeToken.get(Greetings.class))
+        .viewerLookupServiceLocator((method, proxy) -> (method1, proxy1, parameters) -> "viewer", 1)
+        .templateLocator(locator)
+        .<String, String>composed((viewer, template, replacements, method, owner) ->
+            String.format(template, replacements.get("name")))
+        .sent((viewer, message) -> { })
+        .variableResolver(new StandardTemplateVariableResolution<>(
+            new StandardSupertypeThenInterfaceSupertypeStrategy(false)))
+        .weightedVariableResolver(String.class, (name, value, viewer, owner, method, parameters) ->
+            Map.of(name, VariableWrapper.finalResult(ReplacementResult.conclusionValue(value))), 1)
+        .create();
+    greetings.hello("Alice");
+    assertThat(locator.listeners).hasSize(1);
+    return new WeakReference<>(greetings);
+  }
+
+  private static WeakReference<ClassLoader> greetAndClose(final HazzardRuntime<String, String, String, String> runtime)
+      throws Exception {
+    final ClassLoader classLoader = new UnloadableClassLoader(Unloadable.class.getName(), Named.class.getName());
+    final Class<?> unloadable = classLoader.loadClass(Unloadable.class.getName());
+    final Class<?> named = classLoader.loadClass(Named.class.getName());
+    final Object proxy = runtime.create(TypeToken.get(unloadable), classLoader);
+
+    final Method hello = unloadable.getMethod("hello", named);
+    hello.invoke(proxy, named.getConstructor().newInstance());
+    ((Hazzard<?, ?, ?, ?>) unloadable.getMethod("hazzard").invoke(proxy)).close();
+    return new WeakReference<>(classLoader);
+  }
+
+  private static HazzardBuilder.Resolved<Greetings, String, String, String, String> runtimeBuilder(
+      final List<String> sent) {
+    return Hazzard.<Greetings, String>builder(TypeToken.get(Greetings.class))
+        .viewerLookupServiceLocator((method, proxy) -> (method1, proxy1, parameters) -> "viewer", 1)
+        .templateLocator((viewer, key) -> key + ":%s")
+        .<String, String>composed((viewer, template, replacements, method, owner) ->
+            String.format(template, replacements.get("name")))
+        .sent((viewer, message) -> sent.add(message))
+        .variableResolver(new StandardTemplateVariableResolution<>(
+            new StandardSupertypeThenInterfaceSupertypeStrategy(false)))
+        .weightedVariableResolver(String.class, (name, value, viewer, owner, method, parameters) ->
+            Map.of(name, VariableWrapper.finalResult(ReplacementResult.conclusionValue(value))), 1);
+  }
+
+  interface Greetings {
+    @TranslationKey("hello")
+    void hello(@TemplateArgument("name") final String name);
+  }
+
+  interface ClosableGreetings extends Greetings {
+    Hazzard<String, String, String, String> hazzard();
+  }
+
+  interface Farewells {
+    @TranslationKey("goodbye")
+    void goodbye(@TemplateArgument("name") final String name);
+  }
+
+  interface Unannotated {
+    @TranslationKey("hello")
+    void hello(@TemplateArgument("name") final String name);
+
+    void unannotated(@TemplateArgument("name") final String name);
+  }
+
+  public interface Unloadable {
+    @TranslationKey("hello")
+    void hello(@TemplateArgument("name") final Named name);
+
+    Hazzard<String, String, String, String> hazzard();
+  }
+
+  public static final class Named implements Serializable {
+    @Override
+    public String toString() {
+      return "Alice";
+    }
+  }
+
+  /**
+   * A locator of a single template per key, telling its listeners whenever it is changed.
+   */
+  private static final class ChangingTemplateLocator implements TemplateLocator<String, String>,
+      ITemplateChangeSource<String> {
+    private final List<ITemplateChangeListener<? super String>> listeners = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String templateOf(final String viewer, final String translationKey) {
+      return translationKey + ":%s";
+    }
+
+    @Override
+    public void addListener(final ITemplateChangeListener<? super String> listener) {
+      this.listeners.add(listener);
+    }
+
+    @Override
+    public void removeListener(final ITemplateChangeListener<? super String> listener) {
+      this.listeners.remove(listener);
+    }
+
+    private void change(final String translationKey) {
+      for (final ITemplateChangeListener<? super String> listener : this.listeners) {
+        listener.templateChanged(Locale.ROOT, translationKey, translationKey + ":%s", translationKey + ":%s!");
+      }
+    }
+  }
+
+  /**
+   * A class loader defining its own copies of the given classes, so they can be unloaded along with it.
+   */
+  private static final class UnloadableClassLoader extends ClassLoader {
+    private final List<String> classNames;
+
+    private UnloadableClassLoader(final String... classNames) {
+      super(HazzardRuntimeTest.class.getClassLoader());
+      this.classNames = List.of(classNames);
+    }
+
+    @Override
+    protected Class<?> loadClass(final String name, final boolean resolve) throws ClassNotFoundException {
+      if (!this.classNames.contains(name)) {
+        return super.loadClass(name, resolve);
+      }
+
+      synchronized (this.getClassLoadingLock(name)) {
+        final Class<?> loaded = this.findLoadedClass(name);
+        if (loaded != null) {
+          return loaded;
+        }
+
+        final String resource = name.replace('.', '/') + ".class";
+        try (final InputStream input = Objects.requireNonNull(this.getParent().getResourceAsStream(resource))) {
+          final byte[] bytes = input.readAllBytes();
+          return this.defineClass(name, bytes, 0, bytes.length);
+        } catch (final IOException ex) {
+          throw new ClassNotFoundException(name, ex);
+        }
+      }
+    }
+  }
+}
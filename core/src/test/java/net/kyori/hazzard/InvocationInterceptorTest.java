@@ -0,0 +1,148 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.leangen.geantyref.TypeToken;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import net.kyori.hazzard.annotation.TemplateArgument;
+import net.kyori.hazzard.annotation.TranslationKey;
+import net.kyori.hazzard.exception.MissingTranslationKeyException;
+import net.kyori.hazzard.exception.VariableResolutionException;
+import net.kyori.hazzard.exception.ViewerNotFoundException;
+import net.kyori.hazzard.model.HazzardMethod;
+import net.kyori.hazzard.strategy.StandardTemplateVariableResolution;
+import net.kyori.hazzard.strategy.supertype.StandardSupertypeThenInterfaceSupertypeStrategy;
+import net.kyori.hazzard.util.VariableWrapper;
+import net.kyori.hazzard.variable.ReplacementResult;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.junit.jupiter.api.Test;
+
+/* package-private */ class InvocationInterceptorTest {
+  private final List<String> stages = new ArrayList<>();
+  private final List<String> sent = new ArrayList<>();
+
+  @Test
+  void interceptsEveryStageInOrder() throws Exception {
+    final Messages messages = this.createMessages();
+
+    messages.greeting("en", "Alice");
+
+    assertThat(this.stages).containsExactly(
+        "outer lookup", "inner lookup",
+        "outer locate", "inner locate",
+        "outer resolve", "inner resolve",
+        "outer compose", "inner compose",
+        "outer send", "inner send");
+    assertThat(this.sent).containsExactly("[greeting/en Alice]");
+  }
+
+  @Test
+  void skipsMethodsNotIntercepted() throws Exception {
+    final Messages messages = this.createMessages();
+
+    messages.farewell("en", "Bob");
+
+    assertThat(this.stages).isEmpty();
+    assertThat(this.sent).containsExactly("farewell/en Bob");
+    assertThat(messages.hazzard().pipeline(Messages.class.getMethod("farewell", String.class, String.class))).isNull();
+  }
+
+  private Messages createMessages() throws Exception {
+    return Hazzard.<Messages, String>builder(TypeToken.get(Messages.class))
+        .viewerLookupServiceLocator((method, proxy) -> (method1, proxy1, parameters) -> (String) parameters[0], 1)
+        .templateLocator((viewer, key) -> key + '/' + viewer)
+        .<String, String>composed((viewer, template, replacements, method, owner) ->
+            template + ' ' + replacements.get("name"))
+        .sent((viewer, message) -> this.sent.add(message))
+        .variableResolver(new StandardTemplateVariableResolution<>(
+            new StandardSupertypeThenInterfaceSupertypeStrategy(false)))
+        .weightedVariableResolver(String.class, (name, value, viewer, owner, method, parameters) ->
+            Map.of(name, VariableWrapper.finalResult(ReplacementResult.conclusionValue(value))), 1)
+        .intercepted(new RecordingInterceptor("outer"))
+        .intercepted(new RecordingInterceptor("inner"))
+        .create();
+  }
+
+  interface Messages {
+    @TranslationKey("greeting")
+    void greeting(final String viewer, @TemplateArgument("name") final String name);
+
+    @TranslationKey("farewell")
+    void farewell(final String viewer, @TemplateArgument("name") final String name);
+
+    Hazzard<String, String, String, String> hazzard();
+  }
+
+  private final class RecordingInterceptor implements IInvocationInterceptor<String, String, String, String> {
+    private final String name;
+
+    private RecordingInterceptor(final String name) {
+      this.name = name;
+    }
+
+    @Override
+    public boolean intercepts(final HazzardMethod<? extends String> hazzardMethod) {
+      return hazzardMethod.translationKey().equals("greeting");
+    }
+
+    @Override
+    public String lookup(final Object proxy, final HazzardMethod<? extends String> hazzardMethod,
+                         final @Nullable Object[] arguments, final LookupStage<String> next)
+        throws ViewerNotFoundException {
+      InvocationInterceptorTest.this.stages.add(this.name + " lookup");
+      return next.lookup(proxy, hazzardMethod, arguments);
+    }
+
+    @Override
+    public String locate(final String viewer, final HazzardMethod<? extends String> hazzardMethod,
+                         final LocateStage<String, String> next) throws MissingTranslationKeyException {
+      InvocationInterceptorTest.this.stages.add(this.name + " locate");
+      return next.locate(viewer, hazzardMethod);
+    }
+
+    @Override
+    public Map<String, ? extends String> resolve(final String viewer, final String template,
+                                                 final HazzardMethod<? extends String> hazzardMethod,
+                                                 final @Nullable Object[] arguments,
+                                                 final @Nullable PreparedMessage<String, String, String, String> prepared,
+                                                 final ResolveStage<String, String, String, String> next)
+        throws VariableResolutionException {
+      InvocationInterceptorTest.this.stages.add(this.name + " resolve");
+      return next.resolve(viewer, template, hazzardMethod, arguments, prepared);
+    }
+
+    @Override
+    public String compose(final String viewer, final String template, final Map<String, ? extends String> variables,
+                          final HazzardMethod<? extends String> hazzardMethod,
+                          final ComposeStage<String, String, String, String> next) {
+      InvocationInterceptorTest.this.stages.add(this.name + " compose");
+      return next.compose(viewer, template, variables, hazzardMethod);
+    }
+
+    @Override
+    public void send(final String viewer, final String message, final HazzardMethod<? extends String> hazzardMethod,
+                     final SendStage<String, String> next) {
+      InvocationInterceptorTest.this.stages.add(this.name + " send");
+      next.send(viewer, this.name.equals("outer") ? '[' + message + ']' : message, hazzardMethod);
+    }
+  }
+}
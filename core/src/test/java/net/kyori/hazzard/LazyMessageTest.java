@@ -0,0 +1,87 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.leangen.geantyref.TypeToken;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import net.kyori.hazzard.annotation.TemplateArgument;
+import net.kyori.hazzard.annotation.TranslationKey;
+import net.kyori.hazzard.strategy.StandardTemplateVariableResolution;
+import net.kyori.hazzard.strategy.supertype.StandardSupertypeThenInterfaceSupertypeStrategy;
+import net.kyori.hazzard.util.VariableWrapper;
+import net.kyori.hazzard.variable.ReplacementResult;
+import org.junit.jupiter.api.Test;
+
+/* package-private */ class LazyMessageTest {
+  private final AtomicInteger resolutions = new AtomicInteger();
+  private final AtomicInteger compositions = new AtomicInteger();
+
+  @Test
+  void rendersOnlyOnceRequested() throws Exception {
+    final Supplier<String> tooltip = this.createMessages().tooltip("en", "Alice");
+
+    assertThat(this.resolutions.get()).isEqualTo(0);
+    assertThat(this.compositions.get()).isEqualTo(0);
+
+    assertThat(tooltip.get()).isEqualTo("tooltip/en Alice");
+    assertThat(tooltip.get()).isEqualTo("tooltip/en Alice");
+    assertThat(this.resolutions.get()).isEqualTo(1);
+    assertThat(this.compositions.get()).isEqualTo(1);
+  }
+
+  @Test
+  void failsOnceClosedBeforeRendering() throws Exception {
+    final Messages messages = this.createMessages();
+    final Supplier<String> tooltip = messages.tooltip("en", "Alice");
+
+    messages.hazzard().close();
+
+    assertThatThrownBy(tooltip::get).isInstanceOf(IllegalStateException.class);
+    assertThat(this.resolutions.get()).isEqualTo(0);
+  }
+
+  private Messages createMessages() throws Exception {
+    return Hazzard.<Messages, String>builder(TypeToken.get(Messages.class))
+        .viewerLookupServiceLocator((method, proxy) -> (method1, proxy1, parameters) -> (String) parameters[0], 1)
+        .templateLocator((viewer, key) -> key + '/' + viewer)
+        .<String, String>composed((viewer, template, replacements, method, owner) -> {
+          this.compositions.incrementAndGet();
+          return template + ' ' + replacements.get("player");
+        })
+        .sent((viewer, message) -> { })
+        .variableResolver(new StandardTemplateVariableResolution<>(
+            new StandardSupertypeThenInterfaceSupertypeStrategy(false)))
+        .weightedVariableResolver(String.class, (name, value, viewer, owner, method, parameters) -> {
+          this.resolutions.incrementAndGet();
+          return Map.of(name, VariableWrapper.finalResult(ReplacementResult.conclusionValue(value)));
+        }, 1)
+        .create();
+  }
+
+  interface Messages {
+    @TranslationKey("tooltip")
+    Supplier<String> tooltip(final String viewer, @TemplateArgument("player") final String player);
+
+    Hazzard<String, String, String, String> hazzard();
+  }
+}
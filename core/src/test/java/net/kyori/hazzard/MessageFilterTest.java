@@ -0,0 +1,79 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.leangen.geantyref.TypeToken;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import net.kyori.hazzard.annotation.TranslationKey;
+import net.kyori.hazzard.strategy.StandardTemplateVariableResolution;
+import net.kyori.hazzard.strategy.supertype.StandardSupertypeThenInterfaceSupertypeStrategy;
+import org.junit.jupiter.api.Test;
+
+/* package-private */ class MessageFilterTest {
+  private final List<String> located = new ArrayList<>();
+  private final List<String> sent = new ArrayList<>();
+
+  @Test
+  void dropsFilteredMessagesBeforeLocatingTemplates() throws Exception {
+    final Messages messages = this.createMessages(Set.of("muted"), Set.of("offline"));
+
+    messages.broadcast("online");
+    messages.broadcast("muted");
+    messages.broadcast("offline");
+
+    assertThat(this.located).containsExactly("broadcast/online");
+    assertThat(this.sent).containsExactly("broadcast/online");
+  }
+
+  @Test
+  void rendersFilteredMessagesWhenReturned() throws Exception {
+    final Messages messages = this.createMessages(Set.of("muted"), Set.of());
+
+    assertThat(messages.render("muted")).isEqualTo("broadcast/muted");
+    assertThat(this.sent).isEmpty();
+  }
+
+  private Messages createMessages(final Set<String> muted, final Set<String> offline) throws Exception {
+    return Hazzard.<Messages, String>builder(TypeToken.get(Messages.class))
+        .viewerLookupServiceLocator((method, proxy) -> (method1, proxy1, parameters) -> (String) parameters[0], 1)
+        .templateLocator((viewer, key) -> {
+          final String template = key + '/' + viewer;
+          this.located.add(template);
+          return template;
+        })
+        .<String, String>composed((viewer, template, replacements, method, owner) -> template)
+        .sent((viewer, message) -> this.sent.add(message))
+        .variableResolver(new StandardTemplateVariableResolution<>(
+            new StandardSupertypeThenInterfaceSupertypeStrategy(false)))
+        .filteredBy((viewer, hazzardMethod, arguments) -> !muted.contains(viewer))
+        .filteredBy((viewer, hazzardMethod, arguments) -> !offline.contains(viewer))
+        .create();
+  }
+
+  interface Messages {
+    @TranslationKey("broadcast")
+    void broadcast(final String viewer);
+
+    @TranslationKey("broadcast")
+    String render(final String viewer);
+  }
+}
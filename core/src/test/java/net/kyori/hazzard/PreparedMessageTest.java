@@ -0,0 +1,111 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.leangen.geantyref.TypeToken;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.kyori.hazzard.annotation.TemplateArgument;
+import net.kyori.hazzard.annotation.TranslationKey;
+import net.kyori.hazzard.strategy.StandardTemplateVariableResolution;
+import net.kyori.hazzard.strategy.supertype.StandardSupertypeThenInterfaceSupertypeStrategy;
+import net.kyori.hazzard.util.VariableWrapper;
+import net.kyori.hazzard.variable.ReplacementResult;
+import org.junit.jupiter.api.Test;
+
+/* package-private */ class PreparedMessageTest {
+  private final List<String> sent = new ArrayList<>();
+  private final AtomicInteger arenaResolutions = new AtomicInteger();
+
+  @Test
+  void resolvesBoundArgumentsOncePerTemplate() throws Exception {
+    final var prepared = this.createMessages().hazzard().prepare("won", String.class, Arena.class, String.class)
+        .bind(1, new Arena("Skyfall"));
+
+    prepared.send("en", "Alice");
+    prepared.send("en", "Bob");
+    prepared.send("sv", "Carol");
+
+    assertThat(this.sent).containsExactly("won/en Alice Skyfall", "won/en Bob Skyfall", "won/sv Carol Skyfall");
+    assertThat(this.arenaResolutions.get()).isEqualTo(2);
+  }
+
+  @Test
+  void rendersWithoutSending() throws Exception {
+    final var prepared = this.createMessages().hazzard().prepare("won", String.class, Arena.class, String.class)
+        .bind(0, "en")
+        .bind(2, "Alice");
+
+    assertThat(prepared.unboundCount()).isEqualTo(1);
+    assertThat(prepared.render(new Arena("Skyfall"))).isEqualTo("won/en Alice Skyfall");
+    assertThat(this.sent).isEmpty();
+  }
+
+  @Test
+  void boundsTemplatesOfBoundArguments() throws Exception {
+    final var prepared = this.createMessages().hazzard().prepare("won", String.class, Arena.class, String.class)
+        .bind(1, new Arena("Skyfall"));
+
+    for (int viewer = 0; viewer < ConstantMessages.MAX_TEMPLATES * 3; ++viewer) {
+      prepared.send("viewer" + viewer, "Alice");
+    }
+
+    assertThat(prepared.boundTemplateCount()).isLessThanOrEqualTo(ConstantMessages.MAX_TEMPLATES);
+  }
+
+  @Test
+  void rejectsWrongArgumentCount() throws Exception {
+    final var prepared = this.createMessages().hazzard().prepare("won", String.class, Arena.class, String.class);
+
+    assertThatThrownBy(() -> prepared.send("en")).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private Messages createMessages() throws Exception {
+    return Hazzard.<Messages, String>builder(TypeToken.get(Messages.class))
+        .viewerLookupServiceLocator((method, proxy) -> (method1, proxy1, parameters) -> (String) parameters[0], 1)
+        .templateLocator((viewer, key) -> key + '/' + viewer)
+        .<String, String>composed((viewer, template, replacements, method, owner) ->
+            template + ' ' + replacements.get("player") + ' ' + replacements.get("arena"))
+        .sent((viewer, message) -> this.sent.add(message))
+        .variableResolver(new StandardTemplateVariableResolution<>(
+            new StandardSupertypeThenInterfaceSupertypeStrategy(false)))
+        .weightedVariableResolver(String.class, (name, value, viewer, owner, method, parameters) ->
+            Map.of(name, VariableWrapper.finalResult(ReplacementResult.conclusionValue(value))), 1)
+        .weightedVariableResolver(Arena.class, (name, value, viewer, owner, method, parameters) -> {
+          this.arenaResolutions.incrementAndGet();
+          return Map.of(name, VariableWrapper.finalResult(ReplacementResult.conclusionValue(value.name())));
+        }, 1)
+        .create();
+  }
+
+  interface Messages {
+    @TranslationKey("won")
+    void won(final String viewer, @TemplateArgument("arena") final Arena arena,
+             @TemplateArgument("player") final String player);
+
+    Hazzard<String, String, String, String> hazzard();
+  }
+
+  record Arena(String name) {
+  }
+}
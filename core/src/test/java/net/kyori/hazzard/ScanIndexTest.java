@@ -0,0 +1,151 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.leangen.geantyref.TypeToken;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import net.kyori.hazzard.annotation.TemplateArgument;
+import net.kyori.hazzard.annotation.TranslationKey;
+import net.kyori.hazzard.model.ScanIndex;
+import net.kyori.hazzard.model.ScannedPlaceholder;
+import net.kyori.hazzard.strategy.StandardTemplateVariableResolution;
+import net.kyori.hazzard.strategy.supertype.StandardSupertypeThenInterfaceSupertypeStrategy;
+import net.kyori.hazzard.util.VariableWrapper;
+import net.kyori.hazzard.variable.ReplacementResult;
+import org.junit.jupiter.api.Test;
+
+/* package-private */ class ScanIndexTest {
+  private final AtomicInteger skippedLocatorCalls = new AtomicInteger();
+  private final List<String> sent = new ArrayList<>();
+
+  @Test
+  void loadsPersistedScanResults() throws Exception {
+    final Path directory = Files.createTempDirectory("hazzard-scan-index");
+    try {
+      this.builder(directory).create().hello("en", "Alice");
+      assertThat(this.skippedLocatorCalls.get()).isEqualTo(2);
+      assertThat(this.readIndex(directory).entry(Messages.class.getMethod("hello", String.class, String.class)))
+          .isEqualTo(new ScanIndex.Entry("hello", 1, List.of(new ScannedPlaceholder("name", 1, true))));
+
+      final Messages messages = this.builder(directory).create();
+      assertThat(this.skippedLocatorCalls.get()).isEqualTo(2);
+
+      messages.goodbye("sv");
+      messages.hello("sv", "Bob");
+      assertThat(this.sent).containsExactly("hello/en{name=Alice}", "goodbye/sv{}", "hello/sv{name=Bob}");
+    } finally {
+      delete(directory);
+    }
+  }
+
+  @Test
+  void resolvesPlaceholdersOfPersistedPlan() throws Exception {
+    final Path directory = Files.createTempDirectory("hazzard-scan-index");
+    try {
+      this.builder(directory).create();
+      final ScanIndex index = this.readIndex(directory);
+      final String hello = ScanIndex.descriptor(Messages.class.getMethod("hello", String.class, String.class));
+      final Map<String, ScanIndex.Entry> entries = new HashMap<>(index.entries());
+      entries.put(hello, new ScanIndex.Entry("hello", 1, List.of(new ScannedPlaceholder("persisted", 1, true))));
+      try (final OutputStream output = Files.newOutputStream(directory.resolve(Messages.class.getName() + ".hzi"))) {
+        new ScanIndex(this.classHash(directory), entries).write(new DataOutputStream(output));
+      }
+
+      this.builder(directory).create().hello("en", "Alice");
+      assertThat(this.sent).containsExactly("hello/en{persisted=Alice}");
+    } finally {
+      delete(directory);
+    }
+  }
+
+  @Test
+  void ignoresIndexOfOtherClassHash() throws Exception {
+    final ScanIndex.Entry entry = new ScanIndex.Entry("key", 0, List.of(new ScannedPlaceholder("name", 2, false)));
+    final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    new ScanIndex(new byte[]{1, 2, 3}, Map.of("a#b()V", entry)).write(new DataOutputStream(bytes));
+
+    assertThat(ScanIndex.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), new byte[]{1, 2, 3})
+        .entries()).containsEntry("a#b()V", entry);
+    assertThat(ScanIndex.read(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())), new byte[]{3, 2, 1}))
+        .isNull();
+  }
+
+  private HazzardBuilder.Resolved<Messages, String, String, String, String> builder(final Path directory) {
+    return Hazzard.<Messages, String>builder(TypeToken.get(Messages.class))
+        .viewerLookupServiceLocator((method, proxy) -> (method1, proxy1, parameters) -> (String) parameters[0], 1)
+        .viewerLookupServiceLocator((method, proxy) -> {
+          this.skippedLocatorCalls.incrementAndGet();
+          return null;
+        }, 2)
+        .templateLocator((viewer, key) -> key + '/' + viewer)
+        .<String, String>composed((viewer, template, replacements, method, owner) -> template + replacements)
+        .sent((viewer, message) -> this.sent.add(message))
+        .variableResolver(new StandardTemplateVariableResolution<>(
+            new StandardSupertypeThenInterfaceSupertypeStrategy(false)))
+        .weightedVariableResolver(String.class, (name, value, viewer, owner, method, parameters) ->
+            Map.of(name, VariableWrapper.finalResult(ReplacementResult.conclusionValue(value))), 1)
+        .scanIndexDirectory(directory);
+  }
+
+  private byte[] classHash(final Path directory) {
+    final HazzardRuntime<String, String, String, String> runtime = this.builder(directory).runtime();
+    return ScanIndexStore.classHash(Messages.class, runtime.viewerLookupServiceLocators(),
+        runtime.templateVariableResolver());
+  }
+
+  private ScanIndex readIndex(final Path directory) throws IOException {
+    try (final InputStream input = Files.newInputStream(directory.resolve(Messages.class.getName() + ".hzi"))) {
+      final ScanIndex index = ScanIndex.read(new DataInputStream(input), this.classHash(directory));
+      assertThat(index).isNotNull();
+      return index;
+    }
+  }
+
+  private static void delete(final Path directory) throws IOException {
+    try (final Stream<Path> files = Files.list(directory)) {
+      for (final Path file : (Iterable<Path>) files::iterator) {
+        Files.delete(file);
+      }
+    }
+    Files.delete(directory);
+  }
+
+  interface Messages {
+    @TranslationKey("hello")
+    void hello(final String viewer, @TemplateArgument final String name);
+
+    @TranslationKey("goodbye")
+    void goodbye(final String viewer);
+  }
+}
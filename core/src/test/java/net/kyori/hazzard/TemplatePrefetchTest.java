@@ -0,0 +1,115 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.leangen.geantyref.TypeToken;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import net.kyori.hazzard.annotation.TemplateArgument;
+import net.kyori.hazzard.annotation.TranslationKey;
+import net.kyori.hazzard.exception.MissingTranslationKeyException;
+import net.kyori.hazzard.exception.scan.InvalidTemplateException;
+import net.kyori.hazzard.message.StringTemplateValidator;
+import net.kyori.hazzard.strategy.StandardTemplateVariableResolution;
+import net.kyori.hazzard.strategy.supertype.StandardSupertypeThenInterfaceSupertypeStrategy;
+import org.junit.jupiter.api.Test;
+
+/* package-private */ class TemplatePrefetchTest {
+  private static final Map<String, Map<String, String>> TEMPLATES = Map.of(
+      "en", Map.of("greeting", "Hello, {name}!", "farewell", "Bye!"),
+      "sv", Map.of("greeting", "Hej!")
+  );
+
+  private final List<String> located = new ArrayList<>();
+
+  @Test
+  void locatesTemplatesOnCreation() throws Exception {
+    this.builder().prefetchTemplates(List.of("en")).create();
+
+    assertThat(this.located).containsExactlyInAnyOrder("en/greeting", "en/farewell");
+  }
+
+  @Test
+  void failsOnMissingTemplate() {
+    assertThatThrownBy(() -> this.builder().prefetchTemplates(List.of("en", "sv")).create())
+        .isInstanceOf(InvalidTemplateException.class);
+  }
+
+  @Test
+  void reportsInvalidTemplates() throws Exception {
+    final List<InvalidTemplateException> invalid = new ArrayList<>();
+    this.builder()
+        .prefetchTemplates(List.of("en", "sv"))
+        .validateTemplates(new StringTemplateValidator<>("{", "}", Function.identity()))
+        .reportInvalidTemplates(invalid::add)
+        .create();
+
+    // sv lacks the farewell, and its greeting does not use the name.
+    assertThat(invalid).hasSize(2);
+  }
+
+  @Test
+  void skipsArgumentsExemptFromValidation() throws Exception {
+    Hazzard.<ExpandedMessages, String>builder(TypeToken.get(ExpandedMessages.class))
+        .viewerLookupServiceLocator((method, proxy) -> (method1, proxy1, parameters) -> (String) parameters[0], 1)
+        .templateLocator((viewer, key) -> "Welcome, {player_name} from {server}!")
+        .<String, String>composed((viewer, template, replacements, method, owner) -> template)
+        .sent((viewer, message) -> { })
+        .variableResolver(new StandardTemplateVariableResolution<>(
+            new StandardSupertypeThenInterfaceSupertypeStrategy(false)))
+        .prefetchTemplates(List.of("en"))
+        .validateTemplates(new StringTemplateValidator<>("{", "}", Function.identity()))
+        .create();
+  }
+
+  private HazzardBuilder.Resolved<Messages, String, String, String, String> builder() {
+    return Hazzard.<Messages, String>builder(TypeToken.get(Messages.class))
+        .viewerLookupServiceLocator((method, proxy) -> (method1, proxy1, parameters) -> (String) parameters[0], 1)
+        .templateLocator((viewer, key) -> {
+          this.located.add(viewer + '/' + key);
+          final String template = TEMPLATES.get(viewer).get(key);
+          if (template == null) {
+            throw new MissingTranslationKeyException(key);
+          }
+          return template;
+        })
+        .<String, String>composed((viewer, template, replacements, method, owner) -> template)
+        .sent((viewer, message) -> { })
+        .variableResolver(new StandardTemplateVariableResolution<>(
+            new StandardSupertypeThenInterfaceSupertypeStrategy(false)));
+  }
+
+  interface Messages {
+    @TranslationKey("greeting")
+    void greeting(final String viewer, @TemplateArgument("name") final String name);
+
+    @TranslationKey("farewell")
+    void farewell(final String viewer);
+  }
+
+  interface ExpandedMessages {
+    @TranslationKey("welcome")
+    void welcome(final String viewer, @TemplateArgument(value = "player", validated = false) final String player,
+                 @TemplateArgument("server") final String server);
+  }
+}
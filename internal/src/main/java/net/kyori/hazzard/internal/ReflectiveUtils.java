@@ -25,46 +25,38 @@ import java.lang.reflect.Method;
 import java.lang.reflect.Type;
 import java.lang.reflect.TypeVariable;
 import java.util.Arrays;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
 import java.util.stream.Collectors;
 
 /**
  * Utilities for handling reflective operations.
  */
 public final class ReflectiveUtils {
-  private static final ConcurrentMap<Method, MethodHandle> METHOD_CACHE = new ConcurrentHashMap<>();
-
   private ReflectiveUtils() {
   }
 
   /**
-   * Find a single {@code default} method for the given interfaces of a {@link java.lang.reflect.Proxy proxy}.
+   * Find a single {@code default} method of an interface of a {@link java.lang.reflect.Proxy proxy}, unbound from any
+   * proxy instance.
+   * <p>
+   * The handle is of the type {@code (Object, Object[])Object}, taking the proxy and the spread arguments, and may thus
+   * be invoked exactly without boxing the arguments once more. The result of a {@code void} method is {@code null}.
+   * </p>
    *
    * @param method the method to find
-   * @param proxy  the proxy to find the method within
    * @return the found method
+   * @throws NoSuchMethodException if the method does not exist
    * @throws IllegalAccessException if the method is inaccessible
    */
-  @SuppressWarnings({"RedundantThrows", "java:S1130"}) // This is sneakily thrown.
-  public static MethodHandle findMethod(final Method method, final Object proxy)
-      throws IllegalAccessException {
+  public static MethodHandle findDefaultMethod(final Method method)
+      throws NoSuchMethodException, IllegalAccessException {
     final Class<?> type = method.getDeclaringClass();
-
-    return METHOD_CACHE.computeIfAbsent(method,
-        methodParam -> {
-          try {
-            return MethodHandles.privateLookupIn(method.getDeclaringClass(), MethodHandles.lookup())
-                .findSpecial(type,
-                    method.getName(),
-                    MethodType.methodType(method.getReturnType(), method.getParameterTypes()),
-                    type)
-                .bindTo(proxy);
-          } catch (final NoSuchMethodException | IllegalAccessException ex) {
-            ThrowableUtils.sneakyThrow(ex);
-            throw new RuntimeException(ex);
-          }
-        });
+    return MethodHandles.privateLookupIn(type, MethodHandles.lookup())
+        .findSpecial(type,
+            method.getName(),
+            MethodType.methodType(method.getReturnType(), method.getParameterTypes()),
+            type)
+        .asType(MethodType.genericMethodType(method.getParameterCount() + 1))
+        .asSpreader(Object[].class, method.getParameterCount());
   }
 
   /**
@@ -9,6 +9,7 @@ rootProject.name = "hazzard"
 hazzardProject("core")
 hazzardProject("standard")
 hazzardProject("internal")
+hazzardProject("simulation")
 hazzardProject("bom")
 
 fun hazzardProject(path: String, name: String = "hazzard-$path"): ProjectDescriptor {
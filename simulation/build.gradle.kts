@@ -0,0 +1,26 @@
+plugins {
+    id("hazzard.api")
+    application
+}
+
+description = "Load simulation harness for hazzard"
+
+dependencies {
+    implementation(project(":hazzard-standard"))
+}
+
+application {
+    mainClass.set("net.kyori.hazzard.simulation.TickSimulation")
+}
+
+// The harness is a development tool and is never published.
+tasks.withType<AbstractPublishToMaven>().configureEach {
+    enabled = false
+}
+
+tasks.register<JavaExec>("replay") {
+    description = "Replays an invocation journal, e.g. ./gradlew :hazzard-simulation:replay --args=--journal=path"
+    group = "application"
+    classpath = sourceSets.main.get().runtimeClasspath
+    mainClass.set("net.kyori.hazzard.simulation.JournalReplay")
+}
@@ -0,0 +1,314 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard.simulation;
+
+import static net.kyori.hazzard.util.VariableWrapper.finalResult;
+import static net.kyori.hazzard.variable.ReplacementResult.conclusionValue;
+
+import io.leangen.geantyref.TypeToken;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import net.kyori.hazzard.Hazzard;
+import net.kyori.hazzard.HazzardRuntime;
+import net.kyori.hazzard.annotation.TranslationKey;
+import net.kyori.hazzard.annotation.meta.NotThreadSafe;
+import net.kyori.hazzard.exception.scan.UnscannableMethodException;
+import net.kyori.hazzard.journal.JournalEntry;
+import net.kyori.hazzard.journal.JournalReader;
+import net.kyori.hazzard.strategy.StandardTemplateVariableResolution;
+import net.kyori.hazzard.strategy.supertype.StandardSupertypeThenInterfaceSupertypeStrategy;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A replay of an invocation journal recorded in production, reporting the throughput and latency of Hazzard on the
+ * real mix of messages.
+ * <p>
+ * The recorded proxied types must be on the class path. Everything around them is replaced by stand-ins: viewers by
+ * one {@link ReplayViewer} per recorded classification, templates by their translation keys, and arguments by values
+ * of the recorded shapes, all resolved to their string forms. Arguments of types without a stand-in are replayed as
+ * {@code null}, so their resolution is not measured; the report says how many there were.
+ * </p>
+ */
+@NotThreadSafe
+public final class JournalReplay {
+  private final ReplaySettings settings;
+  private final HazzardRuntime<ReplayViewer, String, String, String> runtime;
+  private final Map<String, ReplayViewer> viewers = new HashMap<>();
+  private final List<Invocation> invocations = new ArrayList<>();
+
+  /**
+   * The recorded latencies of all replayed invocations.
+   */
+  private final TickStatistics recorded;
+  private int skippedInvocations;
+  private int missingStandIns;
+
+  /**
+   * The viewer of the invocation being replayed, as looked up by every method.
+   */
+  private @Nullable ReplayViewer viewer;
+
+  public JournalReplay(final ReplaySettings settings, final List<JournalEntry> entries, final ClassLoader classLoader)
+      throws UnscannableMethodException {
+    this.settings = settings;
+    this.runtime = this.runtime();
+    this.recorded = new TickStatistics(entries.size());
+
+    final Map<String, @Nullable Object> proxies = new HashMap<>();
+    final Map<String, Map<String, Method>> methods = new HashMap<>();
+    final long firstOffset = entries.stream().mapToLong(JournalEntry::offsetNanos).min().orElse(0);
+    for (final JournalEntry entry : entries) {
+      if (!proxies.containsKey(entry.proxiedType())) {
+        final @Nullable Class<?> proxiedType = loadProxiedType(entry.proxiedType(), classLoader);
+        proxies.put(entry.proxiedType(), proxiedType == null
+            ? null
+            : this.runtime.create(TypeToken.get(proxiedType), classLoader));
+        methods.put(entry.proxiedType(), proxiedType == null ? Map.of() : methodsByTranslationKey(proxiedType));
+      }
+
+      final @Nullable Object proxy = proxies.get(entry.proxiedType());
+      final @Nullable Method method = methods.get(entry.proxiedType()).get(entry.translationKey());
+      if (proxy == null || method == null || method.getParameterCount() != entry.arguments().size()) {
+        ++this.skippedInvocations;
+        continue;
+      }
+
+      final Invocation invocation = new Invocation(proxy, method,
+          this.viewers.computeIfAbsent(entry.viewerClass(), ReplayViewer::new), entry.arguments(),
+          entry.offsetNanos() - firstOffset);
+      final @Nullable Object[] arguments = invocation.arguments();
+      for (int idx = 0; idx < arguments.length; ++idx) {
+        if (arguments[idx] == null && entry.arguments().get(idx).type() != null) {
+          ++this.missingStandIns;
+        }
+      }
+      this.invocations.add(invocation);
+      this.recorded.record(entry.durationNanos(), 1);
+    }
+  }
+
+  public static void main(final String[] args) throws Exception {
+    final ReplaySettings settings;
+    try {
+      settings = ReplaySettings.parse(args);
+    } catch (final IllegalArgumentException ex) {
+      System.err.println(ex.getMessage());
+      System.err.println(ReplaySettings.USAGE);
+      System.exit(1);
+      return;
+    }
+
+    final List<JournalEntry> entries;
+    try (final JournalReader reader = JournalReader.open(settings.journal())) {
+      entries = reader.readAll();
+    }
+    final JournalReplay replay = new JournalReplay(settings, entries, JournalReplay.class.getClassLoader());
+    replay.run();
+  }
+
+  /**
+   * Runs the warmup and measured passes over the journal, then prints a report.
+   *
+   * @throws ReflectiveOperationException if invoking a method failed
+   */
+  public void run() throws ReflectiveOperationException {
+    System.out.printf("Replaying %d invocations to %d viewer classes, %d+%d passes%s%n",
+        this.invocations.size(), this.viewers.size(), this.settings.warmupPasses(), this.settings.passes(),
+        this.settings.paced() ? ", paced" : "");
+    if (this.skippedInvocations > 0 || this.missingStandIns > 0) {
+      System.out.printf("Skipped %d invocations of unknown methods; %d arguments have no stand-in%n",
+          this.skippedInvocations, this.missingStandIns);
+    }
+
+    for (int pass = 0; pass < this.settings.warmupPasses(); ++pass) {
+      this.replay(null);
+    }
+
+    final TickStatistics replayed = new TickStatistics(this.invocations.size() * this.settings.passes());
+    long busyNanos = 0;
+    for (int pass = 0; pass < this.settings.passes(); ++pass) {
+      busyNanos += this.replay(replayed);
+    }
+
+    System.out.printf("%10s %12s %12s %10s %10s %10s %10s%n",
+        "", "invocations", "msgs/s", "p50 us", "p99 us", "p999 us", "max us");
+    this.report("recorded", this.recorded, Double.NaN);
+    this.report("replayed", replayed, replayed.messages() * 1_000_000_000.0 / Math.max(1, busyNanos));
+  }
+
+  /**
+   * Replays every invocation once.
+   *
+   * @param latencies the statistics to record the latency of every invocation into, every invocation counting as a
+   *     tick, or {@code null} to not record them
+   * @return the time spent within the invoked methods
+   * @throws ReflectiveOperationException if invoking a method failed
+   */
+  private long replay(final @Nullable TickStatistics latencies) throws ReflectiveOperationException {
+    final long start = System.nanoTime();
+    long busyNanos = 0;
+    for (final Invocation invocation : this.invocations) {
+      if (this.settings.paced()) {
+        LockSupport.parkNanos(start + invocation.offsetNanos() - System.nanoTime());
+      }
+
+      final @Nullable Object[] arguments = invocation.arguments();
+      this.viewer = invocation.viewer();
+      final long invocationStart = System.nanoTime();
+      invocation.method().invoke(invocation.proxy(), arguments);
+      final long elapsed = System.nanoTime() - invocationStart;
+
+      busyNanos += elapsed;
+      if (latencies != null) {
+        latencies.record(elapsed, 1);
+      }
+    }
+    return busyNanos;
+  }
+
+  private void report(final String name, final TickStatistics statistics, final double throughput) {
+    final double micros = 1_000.0;
+    System.out.printf("%10s %12d %12s %10.2f %10.2f %10.2f %10.2f%n",
+        name,
+        statistics.recorded(),
+        Double.isNaN(throughput) ? "-" : String.format("%.0f", throughput),
+        statistics.percentile(0.50) / micros,
+        statistics.percentile(0.99) / micros,
+        statistics.percentile(0.999) / micros,
+        statistics.max() / micros);
+  }
+
+  private HazzardRuntime<ReplayViewer, String, String, String> runtime() {
+    return Hazzard.<Object, ReplayViewer>builder(TypeToken.get(Object.class))
+        .viewerLookupServiceLocator((method, proxy) -> (calledMethod, calledProxy, parameters) -> this.viewer, 0)
+        .templateLocator((viewer, translationKey) -> translationKey)
+        .<String, String>composed((viewer, template, replacements, method, owner) -> {
+          final StringBuilder message = new StringBuilder(template);
+          replacements.forEach((name, replacement) -> message.append(' ').append(name).append('=').append(replacement));
+          return message.toString();
+        })
+        .sent(ReplayViewer::receive)
+        .variableResolver(new StandardTemplateVariableResolution<>(
+            new StandardSupertypeThenInterfaceSupertypeStrategy(true)))
+        .weightedVariableResolver(Object.class, (name, value, viewer, owner, method, parameters) ->
+            Map.of(name, finalResult(conclusionValue(String.valueOf(value)))), 0)
+        .runtime();
+  }
+
+  private static @Nullable Class<?> loadProxiedType(final String name, final ClassLoader classLoader) {
+    try {
+      return Class.forName(name, false, classLoader);
+    } catch (final ClassNotFoundException ex) {
+      return null;
+    }
+  }
+
+  private static Map<String, Method> methodsByTranslationKey(final Class<?> proxiedType) {
+    final Map<String, Method> methods = new HashMap<>();
+    for (final Method method : proxiedType.getMethods()) {
+      final @Nullable TranslationKey translationKey = method.getAnnotation(TranslationKey.class);
+      if (translationKey != null && !method.isDefault()) {
+        // Proxied types need not be public.
+        method.trySetAccessible();
+        methods.put(translationKey.value(), method);
+      }
+    }
+    return methods;
+  }
+
+  /**
+   * Create a stand-in for a recorded argument.
+   *
+   * @param parameterType the type of the parameter the argument is passed as
+   * @param argument the shape of the recorded argument
+   * @return the stand-in, or {@code null} if the argument was {@code null} or there is no stand-in for its type
+   */
+  private static @Nullable Object standIn(final Class<?> parameterType, final JournalEntry.Argument argument) {
+    final Class<?> primitiveType = MethodType.methodType(parameterType).unwrap().returnType();
+    if (parameterType.isPrimitive() || (argument.type() != null && primitiveType.isPrimitive())) {
+      return Array.get(Array.newInstance(primitiveType, 1), 0);
+    }
+    if (argument.type() == null) {
+      return null;
+    }
+
+    if (parameterType.isAssignableFrom(String.class)) {
+      return "x".repeat(argument.size());
+    }
+    if (parameterType.isArray()) {
+      return Array.newInstance(parameterType.getComponentType(), argument.size());
+    }
+    if (parameterType.isAssignableFrom(ArrayList.class)) {
+      return new ArrayList<>(elements(argument.size()));
+    }
+    if (parameterType.isAssignableFrom(HashSet.class)) {
+      return new HashSet<>(elements(argument.size()));
+    }
+    if (parameterType.isAssignableFrom(HashMap.class)) {
+      final Map<String, String> map = new HashMap<>();
+      elements(argument.size()).forEach(element -> map.put(element, element));
+      return map;
+    }
+    if (parameterType == Stream.class) {
+      return elements(argument.size()).stream();
+    }
+    if (parameterType.isEnum() && parameterType.getEnumConstants().length > 0) {
+      return parameterType.getEnumConstants()[0];
+    }
+    return null;
+  }
+
+  private static List<String> elements(final int size) {
+    return IntStream.range(0, size).mapToObj(idx -> "x" + idx).toList();
+  }
+
+  /**
+   * A recorded invocation, ready to be replayed.
+   *
+   * @param proxy the proxy to invoke the method on
+   * @param method the invoked method
+   * @param viewer the stand-in of the recorded viewer
+   * @param shapes the shapes of the recorded arguments
+   * @param offsetNanos the time the invocation started at, relative to the first recorded invocation
+   */
+  private record Invocation(Object proxy, Method method, ReplayViewer viewer, List<JournalEntry.Argument> shapes,
+                            long offsetNanos) {
+    /**
+     * Create the stand-in arguments of this invocation, anew for every invocation as some are consumed by it.
+     *
+     * @return the stand-in arguments
+     */
+    @Nullable Object[] arguments() {
+      final Class<?>[] parameterTypes = this.method.getParameterTypes();
+      final @Nullable Object[] arguments = new Object[parameterTypes.length];
+      for (int idx = 0; idx < parameterTypes.length; ++idx) {
+        arguments[idx] = standIn(parameterTypes[idx], this.shapes.get(idx));
+      }
+      return arguments;
+    }
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard.simulation;
+
+import java.util.Locale;
+import java.util.SplittableRandom;
+
+/**
+ * The kinds of messages the simulation can draw from when filling a tick.
+ */
+public enum MessageKind {
+  CHAT {
+    @Override
+    void send(final SimulationProxies proxies, final SimulatedViewer viewer, final SimulatedViewer other,
+              final SplittableRandom random) {
+      proxies.chat().message(viewer, other, CHAT_LINES[random.nextInt(CHAT_LINES.length)]);
+    }
+  },
+  JOIN {
+    @Override
+    void send(final SimulationProxies proxies, final SimulatedViewer viewer, final SimulatedViewer other,
+              final SplittableRandom random) {
+      proxies.chat().join(viewer, other);
+    }
+  },
+  ACTION_BAR {
+    @Override
+    void send(final SimulationProxies proxies, final SimulatedViewer viewer, final SimulatedViewer other,
+              final SplittableRandom random) {
+      proxies.game().actionBar(viewer, random.nextInt(21), random.nextInt(101));
+    }
+  },
+  DENIED {
+    @Override
+    void send(final SimulationProxies proxies, final SimulatedViewer viewer, final SimulatedViewer other,
+              final SplittableRandom random) {
+      proxies.game().denied(viewer);
+    }
+  },
+  SCORE {
+    @Override
+    void send(final SimulationProxies proxies, final SimulatedViewer viewer, final SimulatedViewer other,
+              final SplittableRandom random) {
+      proxies.game().score(viewer, other, random.nextInt(10_000), ARENAS[random.nextInt(ARENAS.length)]);
+    }
+  };
+
+  private static final String[] CHAT_LINES = {
+      "gg",
+      "anyone up for a round of bedwars?",
+      "how do I get to the spawn again",
+      "lag?",
+      "that was a close one, well played everyone!",
+  };
+
+  private static final String[] ARENAS = {"Lighthouse", "Canyon", "Frostbite", "Temple"};
+
+  abstract void send(final SimulationProxies proxies, final SimulatedViewer viewer, final SimulatedViewer other,
+                     final SplittableRandom random);
+
+  /**
+   * Parses a kind by its name, ignoring case.
+   *
+   * @param name the name of the kind
+   * @return the kind
+   * @throws IllegalArgumentException if there is no such kind
+   */
+  public static MessageKind parse(final String name) {
+    return valueOf(name.trim().toUpperCase(Locale.ROOT));
+  }
+}
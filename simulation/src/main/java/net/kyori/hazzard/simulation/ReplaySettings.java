@@ -0,0 +1,73 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard.simulation;
+
+import java.nio.file.Path;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * The parameters of a journal replay, parsed from {@code --name=value} command line arguments.
+ *
+ * @param journal the journal to replay
+ * @param warmupPasses the amount of unmeasured passes over the journal before measuring
+ * @param passes the amount of measured passes over the journal
+ * @param paced whether to wait between invocations as long as they were apart when recorded, rather than replaying
+ *     them back to back
+ */
+public record ReplaySettings(
+    Path journal,
+    int warmupPasses,
+    int passes,
+    boolean paced
+) {
+  public static final String USAGE = String.join("\n",
+      "Usage: JournalReplay --journal=path [--name=value]...",
+      "  --journal=path                    invocation journal to replay",
+      "  --warmup=3                        unmeasured passes over the journal",
+      "  --passes=10                       measured passes over the journal",
+      "  --paced=false                     keep the recorded time between invocations"
+  );
+
+  public static ReplaySettings parse(final String[] args) {
+    @Nullable Path journal = null;
+    int warmupPasses = 3;
+    int passes = 10;
+    boolean paced = false;
+
+    for (final String arg : args) {
+      if (!arg.startsWith("--") || arg.indexOf('=') < 0) {
+        throw new IllegalArgumentException("Malformed argument: " + arg);
+      }
+
+      final String name = arg.substring(2, arg.indexOf('='));
+      final String value = arg.substring(arg.indexOf('=') + 1);
+      switch (name) {
+        case "journal" -> journal = Path.of(value);
+        case "warmup" -> warmupPasses = Integer.parseInt(value);
+        case "passes" -> passes = Integer.parseInt(value);
+        case "paced" -> paced = Boolean.parseBoolean(value);
+        default -> throw new IllegalArgumentException("Unknown argument: " + name);
+      }
+    }
+
+    if (journal == null) {
+      throw new IllegalArgumentException("Missing argument: journal");
+    }
+    return new ReplaySettings(journal, warmupPasses, passes, paced);
+  }
+}
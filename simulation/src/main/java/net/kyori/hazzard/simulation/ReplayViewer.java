@@ -0,0 +1,57 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard.simulation;
+
+import java.util.concurrent.atomic.LongAdder;
+import net.kyori.hazzard.annotation.meta.ThreadSafe;
+import org.checkerframework.dataflow.qual.Pure;
+
+/**
+ * A stand-in for every recorded viewer of one classification, receiving every message sent to it into a sink.
+ */
+@ThreadSafe
+public final class ReplayViewer {
+  private final String classification;
+
+  /**
+   * The amount of characters received; this only exists so the JIT cannot discard rendered messages.
+   */
+  private final LongAdder receivedCharacters = new LongAdder();
+
+  public ReplayViewer(final String classification) {
+    this.classification = classification;
+  }
+
+  @Pure
+  public String classification() {
+    return this.classification;
+  }
+
+  public void receive(final String message) {
+    this.receivedCharacters.add(message.length());
+  }
+
+  public long receivedCharacters() {
+    return this.receivedCharacters.sum();
+  }
+
+  @Override
+  public String toString() {
+    return this.classification;
+  }
+}
@@ -0,0 +1,68 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard.simulation;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import net.kyori.hazzard.annotation.meta.ThreadSafe;
+import net.kyori.hazzard.exception.MissingTranslationKeyException;
+import net.kyori.hazzard.message.TemplateLocator;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An in-memory catalog of templates for every simulated locale.
+ * <p>
+ * Each locale gets its own copy of the templates, so lookups touch as many distinct objects as a real per-locale
+ * catalog would.
+ * </p>
+ */
+@ThreadSafe
+public final class SimulationCatalog implements TemplateLocator<SimulatedViewer, String> {
+  private static final Map<String, String> TEMPLATES = Map.of(
+      "chat.message", "<{sender}> {message}",
+      "chat.join", "{player} joined the game",
+      "game.action_bar", "Health: {health} | Mana: {mana}",
+      "game.denied", "You cannot do that here.",
+      "game.score", "{player} scored {score} points in {arena}!",
+      "help.line", "Help page {page}, line {line}: use /help {page} to see more"
+  );
+
+  private final Map<Locale, Map<String, String>> templates;
+
+  public SimulationCatalog(final List<Locale> locales) {
+    this.templates = new HashMap<>(locales.size());
+    for (final Locale locale : locales) {
+      final Map<String, String> localeTemplates = new HashMap<>(TEMPLATES.size());
+      TEMPLATES.forEach((key, template) -> localeTemplates.put(key, '[' + locale.toLanguageTag() + "] " + template));
+      this.templates.put(locale, localeTemplates);
+    }
+  }
+
+  @Override
+  public String templateOf(final SimulatedViewer viewer, final String translationKey)
+      throws MissingTranslationKeyException {
+    final @Nullable String template = this.templates.getOrDefault(viewer.locale(), Map.of()).get(translationKey);
+    if (template == null) {
+      throw new MissingTranslationKeyException(translationKey);
+    }
+
+    return template;
+  }
+}
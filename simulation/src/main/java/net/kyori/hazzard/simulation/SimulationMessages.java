@@ -0,0 +1,54 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard.simulation;
+
+import net.kyori.hazzard.annotation.TemplateArgument;
+import net.kyori.hazzard.annotation.TranslationKey;
+
+/**
+ * The message interfaces driven by the simulation, shaped after what a game server typically sends.
+ */
+public final class SimulationMessages {
+  private SimulationMessages() {
+  }
+
+  public interface Chat {
+    @TranslationKey("chat.message")
+    void message(SimulatedViewer viewer, @TemplateArgument SimulatedViewer sender, @TemplateArgument String message);
+
+    @TranslationKey("chat.join")
+    void join(SimulatedViewer viewer, @TemplateArgument SimulatedViewer player);
+  }
+
+  public interface Game {
+    @TranslationKey("game.action_bar")
+    void actionBar(SimulatedViewer viewer, @TemplateArgument Integer health, @TemplateArgument Integer mana);
+
+    @TranslationKey("game.denied")
+    void denied(SimulatedViewer viewer);
+
+    @TranslationKey("game.score")
+    void score(SimulatedViewer viewer, @TemplateArgument SimulatedViewer player, @TemplateArgument Integer score,
+               @TemplateArgument String arena);
+  }
+
+  public interface Help {
+    @TranslationKey("help.line")
+    void line(SimulatedViewer viewer, @TemplateArgument Integer page, @TemplateArgument Integer line);
+  }
+}
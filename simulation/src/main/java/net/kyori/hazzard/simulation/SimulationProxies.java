@@ -0,0 +1,97 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard.simulation;
+
+import static net.kyori.hazzard.util.VariableWrapper.finalResult;
+import static net.kyori.hazzard.variable.ReplacementResult.conclusionValue;
+
+import io.leangen.geantyref.TypeToken;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.function.Function;
+import net.kyori.hazzard.Hazzard;
+import net.kyori.hazzard.HazzardRuntime;
+import net.kyori.hazzard.exception.scan.UnscannableMethodException;
+import net.kyori.hazzard.message.IMessageSendingService;
+import net.kyori.hazzard.message.StringMessageComposer;
+import net.kyori.hazzard.strategy.StandardTemplateVariableResolution;
+import net.kyori.hazzard.strategy.supertype.StandardSupertypeThenInterfaceSupertypeStrategy;
+import net.kyori.hazzard.variable.ITemplateVariableResolver;
+import net.kyori.hazzard.viewer.IViewerLookupService;
+import net.kyori.hazzard.viewer.IViewerLookupServiceLocator;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * The proxied message interfaces of a simulation, all wired the way a production server would wire them.
+ *
+ * @param chat the chat messages
+ * @param game the gameplay messages
+ * @param help the help page messages
+ */
+public record SimulationProxies(
+    SimulationMessages.Chat chat,
+    SimulationMessages.Game game,
+    SimulationMessages.Help help
+) {
+  public static SimulationProxies create(final SimulationCatalog catalog) throws UnscannableMethodException {
+    final HazzardRuntime<SimulatedViewer, String, String, String> runtime = runtime(catalog);
+    final ClassLoader classLoader = SimulationProxies.class.getClassLoader();
+    return new SimulationProxies(
+        runtime.create(TypeToken.get(SimulationMessages.Chat.class), classLoader),
+        runtime.create(TypeToken.get(SimulationMessages.Game.class), classLoader),
+        runtime.create(TypeToken.get(SimulationMessages.Help.class), classLoader)
+    );
+  }
+
+  private static HazzardRuntime<SimulatedViewer, String, String, String> runtime(final SimulationCatalog catalog) {
+    final IMessageSendingService<SimulatedViewer, String> sink = SimulatedViewer::receive;
+    return Hazzard.<SimulationMessages.Chat, SimulatedViewer>builder(TypeToken.get(SimulationMessages.Chat.class))
+        .viewerLookupServiceLocator(new FirstParameterViewerLocator(), 0)
+        .templateLocator(catalog)
+        .<String, String>composed(new StringMessageComposer<>("{", "}",
+            Function.identity(), Function.identity(), Function.identity()))
+        .sent(sink)
+        .variableResolver(new StandardTemplateVariableResolution<>(
+            new StandardSupertypeThenInterfaceSupertypeStrategy(false)))
+        .weightedVariableResolver(String.class, ITemplateVariableResolver.identityPlaceholderResolver(), 0)
+        .weightedVariableResolver(Integer.class, (name, value, viewer, owner, method, parameters) ->
+            Map.of(name, finalResult(conclusionValue(value.toString()))), 0)
+        .weightedVariableResolver(SimulatedViewer.class, (name, value, viewer, owner, method, parameters) ->
+            Map.of(name, finalResult(conclusionValue(value.name()))), 0)
+        .runtime();
+  }
+
+  /**
+   * Locates the viewer as the first {@link SimulatedViewer} parameter of a method.
+   */
+  private static final class FirstParameterViewerLocator implements IViewerLookupServiceLocator<SimulatedViewer> {
+    @Override
+    public @Nullable IViewerLookupService<SimulatedViewer> resolve(final Method method, final Type proxy) {
+      final Class<?>[] parameterTypes = method.getParameterTypes();
+      for (int idx = 0; idx < parameterTypes.length; ++idx) {
+        if (parameterTypes[idx] == SimulatedViewer.class) {
+          final int viewerIdx = idx;
+          return (calledMethod, calledProxy, parameters) -> (SimulatedViewer) parameters[viewerIdx];
+        }
+      }
+
+      return null;
+    }
+  }
+}
@@ -0,0 +1,184 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard.simulation;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * The parameters of a simulation run, parsed from {@code --name=value} command line arguments.
+ *
+ * @param viewerCounts the amounts of viewers to simulate, one scenario each
+ * @param threadCounts the amounts of threads to spread viewers over, one scenario each
+ * @param messagesPerViewer the amount of messages every viewer receives per tick
+ * @param mix the weights of each message kind
+ * @param burstInterval the amount of ticks between help page bursts, or {@code 0} to disable bursts
+ * @param burstLines the amount of help lines every viewer receives in a burst
+ * @param warmupTicks the amount of unmeasured ticks before measuring
+ * @param ticks the amount of measured ticks
+ * @param tickRate the amount of ticks per second
+ * @param realtime whether to wait for the remainder of every tick, rather than running ticks back to back
+ * @param locales the amount of locales viewers are spread over
+ * @param seed the seed for all randomness in the simulation
+ */
+public record SimulationSettings(
+    List<Integer> viewerCounts,
+    List<Integer> threadCounts,
+    int messagesPerViewer,
+    Map<MessageKind, Integer> mix,
+    int burstInterval,
+    int burstLines,
+    int warmupTicks,
+    int ticks,
+    int tickRate,
+    boolean realtime,
+    int locales,
+    long seed
+) {
+  public static final String USAGE = String.join("\n",
+      "Usage: TickSimulation [--name=value]...",
+      "  --viewers=100,500,1000            viewer counts to simulate",
+      "  --threads=1," + Runtime.getRuntime().availableProcessors() + "                  thread counts to simulate",
+      "  --messages=3                      messages per viewer per tick",
+      "  --mix=chat:40,action_bar:40,...   weights per message kind " + Stream.of(MessageKind.values())
+          .map(kind -> kind.name().toLowerCase(Locale.ROOT)).collect(Collectors.joining(", ", "(", ")")),
+      "  --burst-interval=100              ticks between help page bursts, 0 to disable",
+      "  --burst-lines=10                  help lines per viewer in a burst",
+      "  --warmup=200                      unmeasured ticks per scenario",
+      "  --ticks=1200                      measured ticks per scenario",
+      "  --tick-rate=20                    ticks per second",
+      "  --realtime=true                   idle for the remainder of every tick",
+      "  --locales=8                       locales to spread viewers over",
+      "  --seed=0                          seed for all randomness"
+  );
+
+  public static SimulationSettings parse(final String[] args) {
+    List<Integer> viewerCounts = List.of(100, 500, 1000);
+    List<Integer> threadCounts = Runtime.getRuntime().availableProcessors() == 1
+        ? List.of(1)
+        : List.of(1, Runtime.getRuntime().availableProcessors());
+    int messagesPerViewer = 3;
+    Map<MessageKind, Integer> mix = parseMix("chat:40,join:2,action_bar:40,denied:10,score:8");
+    int burstInterval = 100;
+    int burstLines = 10;
+    int warmupTicks = 200;
+    int ticks = 1200;
+    int tickRate = 20;
+    boolean realtime = true;
+    int locales = 8;
+    long seed = 0;
+
+    for (final String arg : args) {
+      if (!arg.startsWith("--") || arg.indexOf('=') < 0) {
+        throw new IllegalArgumentException("Malformed argument: " + arg);
+      }
+
+      final String name = arg.substring(2, arg.indexOf('='));
+      final String value = arg.substring(arg.indexOf('=') + 1);
+      switch (name) {
+        case "viewers" -> viewerCounts = parseInts(value);
+        case "threads" -> threadCounts = parseInts(value);
+        case "messages" -> messagesPerViewer = Integer.parseInt(value);
+        case "mix" -> mix = parseMix(value);
+        case "burst-interval" -> burstInterval = Integer.parseInt(value);
+        case "burst-lines" -> burstLines = Integer.parseInt(value);
+        case "warmup" -> warmupTicks = Integer.parseInt(value);
+        case "ticks" -> ticks = Integer.parseInt(value);
+        case "tick-rate" -> tickRate = Integer.parseInt(value);
+        case "realtime" -> realtime = Boolean.parseBoolean(value);
+        case "locales" -> locales = Integer.parseInt(value);
+        case "seed" -> seed = Long.parseLong(value);
+        default -> throw new IllegalArgumentException("Unknown argument: " + name);
+      }
+    }
+
+    for (final int viewers : viewerCounts) {
+      requirePositive("viewers", viewers);
+    }
+    for (final int threads : threadCounts) {
+      requirePositive("threads", threads);
+    }
+    requirePositive("messages", messagesPerViewer);
+    requireNonNegative("burst-interval", burstInterval);
+    requireNonNegative("burst-lines", burstLines);
+    requireNonNegative("warmup", warmupTicks);
+    requirePositive("ticks", ticks);
+    requirePositive("tick-rate", tickRate);
+    requirePositive("locales", locales);
+
+    return new SimulationSettings(viewerCounts, threadCounts, messagesPerViewer, mix, burstInterval, burstLines,
+        warmupTicks, ticks, tickRate, realtime, locales, seed);
+  }
+
+  /**
+   * @return the time budget of a single tick in nanoseconds
+   */
+  public long tickNanos() {
+    return 1_000_000_000L / this.tickRate;
+  }
+
+  /**
+   * @return the locales viewers are spread over
+   */
+  public List<Locale> simulatedLocales() {
+    final List<Locale> available = List.of(Locale.ENGLISH, Locale.GERMAN, Locale.FRENCH, Locale.ITALIAN,
+        Locale.JAPANESE, Locale.KOREAN, Locale.CHINESE, new Locale("es"), new Locale("pt"), new Locale("nl"),
+        new Locale("sv"), new Locale("pl"), new Locale("ru"), new Locale("tr"), new Locale("cs"), new Locale("fi"));
+    final List<Locale> locales = new ArrayList<>(this.locales);
+    for (int idx = 0; idx < this.locales; ++idx) {
+      locales.add(idx < available.size() ? available.get(idx) : new Locale("x" + idx));
+    }
+    return locales;
+  }
+
+  private static void requirePositive(final String name, final int value) {
+    if (value <= 0) {
+      throw new IllegalArgumentException("--" + name + " must be positive, got: " + value);
+    }
+  }
+
+  private static void requireNonNegative(final String name, final int value) {
+    if (value < 0) {
+      throw new IllegalArgumentException("--" + name + " must not be negative, got: " + value);
+    }
+  }
+
+  private static List<Integer> parseInts(final String value) {
+    return Stream.of(value.split(","))
+        .map(String::trim)
+        .map(Integer::valueOf)
+        .toList();
+  }
+
+  private static Map<MessageKind, Integer> parseMix(final String value) {
+    final Map<MessageKind, Integer> mix = new EnumMap<>(MessageKind.class);
+    for (final String entry : value.split(",")) {
+      final int separator = entry.indexOf(':');
+      if (separator < 0) {
+        throw new IllegalArgumentException("Mix entries must be formatted as kind:weight, got: " + entry);
+      }
+      mix.put(MessageKind.parse(entry.substring(0, separator)), Integer.parseInt(entry.substring(separator + 1)));
+    }
+    return mix;
+  }
+}
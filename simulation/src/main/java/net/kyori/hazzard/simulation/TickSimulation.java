@@ -0,0 +1,248 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard.simulation;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.locks.LockSupport;
+import net.kyori.hazzard.annotation.meta.NotThreadSafe;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A simulated server loop, sending a configurable mix of messages to simulated viewers every tick and reporting how
+ * much of each tick was spent in Hazzard.
+ * <p>
+ * Unlike a microbenchmark, ticks are spread out in real time by default, so caches cool down between ticks and garbage
+ * is collected under the same bursty allocation pattern as on a live server.
+ * </p>
+ */
+@NotThreadSafe
+public final class TickSimulation {
+  private final SimulationSettings settings;
+  private final SimulationProxies proxies;
+  private final List<SimulatedViewer> viewers;
+  private final int threads;
+
+  /**
+   * The cumulative weights of {@link SimulationSettings#mix()}, indexed like {@link #kinds}.
+   */
+  private final int[] cumulativeWeights;
+  private final MessageKind[] kinds;
+
+  public TickSimulation(final SimulationSettings settings, final SimulationProxies proxies, final int viewerCount,
+                        final int threads) {
+    this.settings = settings;
+    this.proxies = proxies;
+    this.threads = threads;
+
+    final List<Locale> locales = settings.simulatedLocales();
+    this.viewers = new ArrayList<>(viewerCount);
+    for (int id = 0; id < viewerCount; ++id) {
+      this.viewers.add(new SimulatedViewer(id, locales.get(id % locales.size())));
+    }
+
+    this.kinds = settings.mix().keySet().toArray(new MessageKind[0]);
+    this.cumulativeWeights = new int[this.kinds.length];
+    int total = 0;
+    for (int idx = 0; idx < this.kinds.length; ++idx) {
+      total += settings.mix().get(this.kinds[idx]);
+      this.cumulativeWeights[idx] = total;
+    }
+    if (total <= 0) {
+      throw new IllegalArgumentException("The message mix must have a positive total weight");
+    }
+  }
+
+  public static void main(final String[] args) throws Exception {
+    final SimulationSettings settings;
+    try {
+      settings = SimulationSettings.parse(args);
+    } catch (final IllegalArgumentException ex) {
+      System.err.println(ex.getMessage());
+      System.err.println(SimulationSettings.USAGE);
+      System.exit(1);
+      return;
+    }
+
+    final SimulationProxies proxies = SimulationProxies.create(new SimulationCatalog(settings.simulatedLocales()));
+    System.out.printf("Simulating %d+%d ticks at %d Hz, %d messages per viewer per tick, mix %s%n",
+        settings.warmupTicks(), settings.ticks(), settings.tickRate(), settings.messagesPerViewer(), settings.mix());
+    System.out.printf("%8s %8s %12s %10s %10s %10s %10s %10s %8s %8s%n",
+        "viewers", "threads", "msgs/tick", "p50 ms", "p99 ms", "p999 ms", "max ms", "budget%", "gc", "gc ms");
+
+    for (final int threads : settings.threadCounts()) {
+      for (final int viewers : settings.viewerCounts()) {
+        new TickSimulation(settings, proxies, viewers, threads).run();
+      }
+    }
+  }
+
+  /**
+   * Runs the warmup and measured ticks of this scenario, then prints a report line.
+   *
+   * @throws InterruptedException if interrupted while waiting for a tick
+   * @throws ExecutionException if sending a message failed
+   */
+  public void run() throws InterruptedException, ExecutionException {
+    final ExecutorService executor = Executors.newFixedThreadPool(this.threads, runnable -> {
+      final Thread thread = new Thread(runnable, "hazzard-simulation");
+      thread.setDaemon(true);
+      return thread;
+    });
+    try {
+      final List<Callable<Long>> slices = this.slices();
+      this.runTicks(executor, slices, this.settings.warmupTicks(), null);
+
+      final long gcCount = gcCount();
+      final long gcMillis = gcMillis();
+      final TickStatistics statistics = new TickStatistics(this.settings.ticks());
+      this.runTicks(executor, slices, this.settings.ticks(), statistics);
+      this.report(statistics, gcCount() - gcCount, gcMillis() - gcMillis);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private void runTicks(final ExecutorService executor, final List<Callable<Long>> slices, final int ticks,
+                        final @Nullable TickStatistics statistics) throws InterruptedException, ExecutionException {
+    long nextTick = System.nanoTime();
+    for (int tick = 0; tick < ticks; ++tick) {
+      final long start = System.nanoTime();
+      long messages = 0;
+      if (slices.size() == 1) {
+        messages = this.call(slices.get(0));
+      } else {
+        for (final Future<Long> slice : executor.invokeAll(slices)) {
+          messages += slice.get();
+        }
+      }
+      final long elapsed = System.nanoTime() - start;
+
+      if (statistics != null) {
+        statistics.record(elapsed, messages);
+      }
+
+      nextTick += this.settings.tickNanos();
+      if (this.settings.realtime()) {
+        LockSupport.parkNanos(nextTick - System.nanoTime());
+      }
+    }
+  }
+
+  /**
+   * Splits the viewers into one contiguous slice per thread, every slice keeping its own random source and tick
+   * counter.
+   *
+   * @return the tasks to run every tick, returning the amount of messages sent
+   */
+  private List<Callable<Long>> slices() {
+    final List<Callable<Long>> slices = new ArrayList<>(this.threads);
+    final int sliceSize = (this.viewers.size() + this.threads - 1) / this.threads;
+    for (int slice = 0; slice < this.threads; ++slice) {
+      final List<SimulatedViewer> sliceViewers = this.viewers.subList(
+          Math.min(this.viewers.size(), slice * sliceSize),
+          Math.min(this.viewers.size(), (slice + 1) * sliceSize));
+      final SplittableRandom random = new SplittableRandom(this.settings.seed() + slice);
+      final int[] tick = {0};
+      slices.add(() -> this.tick(sliceViewers, random, tick[0]++));
+    }
+    return slices;
+  }
+
+  private long tick(final List<SimulatedViewer> viewers, final SplittableRandom random, final int tick) {
+    final boolean burst = this.settings.burstInterval() > 0 && tick % this.settings.burstInterval() == 0;
+    long messages = 0;
+    for (final SimulatedViewer viewer : viewers) {
+      for (int message = 0; message < this.settings.messagesPerViewer(); ++message) {
+        final SimulatedViewer other = this.viewers.get(random.nextInt(this.viewers.size()));
+        this.nextKind(random).send(this.proxies, viewer, other, random);
+        ++messages;
+      }
+
+      if (burst) {
+        for (int line = 0; line < this.settings.burstLines(); ++line) {
+          this.proxies.help().line(viewer, 1, line);
+          ++messages;
+        }
+      }
+    }
+    return messages;
+  }
+
+  private MessageKind nextKind(final SplittableRandom random) {
+    final int roll = random.nextInt(this.cumulativeWeights[this.cumulativeWeights.length - 1]);
+    for (int idx = 0; idx < this.cumulativeWeights.length; ++idx) {
+      if (roll < this.cumulativeWeights[idx]) {
+        return this.kinds[idx];
+      }
+    }
+    throw new IllegalStateException("roll exceeded the total weight: " + roll);
+  }
+
+  private long call(final Callable<Long> slice) throws ExecutionException {
+    try {
+      return slice.call();
+    } catch (final Exception ex) {
+      throw new ExecutionException(ex);
+    }
+  }
+
+  private void report(final TickStatistics statistics, final long gcCount, final long gcMillis) {
+    final double millis = 1_000_000.0;
+    System.out.printf("%8d %8d %12d %10.3f %10.3f %10.3f %10.3f %10.2f %8d %8d%n",
+        this.viewers.size(),
+        this.threads,
+        statistics.messages() / Math.max(1, statistics.recorded()),
+        statistics.percentile(0.50) / millis,
+        statistics.percentile(0.99) / millis,
+        statistics.percentile(0.999) / millis,
+        statistics.max() / millis,
+        100.0 * statistics.percentile(0.99) / this.settings.tickNanos(),
+        gcCount,
+        gcMillis);
+    if (statistics.overBudget(this.settings.tickNanos()) > 0) {
+      System.out.printf("%8s %d ticks exceeded the whole tick budget%n", "",
+          statistics.overBudget(this.settings.tickNanos()));
+    }
+  }
+
+  private static long gcCount() {
+    long count = 0;
+    for (final GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+      count += Math.max(0, bean.getCollectionCount());
+    }
+    return count;
+  }
+
+  private static long gcMillis() {
+    long millis = 0;
+    for (final GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+      millis += Math.max(0, bean.getCollectionTime());
+    }
+    return millis;
+  }
+}
@@ -0,0 +1,83 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard.simulation;
+
+import java.util.Arrays;
+import net.kyori.hazzard.annotation.meta.NotThreadSafe;
+
+/**
+ * A recording of the time spent in Hazzard for every measured tick.
+ */
+@NotThreadSafe
+public final class TickStatistics {
+  private final long[] tickNanos;
+  private int recorded;
+  private long messages;
+
+  public TickStatistics(final int ticks) {
+    this.tickNanos = new long[ticks];
+  }
+
+  public void record(final long nanos, final long messages) {
+    this.tickNanos[this.recorded++] = nanos;
+    this.messages += messages;
+  }
+
+  public int recorded() {
+    return this.recorded;
+  }
+
+  public long messages() {
+    return this.messages;
+  }
+
+  /**
+   * Finds the tick time at the given percentile using the nearest-rank method.
+   *
+   * @param percentile the percentile, between {@code 0} exclusive and {@code 1} inclusive
+   * @return the tick time in nanoseconds
+   */
+  public long percentile(final double percentile) {
+    if (this.recorded == 0) {
+      return 0;
+    }
+
+    final long[] sorted = Arrays.copyOf(this.tickNanos, this.recorded);
+    Arrays.sort(sorted);
+    final int rank = (int) Math.ceil(percentile * sorted.length);
+    return sorted[Math.max(0, Math.min(sorted.length, rank) - 1)];
+  }
+
+  public long max() {
+    return this.percentile(1.0);
+  }
+
+  /**
+   * @param budgetNanos the budget of a single tick
+   * @return the amount of ticks where the time spent in Hazzard alone exceeded the budget
+   */
+  public int overBudget(final long budgetNanos) {
+    int overBudget = 0;
+    for (int idx = 0; idx < this.recorded; ++idx) {
+      if (this.tickNanos[idx] > budgetNanos) {
+        ++overBudget;
+      }
+    }
+    return overBudget;
+  }
+}
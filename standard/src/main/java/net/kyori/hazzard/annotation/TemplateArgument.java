@@ -37,4 +37,13 @@ public @interface TemplateArgument {
    * @return the name of the template argument
    */
   String value() default "";
+
+  /**
+   * Whether templates are {@link net.kyori.hazzard.message.ITemplateValidator validated} to use the variable of this
+   * argument. Arguments which a resolver expands into differently named variables, e.g. {@code player} into
+   * {@code player_name}, must not be validated, as their templates never use the name of the argument itself.
+   *
+   * @return whether templates are validated to use the variable
+   */
+  boolean validated() default true;
 }
@@ -0,0 +1,83 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard.journal;
+
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A single recorded invocation of a proxied method.
+ *
+ * @param proxiedType the binary name of the proxied type
+ * @param translationKey the translation key of the invoked method
+ * @param viewerClass the classification of the viewer the message was sent to, e.g. its locale
+ * @param arguments the shapes of the arguments of the invocation
+ * @param offsetNanos the time the invocation started at, relative to the start of the recording
+ * @param durationNanos the time from looking up the viewer until the message was handed to the sending service
+ */
+public record JournalEntry(
+    String proxiedType,
+    String translationKey,
+    String viewerClass,
+    List<Argument> arguments,
+    long offsetNanos,
+    long durationNanos
+) {
+  public JournalEntry {
+    arguments = List.copyOf(arguments);
+  }
+
+  /**
+   * The shape of a single argument, without its value.
+   *
+   * @param type the binary name of the runtime type of the argument, or {@code null} if the argument was
+   *     {@code null}
+   * @param size the length of a {@link CharSequence} or array, or the size of a {@link Collection} or {@link Map};
+   *     {@code 0} for any other argument
+   */
+  public record Argument(@Nullable String type, int size) {
+    /**
+     * Get the shape of an argument.
+     *
+     * @param value the argument
+     * @return the shape of the argument
+     */
+    public static Argument of(final @Nullable Object value) {
+      if (value == null) {
+        return new Argument(null, 0);
+      }
+
+      final int size;
+      if (value instanceof CharSequence sequence) {
+        size = sequence.length();
+      } else if (value instanceof Collection<?> collection) {
+        size = collection.size();
+      } else if (value instanceof Map<?, ?> map) {
+        size = map.size();
+      } else if (value.getClass().isArray()) {
+        size = Array.getLength(value);
+      } else {
+        size = 0;
+      }
+      return new Argument(value.getClass().getName(), size);
+    }
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard.journal;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * The binary format of invocation journals.
+ * <p>
+ * A journal is a header followed by one record per invocation. All numbers within records are variable-length
+ * encoded, and every string is written out only the first time it occurs and referenced by its index afterwards, so
+ * a record of a recurring invocation takes a handful of bytes.
+ * </p>
+ */
+/* package-private */ final class JournalFormat {
+  /**
+   * The version of the binary format, bumped on every incompatible change.
+   */
+  static final int VERSION = 1;
+
+  static final int MAGIC = 0x485A4A52; // "HZJR"
+
+  /**
+   * The string reference of {@code null}.
+   */
+  static final int NULL_STRING = 0;
+
+  /**
+   * The string reference of a string written out in full after it.
+   */
+  static final int NEW_STRING = 1;
+
+  /**
+   * The string reference of the first string written out; later ones follow in order.
+   */
+  static final int FIRST_STRING_INDEX = 2;
+
+  private JournalFormat() {
+  }
+
+  static void writeVarLong(final DataOutput output, long value) throws IOException {
+    while ((value & ~0x7FL) != 0) {
+      output.writeByte((int) (value & 0x7F) | 0x80);
+      value >>>= 7;
+    }
+    output.writeByte((int) value);
+  }
+
+  static long readVarLong(final DataInput input) throws IOException {
+    return readVarLong(input, input.readUnsignedByte());
+  }
+
+  /**
+   * Read a variable-length number whose first byte has already been read.
+   *
+   * @param input the input to read the remaining bytes from
+   * @param first the first byte of the number
+   * @return the number
+   * @throws IOException if the input could not be read, or the number is malformed
+   */
+  static long readVarLong(final DataInput input, final int first) throws IOException {
+    long value = first & 0x7F;
+    int current = first;
+    for (int shift = 7; (current & 0x80) != 0; shift += 7) {
+      if (shift >= Long.SIZE) {
+        throw new IOException("malformed variable-length number");
+      }
+      current = input.readUnsignedByte();
+      value |= (long) (current & 0x7F) << shift;
+    }
+    return value;
+  }
+
+  static long zigZag(final long value) {
+    return (value << 1) ^ (value >> 63);
+  }
+
+  static long unZigZag(final long value) {
+    return (value >>> 1) ^ -(value & 1);
+  }
+}
@@ -0,0 +1,149 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard.journal;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import net.kyori.hazzard.annotation.meta.NotThreadSafe;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A reader of journals written by a {@link JournalWriter}.
+ */
+@NotThreadSafe
+public final class JournalReader implements Closeable {
+  private final DataInputStream input;
+
+  /**
+   * All strings read so far, in order of their first occurrence.
+   */
+  private final List<String> strings = new ArrayList<>();
+
+  /**
+   * The offset of the previous record, which offsets are read relative to.
+   */
+  private long previousOffset;
+
+  /**
+   * Open a journal, reading its header.
+   *
+   * @param input the input to read the journal from; it is closed along with this reader
+   * @throws IOException if the header could not be read, or the input is no journal of the current format version
+   */
+  public JournalReader(final InputStream input) throws IOException {
+    this.input = new DataInputStream(new BufferedInputStream(input));
+    if (this.input.readInt() != JournalFormat.MAGIC) {
+      throw new IOException("not an invocation journal");
+    }
+
+    final int version = this.input.readUnsignedShort();
+    if (version != JournalFormat.VERSION) {
+      throw new IOException("unsupported journal version " + version + ", expected " + JournalFormat.VERSION);
+    }
+  }
+
+  /**
+   * Open a journal in a file.
+   *
+   * @param file the file to read the journal from
+   * @return the reader of the journal
+   * @throws IOException if the file could not be opened, or is no journal of the current format version
+   */
+  public static JournalReader open(final Path file) throws IOException {
+    return new JournalReader(Files.newInputStream(file));
+  }
+
+  /**
+   * Read the next record of the journal.
+   *
+   * @return the next record, or {@code null} if the end of the journal has been reached
+   * @throws IOException if the record could not be read
+   */
+  public @Nullable JournalEntry next() throws IOException {
+    final int first = this.input.read();
+    if (first == -1) {
+      return null;
+    }
+
+    final String proxiedType = this.readPresentString(JournalFormat.readVarLong(this.input, first));
+    final String translationKey = this.readPresentString(JournalFormat.readVarLong(this.input));
+    final String viewerClass = this.readPresentString(JournalFormat.readVarLong(this.input));
+    final int argumentCount = (int) JournalFormat.readVarLong(this.input);
+    final List<JournalEntry.Argument> arguments = new ArrayList<>(argumentCount);
+    for (int idx = 0; idx < argumentCount; ++idx) {
+      final @Nullable String type = this.readString(JournalFormat.readVarLong(this.input));
+      arguments.add(new JournalEntry.Argument(type, (int) JournalFormat.readVarLong(this.input)));
+    }
+    final long offset = this.previousOffset + JournalFormat.unZigZag(JournalFormat.readVarLong(this.input));
+    final long duration = JournalFormat.readVarLong(this.input);
+    this.previousOffset = offset;
+    return new JournalEntry(proxiedType, translationKey, viewerClass, arguments, offset, duration);
+  }
+
+  /**
+   * Read all remaining records of the journal.
+   *
+   * @return the remaining records, in the order they were written
+   * @throws IOException if any record could not be read
+   */
+  public List<JournalEntry> readAll() throws IOException {
+    final List<JournalEntry> entries = new ArrayList<>();
+    @Nullable JournalEntry entry;
+    while ((entry = this.next()) != null) {
+      entries.add(entry);
+    }
+    return entries;
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.input.close();
+  }
+
+  private String readPresentString(final long reference) throws IOException {
+    final @Nullable String string = this.readString(reference);
+    if (string == null) {
+      throw new IOException("missing string in journal record");
+    }
+    return string;
+  }
+
+  private @Nullable String readString(final long reference) throws IOException {
+    if (reference == JournalFormat.NULL_STRING) {
+      return null;
+    }
+    if (reference == JournalFormat.NEW_STRING) {
+      final String string = this.input.readUTF();
+      this.strings.add(string);
+      return string;
+    }
+
+    final long index = reference - JournalFormat.FIRST_STRING_INDEX;
+    if (index >= this.strings.size()) {
+      throw new IOException("reference to unknown string " + index + " in journal record");
+    }
+    return this.strings.get((int) index);
+  }
+}
@@ -0,0 +1,157 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard.journal;
+
+import io.leangen.geantyref.GenericTypeReflector;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.Function;
+import net.kyori.hazzard.IInvocationInterceptor;
+import net.kyori.hazzard.PreparedMessage;
+import net.kyori.hazzard.annotation.meta.ThreadSafe;
+import net.kyori.hazzard.exception.HazzardException;
+import net.kyori.hazzard.model.HazzardMethod;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * An interceptor recording every sent message into an invocation journal, so production traffic can be replayed
+ * later on.
+ * <p>
+ * Only the shapes of arguments are recorded, never their values. An invocation is timed from being dispatched until
+ * its message was handed to the sending service; messages which are filtered, suppressed or only rendered are not
+ * recorded at all. Messages sent while rendering another message, e.g. by a resolver, are recorded on their own.
+ * </p>
+ * <p>
+ * Recording stops for good once the journal cannot be written, rather than failing the invocations being recorded.
+ * The journal is not closed by this interceptor.
+ * </p>
+ *
+ * @param <ViewerT> the message receiving type
+ * @param <TemplateT> the intermediate message type
+ * @param <MessageT> the output/rendered message type
+ * @param <ReplacementT> the finalised placeholder type
+ */
+@ThreadSafe
+public final class JournalRecordingInterceptor<ViewerT, TemplateT, MessageT, ReplacementT>
+    implements IInvocationInterceptor<ViewerT, TemplateT, MessageT, ReplacementT> {
+  private final JournalWriter journal;
+  private final Function<? super ViewerT, String> viewerClassifier;
+
+  /**
+   * The time recording started at, which all offsets are relative to.
+   */
+  private final long origin = System.nanoTime();
+
+  /**
+   * The invocations in progress on every thread, the innermost one first; a thread without any has no value at all.
+   */
+  private final ThreadLocal<@Nullable Deque<Invocation>> invocations = new ThreadLocal<>();
+
+  private volatile boolean failed;
+
+  /**
+   * @param journal the journal to record into
+   * @param viewerClassifier the classification of viewers, e.g. by locale; this should yield few distinct values
+   */
+  public JournalRecordingInterceptor(final JournalWriter journal,
+                                     final Function<? super ViewerT, String> viewerClassifier) {
+    this.journal = journal;
+    this.viewerClassifier = viewerClassifier;
+  }
+
+  /**
+   * Create an interceptor classifying viewers by their type.
+   *
+   * @param journal the journal to record into
+   */
+  public JournalRecordingInterceptor(final JournalWriter journal) {
+    this(journal, viewer -> viewer.getClass().getName());
+  }
+
+  @Override
+  public @Nullable MessageT dispatch(
+      final Object proxy, final HazzardMethod<? extends ViewerT> hazzardMethod, final @Nullable Object[] arguments,
+      final boolean send, final @Nullable PreparedMessage<ViewerT, TemplateT, MessageT, ReplacementT> prepared,
+      final DispatchStage<ViewerT, TemplateT, MessageT, ReplacementT> next) throws HazzardException {
+    if (!send || this.failed) {
+      return next.dispatch(proxy, hazzardMethod, arguments, send, prepared);
+    }
+
+    final List<JournalEntry.Argument> shapes = new ArrayList<>(arguments == null ? 0 : arguments.length);
+    if (arguments != null) {
+      for (final @Nullable Object argument : arguments) {
+        shapes.add(JournalEntry.Argument.of(argument));
+      }
+    }
+
+    @Nullable Deque<Invocation> invocations = this.invocations.get();
+    if (invocations == null) {
+      invocations = new ArrayDeque<>();
+      this.invocations.set(invocations);
+    }
+    invocations.push(new Invocation(shapes, System.nanoTime()));
+    try {
+      return next.dispatch(proxy, hazzardMethod, arguments, send, prepared);
+    } finally {
+      // Nothing is kept around on a thread once its outermost invocation finished, however it did.
+      invocations.pop();
+      if (invocations.isEmpty()) {
+        this.invocations.remove();
+      }
+    }
+  }
+
+  @Override
+  public void send(final ViewerT viewer, final MessageT message, final HazzardMethod<? extends ViewerT> hazzardMethod,
+                   final SendStage<ViewerT, MessageT> next) {
+    next.send(viewer, message, hazzardMethod);
+
+    // A message is sent by the innermost invocation, any nested ones being finished already.
+    final @Nullable Deque<Invocation> invocations = this.invocations.get();
+    final @Nullable Invocation invocation = invocations == null ? null : invocations.peek();
+    if (invocation == null || this.failed) {
+      return;
+    }
+
+    final long duration = System.nanoTime() - invocation.startNanos();
+    try {
+      this.journal.write(new JournalEntry(
+          GenericTypeReflector.erase(hazzardMethod.owner().getType()).getName(),
+          hazzardMethod.translationKey(),
+          this.viewerClassifier.apply(viewer),
+          invocation.arguments(),
+          invocation.startNanos() - this.origin,
+          duration));
+    } catch (final IOException ex) {
+      this.failed = true;
+    }
+  }
+
+  /**
+   * @return whether recording stopped because the journal could not be written
+   */
+  public boolean hasFailed() {
+    return this.failed;
+  }
+
+  private record Invocation(List<JournalEntry.Argument> arguments, long startNanos) {
+  }
+}
@@ -0,0 +1,305 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard.journal;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import net.kyori.hazzard.annotation.meta.ThreadSafe;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A writer of {@link JournalEntry invocation records} in the compact binary journal format.
+ * <p>
+ * Records are handed to a dedicated daemon thread through a bounded queue and written there, so recording never
+ * blocks the thread sending a message on the output. Records are dropped rather than waited for once the queue is
+ * full.
+ * </p>
+ *
+ * @see JournalReader
+ */
+@ThreadSafe
+public final class JournalWriter implements Closeable {
+  /**
+   * The default maximum amount of records waiting to be written.
+   */
+  public static final int DEFAULT_CAPACITY = 8192;
+
+  /**
+   * The command telling the writer thread to stop; it is queued on {@link #close()}.
+   */
+  private static final Object POISON = new Object();
+
+  private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+  private final DataOutputStream output;
+
+  /**
+   * The records waiting to be written, along with any {@link Flush} and the {@link #POISON} commands.
+   */
+  private final BlockingQueue<Object> queue;
+
+  private final Thread writer;
+  private final LongAdder dropped = new LongAdder();
+
+  /**
+   * The indices of all strings written so far, in order of their first occurrence; only used by the writer thread.
+   */
+  private final Map<String, Integer> strings = new HashMap<>();
+
+  /**
+   * The offset of the previous record, which offsets are written relative to; only used by the writer thread.
+   */
+  private long previousOffset;
+
+  /**
+   * The failure writing the journal, after which no more records are written.
+   */
+  private volatile @Nullable IOException failure;
+
+  /**
+   * Held shared while queueing a record and exclusively while closing, so no record is queued after the poison pill.
+   */
+  private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+  private volatile boolean closed;
+
+  /**
+   * Start a journal, writing its header.
+   *
+   * @param output the output to write the journal to; it is closed along with this writer
+   * @param capacity the maximum amount of records waiting to be written
+   * @throws IOException if the header could not be written
+   */
+  public JournalWriter(final OutputStream output, final int capacity) throws IOException {
+    this.output = new DataOutputStream(new BufferedOutputStream(output));
+    this.output.writeInt(JournalFormat.MAGIC);
+    this.output.writeShort(JournalFormat.VERSION);
+
+    this.queue = new ArrayBlockingQueue<>(capacity);
+    this.writer = new Thread(this::consume, "hazzard-journal-writer-" + THREAD_COUNTER.incrementAndGet());
+    this.writer.setDaemon(true);
+    this.writer.start();
+  }
+
+  /**
+   * Start a journal with the {@link #DEFAULT_CAPACITY default capacity}, writing its header.
+   *
+   * @param output the output to write the journal to; it is closed along with this writer
+   * @throws IOException if the header could not be written
+   */
+  public JournalWriter(final OutputStream output) throws IOException {
+    this(output, DEFAULT_CAPACITY);
+  }
+
+  /**
+   * Start a journal in a file, replacing any existing file.
+   *
+   * @param file the file to write the journal to
+   * @return the writer of the journal
+   * @throws IOException if the file could not be created
+   */
+  public static JournalWriter create(final Path file) throws IOException {
+    return new JournalWriter(Files.newOutputStream(file));
+  }
+
+  /**
+   * Queue a record to be appended to the journal, without waiting for it to be written.
+   *
+   * @param entry the invocation to record
+   * @throws IOException if the journal could not be written before, or has been closed
+   */
+  public void write(final JournalEntry entry) throws IOException {
+    this.closeLock.readLock().lock();
+    try {
+      this.checkWritable();
+      if (!this.queue.offer(entry)) {
+        this.dropped.increment();
+      }
+    } finally {
+      this.closeLock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Write all records queued so far, waiting for them to reach the output.
+   *
+   * @throws IOException if the journal could not be written, or has been closed
+   */
+  public void flush() throws IOException {
+    final Flush flush = new Flush(new CountDownLatch(1));
+    this.closeLock.readLock().lock();
+    try {
+      this.checkWritable();
+      try {
+        this.queue.put(flush);
+      } catch (final InterruptedException ex) {
+        Thread.currentThread().interrupt();
+        throw new IOException("Interrupted while flushing the journal", ex);
+      }
+    } finally {
+      this.closeLock.readLock().unlock();
+    }
+
+    try {
+      flush.done().await();
+    } catch (final InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while flushing the journal", ex);
+    }
+    this.checkFailure();
+  }
+
+  /**
+   * @return the amount of records dropped because too many were waiting to be written
+   */
+  public long droppedCount() {
+    return this.dropped.sum();
+  }
+
+  /**
+   * Stop accepting records, write all pending ones and close the output.
+   *
+   * @throws IOException if the journal could not be written or closed
+   */
+  @Override
+  public void close() throws IOException {
+    this.closeLock.writeLock().lock();
+    try {
+      if (this.closed) {
+        return;
+      }
+      this.closed = true;
+    } finally {
+      this.closeLock.writeLock().unlock();
+    }
+
+    try {
+      this.queue.put(POISON);
+      this.writer.join();
+    } catch (final InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+    try {
+      this.output.close();
+    } finally {
+      this.checkFailure();
+    }
+  }
+
+  private void checkWritable() throws IOException {
+    if (this.closed) {
+      throw new IOException("The journal has been closed");
+    }
+    this.checkFailure();
+  }
+
+  private void checkFailure() throws IOException {
+    final @Nullable IOException failure = this.failure;
+    if (failure != null) {
+      throw new IOException("The journal could not be written", failure);
+    }
+  }
+
+  private void consume() {
+    while (true) {
+      final Object command;
+      try {
+        command = this.queue.take();
+      } catch (final InterruptedException ex) {
+        if (this.closed) {
+          return;
+        }
+        continue;
+      }
+
+      if (command == POISON) {
+        return;
+      }
+
+      try {
+        // Anything queued after a failure is only taken, so flushing threads are still released.
+        if (this.failure == null) {
+          if (command instanceof final JournalEntry entry) {
+            this.writeEntry(entry);
+          } else {
+            this.output.flush();
+          }
+        }
+      } catch (final IOException ex) {
+        this.failure = ex;
+      } finally {
+        if (command instanceof final Flush flush) {
+          flush.done().countDown();
+        }
+      }
+    }
+  }
+
+  private void writeEntry(final JournalEntry entry) throws IOException {
+    this.writeString(entry.proxiedType());
+    this.writeString(entry.translationKey());
+    this.writeString(entry.viewerClass());
+    JournalFormat.writeVarLong(this.output, entry.arguments().size());
+    for (final JournalEntry.Argument argument : entry.arguments()) {
+      this.writeString(argument.type());
+      JournalFormat.writeVarLong(this.output, argument.size());
+    }
+    // Invocations finishing out of order make for slightly negative deltas.
+    JournalFormat.writeVarLong(this.output, JournalFormat.zigZag(entry.offsetNanos() - this.previousOffset));
+    JournalFormat.writeVarLong(this.output, entry.durationNanos());
+    this.previousOffset = entry.offsetNanos();
+  }
+
+  private void writeString(final @Nullable String string) throws IOException {
+    if (string == null) {
+      JournalFormat.writeVarLong(this.output, JournalFormat.NULL_STRING);
+      return;
+    }
+
+    final @Nullable Integer index = this.strings.get(string);
+    if (index != null) {
+      JournalFormat.writeVarLong(this.output, JournalFormat.FIRST_STRING_INDEX + index);
+      return;
+    }
+
+    JournalFormat.writeVarLong(this.output, JournalFormat.NEW_STRING);
+    this.output.writeUTF(string);
+    this.strings.put(string, this.strings.size());
+  }
+
+  /**
+   * The command to flush the output.
+   *
+   * @param done counted down once the output was flushed, or could not be
+   */
+  private record Flush(CountDownLatch done) {
+  }
+}
@@ -0,0 +1,151 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard.message;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Function;
+import net.kyori.hazzard.annotation.meta.ThreadSafe;
+import net.kyori.hazzard.exception.MissingTranslationKeyException;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A template locator serving the templates of a source from a flat array per locale, indexed by the interned ID of
+ * their translation keys.
+ * <p>
+ * Slots are filled from the source on first use, including misses. As the IDs are dense per runtime, a locator must
+ * only be used by a single {@link net.kyori.hazzard.HazzardRuntime}. The slots are not aware of any changes to the
+ * source; {@link #templateChanged} empties the slots of a translation key, and can therefore be registered as a
+ * {@link ITemplateChangeSource#addListener(ITemplateChangeListener) listener} of a reloading or evicting source.
+ * </p>
+ *
+ * @param <ViewerT> the viewer type
+ * @param <TemplateT> the intermediate message type
+ */
+@ThreadSafe
+public final class ArrayTemplateLocator<ViewerT, TemplateT>
+    implements IndexedTemplateLocator<ViewerT, TemplateT>, ITemplateChangeListener<TemplateT> {
+  private final ConcurrentMap<Locale, LocaleSlots> localeSlots = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, Integer> filledIds = new ConcurrentHashMap<>();
+  private final Function<? super ViewerT, Locale> localeLookup;
+  private final ITemplateSource<? extends TemplateT> source;
+
+  /**
+   * @param localeLookup the lookup of a viewer's locale
+   * @param source the source of templates
+   */
+  public ArrayTemplateLocator(final Function<? super ViewerT, Locale> localeLookup,
+                              final ITemplateSource<? extends TemplateT> source) {
+    this.localeLookup = localeLookup;
+    this.source = source;
+  }
+
+  @Override
+  public TemplateT templateOf(final ViewerT viewer, final String translationKey) throws MissingTranslationKeyException {
+    final @Nullable TemplateT template = this.source.template(this.localeLookup.apply(viewer), translationKey);
+    if (template == null) {
+      throw new MissingTranslationKeyException(translationKey);
+    }
+
+    return template;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked") // Slots hold either templates or exceptions.
+  public TemplateT templateOf(final ViewerT viewer, final int translationKeyId, final String translationKey)
+      throws MissingTranslationKeyException {
+    final Locale locale = this.localeLookup.apply(viewer);
+    final LocaleSlots slots = this.localeSlots.computeIfAbsent(locale, ignored -> new LocaleSlots());
+    @Nullable Object outcome = slots.get(translationKeyId);
+    if (outcome == null) {
+      this.filledIds.putIfAbsent(translationKey, translationKeyId);
+      final long generation = slots.generation();
+      final @Nullable TemplateT template = this.source.template(locale, translationKey);
+      outcome = template != null ? template : new MissingTranslationKeyException(translationKey, false);
+      slots.fill(translationKeyId, generation, outcome);
+    }
+
+    if (outcome instanceof MissingTranslationKeyException missing) {
+      throw missing;
+    }
+
+    return (TemplateT) outcome;
+  }
+
+  @Override
+  public void templateChanged(final Locale locale, final String translationKey, final @Nullable TemplateT previous,
+                              final @Nullable TemplateT current) {
+    final @Nullable Integer id = this.filledIds.get(translationKey);
+    if (id == null) {
+      return;
+    }
+
+    // The source may serve other locales from the changed one, e.g. through fallbacks.
+    for (final LocaleSlots slots : this.localeSlots.values()) {
+      slots.empty(id);
+    }
+  }
+
+  private static final class LocaleSlots {
+    private volatile AtomicReferenceArray<@Nullable Object> slots = new AtomicReferenceArray<>(64);
+
+    /**
+     * The amount of slots emptied so far, so an outcome looked up before any of them is never filled in after it.
+     */
+    private volatile long generation;
+
+    private @Nullable Object get(final int id) {
+      final AtomicReferenceArray<@Nullable Object> slots = this.slots;
+      return id < slots.length() ? slots.get(id) : null;
+    }
+
+    private long generation() {
+      return this.generation;
+    }
+
+    // Filling and emptying slots is rare; serialising it keeps either from getting lost while growing.
+    private synchronized void fill(final int id, final long generation, final Object outcome) {
+      if (generation != this.generation) {
+        return;
+      }
+
+      AtomicReferenceArray<@Nullable Object> slots = this.slots;
+      if (id >= slots.length()) {
+        final AtomicReferenceArray<@Nullable Object> grown =
+            new AtomicReferenceArray<>(Math.max(slots.length() * 2, id + 1));
+        for (int idx = 0; idx < slots.length(); ++idx) {
+          grown.set(idx, slots.get(idx));
+        }
+        this.slots = grown;
+        slots = grown;
+      }
+
+      slots.compareAndSet(id, null, outcome);
+    }
+
+    private synchronized void empty(final int id) {
+      ++this.generation;
+      final AtomicReferenceArray<@Nullable Object> slots = this.slots;
+      if (id < slots.length()) {
+        slots.set(id, null);
+      }
+    }
+  }
+}
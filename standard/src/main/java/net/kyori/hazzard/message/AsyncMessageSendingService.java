@@ -0,0 +1,336 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard.message;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import net.kyori.hazzard.annotation.meta.ThreadSafe;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A sending service handing messages to dedicated consumer threads through a bounded queue, so a stalling delegate
+ * never blocks the thread that invoked the proxy.
+ * <p>
+ * What happens once the queue is full is decided by the {@link OverflowPolicy}. With a single consumer thread, messages
+ * are delivered in the order they were sent; with several, messages to the same viewer may be reordered.
+ * </p>
+ *
+ * @param <ViewerT> the viewer type
+ * @param <MessageT> the output/rendered message type
+ */
+@ThreadSafe
+public final class AsyncMessageSendingService<ViewerT, MessageT>
+    implements IMessageSendingService<ViewerT, MessageT>, AutoCloseable {
+  /**
+   * The envelope telling a consumer to stop; one is queued per consumer on {@link #close()}.
+   */
+  private static final Envelope<?, ?> POISON = new Envelope<>(new Object(), new Object());
+
+  private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+  private final IMessageSendingService<ViewerT, MessageT> delegate;
+  private final OverflowPolicy overflowPolicy;
+  private final BlockingQueue<Envelope<ViewerT, MessageT>> queue;
+
+  /**
+   * The most recently queued envelope of every viewer, only used with {@link OverflowPolicy#COALESCE}.
+   */
+  private final ConcurrentMap<ViewerT, Envelope<ViewerT, MessageT>> latestEnvelopes = new ConcurrentHashMap<>();
+
+  private final List<Thread> consumers;
+  private final LongAdder delivered = new LongAdder();
+  private final LongAdder dropped = new LongAdder();
+  private final LongAdder coalesced = new LongAdder();
+
+  /**
+   * Held shared while queueing a message and exclusively while closing, so no message is queued after the poison
+   * pills.
+   */
+  private final ReadWriteLock closeLock = new ReentrantReadWriteLock();
+  private volatile boolean closed;
+
+  /**
+   * Create a new service with a single daemon consumer thread.
+   *
+   * @param delegate the service to deliver messages with
+   * @param capacity the maximum amount of pending messages
+   * @param overflowPolicy the policy once {@code capacity} is reached
+   */
+  public AsyncMessageSendingService(final IMessageSendingService<ViewerT, MessageT> delegate, final int capacity,
+                                    final OverflowPolicy overflowPolicy) {
+    this(delegate, capacity, overflowPolicy, 1, runnable -> {
+      final Thread thread = new Thread(runnable, "hazzard-async-sender-" + THREAD_COUNTER.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Create a new service, starting its consumer threads immediately.
+   *
+   * @param delegate the service to deliver messages with
+   * @param capacity the maximum amount of pending messages
+   * @param overflowPolicy the policy once {@code capacity} is reached
+   * @param consumerThreads the amount of consumer threads
+   * @param threadFactory the factory of the consumer threads
+   */
+  public AsyncMessageSendingService(final IMessageSendingService<ViewerT, MessageT> delegate, final int capacity,
+                                    final OverflowPolicy overflowPolicy, final int consumerThreads,
+                                    final ThreadFactory threadFactory) {
+    if (consumerThreads < 1) {
+      throw new IllegalArgumentException("consumerThreads must be positive; got " + consumerThreads);
+    }
+
+    this.delegate = delegate;
+    this.overflowPolicy = overflowPolicy;
+    this.queue = new ArrayBlockingQueue<>(capacity);
+    this.consumers = new ArrayList<>(consumerThreads);
+    for (int idx = 0; idx < consumerThreads; ++idx) {
+      final Thread consumer = threadFactory.newThread(this::consume);
+      this.consumers.add(consumer);
+      consumer.start();
+    }
+  }
+
+  @Override
+  public void send(final ViewerT viewer, final MessageT renderedMessage) {
+    this.closeLock.readLock().lock();
+    try {
+      if (this.closed) {
+        throw new IllegalStateException("This sending service has been closed");
+      }
+
+      this.enqueue(viewer, renderedMessage);
+    } finally {
+      this.closeLock.readLock().unlock();
+    }
+  }
+
+  private void enqueue(final ViewerT viewer, final MessageT renderedMessage) {
+    final Envelope<ViewerT, MessageT> envelope = new Envelope<>(viewer, renderedMessage);
+    switch (this.overflowPolicy) {
+      case BLOCK -> {
+        try {
+          this.queue.put(envelope);
+        } catch (final InterruptedException ex) {
+          Thread.currentThread().interrupt();
+          this.dropped.increment();
+        }
+      }
+      case DROP_NEWEST -> {
+        if (!this.queue.offer(envelope)) {
+          this.dropped.increment();
+        }
+      }
+      case DROP_OLDEST -> {
+        while (!this.queue.offer(envelope)) {
+          final @Nullable Envelope<ViewerT, MessageT> oldest = this.queue.poll();
+          if (oldest != null && oldest.take() != null) {
+            this.dropped.increment();
+          }
+        }
+      }
+      // Queueing within the mapping of the viewer keeps its latest envelope in queue order, and published before
+      //   a consumer can take and unmap it.
+      case COALESCE -> this.latestEnvelopes.compute(viewer, (ignored, latest) -> {
+        if (this.queue.offer(envelope)) {
+          return envelope;
+        }
+        if (latest != null && latest.replace(renderedMessage)) {
+          this.coalesced.increment();
+          return latest;
+        }
+        this.dropped.increment();
+        return null;
+      });
+      default -> throw new IllegalStateException("Unknown overflow policy: " + this.overflowPolicy);
+    }
+  }
+
+  /**
+   * @return the amount of messages currently waiting to be delivered
+   */
+  public int queueDepth() {
+    return this.queue.size();
+  }
+
+  /**
+   * @return the amount of messages handed to the delegate so far
+   */
+  public long deliveredCount() {
+    return this.delivered.sum();
+  }
+
+  /**
+   * @return the amount of messages dropped due to overflow so far
+   */
+  public long droppedCount() {
+    return this.dropped.sum();
+  }
+
+  /**
+   * @return the amount of messages replaced by a newer message to the same viewer so far
+   */
+  public long coalescedCount() {
+    return this.coalesced.sum();
+  }
+
+  /**
+   * Stop accepting messages, deliver all pending ones and wait for the consumer threads to finish.
+   */
+  @Override
+  public void close() {
+    // Messages being queued meanwhile are still taken by the running consumers, so blocked senders finish.
+    this.closeLock.writeLock().lock();
+    try {
+      if (this.closed) {
+        return;
+      }
+      this.closed = true;
+    } finally {
+      this.closeLock.writeLock().unlock();
+    }
+
+    for (int idx = 0; idx < this.consumers.size(); ++idx) {
+      this.putPoison();
+    }
+    try {
+      for (final Thread consumer : this.consumers) {
+        consumer.join();
+      }
+    } catch (final InterruptedException ex) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void consume() {
+    final Thread thread = Thread.currentThread();
+    while (true) {
+      final Envelope<ViewerT, MessageT> envelope;
+      try {
+        envelope = this.queue.take();
+      } catch (final InterruptedException ex) {
+        if (this.closed) {
+          return;
+        }
+        continue;
+      }
+
+      if (envelope == POISON) {
+        return;
+      }
+
+      if (this.overflowPolicy == OverflowPolicy.COALESCE) {
+        this.latestEnvelopes.remove(envelope.viewer(), envelope);
+      }
+
+      final @Nullable MessageT message = envelope.take();
+      if (message == null) {
+        continue;
+      }
+
+      try {
+        this.delegate.send(envelope.viewer(), message);
+        this.delivered.increment();
+      } catch (final RuntimeException ex) {
+        thread.getUncaughtExceptionHandler().uncaughtException(thread, ex);
+      }
+    }
+  }
+
+  @SuppressWarnings("unchecked") // The poison pill is never delivered, so its types do not matter.
+  private void putPoison() {
+    boolean interrupted = false;
+    while (true) {
+      try {
+        this.queue.put((Envelope<ViewerT, MessageT>) POISON);
+        break;
+      } catch (final InterruptedException ex) {
+        // A consumer must always get its pill, or close() would wait forever.
+        interrupted = true;
+      }
+    }
+    if (interrupted) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * The behaviour of {@link #send(Object, Object)} once the queue is full.
+   */
+  public enum OverflowPolicy {
+    /**
+     * Block the sending thread until there is room in the queue.
+     */
+    BLOCK,
+    /**
+     * Drop the oldest pending message to make room.
+     */
+    DROP_OLDEST,
+    /**
+     * Drop the message being sent.
+     */
+    DROP_NEWEST,
+    /**
+     * Replace the most recent pending message to the same viewer, dropping the message being sent if there is none.
+     * This suits messages only the latest of which matters, such as action bars.
+     */
+    COALESCE,
+  }
+
+  /**
+   * A pending message, whose message can be taken exactly once, or replaced for as long as it is not taken.
+   */
+  private static final class Envelope<ViewerT, MessageT> {
+    private final ViewerT viewer;
+    private final AtomicReference<@Nullable MessageT> message;
+
+    private Envelope(final ViewerT viewer, final MessageT message) {
+      this.viewer = viewer;
+      this.message = new AtomicReference<>(message);
+    }
+
+    private ViewerT viewer() {
+      return this.viewer;
+    }
+
+    private @Nullable MessageT take() {
+      return this.message.getAndSet(null);
+    }
+
+    private boolean replace(final MessageT replacement) {
+      @Nullable MessageT current;
+      while ((current = this.message.get()) != null) {
+        if (this.message.compareAndSet(current, replacement)) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard.message;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongSupplier;
+import net.kyori.hazzard.annotation.meta.ThreadSafe;
+import net.kyori.hazzard.model.HazzardMethod;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A suppression service dropping a message if the viewer was sent the same translation key with equal replacement
+ * values within a time window.
+ * <p>
+ * Replacement values are compared using {@link Object#equals(Object)}, and must therefore implement it by value.
+ * The last message of every viewer is remembered until {@link #forget(Object)} is called for it.
+ * </p>
+ *
+ * @param <ViewerT> the viewer type
+ * @param <ReplacementT> the finalised replacement type
+ */
+@ThreadSafe
+public final class DuplicateMessageSuppressionService<ViewerT, ReplacementT>
+    implements IMessageSuppressionService<ViewerT, ReplacementT> {
+  private final ConcurrentMap<ViewerT, ConcurrentMap<String, SentMessage>> sentMessages = new ConcurrentHashMap<>();
+  private final long windowNanos;
+  private final LongSupplier nanoClock;
+
+  public DuplicateMessageSuppressionService(final Duration window) {
+    this(window, System::nanoTime);
+  }
+
+  /**
+   * @param window the time after sending a message in which equal messages are suppressed
+   * @param nanoClock the source of the current time in nanoseconds, e.g. {@link System#nanoTime()}
+   */
+  public DuplicateMessageSuppressionService(final Duration window, final LongSupplier nanoClock) {
+    this.windowNanos = window.toNanos();
+    this.nanoClock = nanoClock;
+  }
+
+  @Override
+  public boolean suppress(final ViewerT viewer, final HazzardMethod<? extends ViewerT> hazzardMethod,
+                          final Map<String, ? extends ReplacementT> replacementValues) {
+    final long now = this.nanoClock.getAsLong();
+    final ConcurrentMap<String, SentMessage> viewerMessages =
+        this.sentMessages.computeIfAbsent(viewer, ignored -> new ConcurrentHashMap<>());
+    final @Nullable SentMessage last = viewerMessages.get(hazzardMethod.translationKey());
+    if (last != null && now - last.sentAt() < this.windowNanos && last.replacementValues().equals(replacementValues)) {
+      return true;
+    }
+
+    // Suppressed messages do not extend the window; only the message that was actually sent does.
+    viewerMessages.put(hazzardMethod.translationKey(), new SentMessage(replacementValues, now));
+    return false;
+  }
+
+  /**
+   * Forget the messages sent to a viewer, e.g. once it is gone.
+   *
+   * @param viewer the viewer to forget
+   */
+  public void forget(final ViewerT viewer) {
+    this.sentMessages.remove(viewer);
+  }
+
+  private record SentMessage(Map<String, ?> replacementValues, long sentAt) {
+  }
+}
@@ -0,0 +1,148 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard.message;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import net.kyori.hazzard.annotation.meta.ThreadSafe;
+import net.kyori.hazzard.exception.MissingTranslationKeyException;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A template locator falling back through a chain of locales, e.g. {@code de_AT} to {@code de} to the root locale,
+ * until a template is found.
+ * <p>
+ * The outcome is cached per locale and translation key, including misses: a key missing in the whole chain throws
+ * the same cached {@link MissingTranslationKeyException} without a stack trace every time. The cache is not aware of
+ * any changes to the source; {@link #templateChanged} invalidates a translation key, and can therefore be registered
+ * as a {@link ITemplateChangeSource#addListener(ITemplateChangeListener) listener} of a reloading or evicting source.
+ * </p>
+ *
+ * @param <ViewerT> the viewer type
+ * @param <TemplateT> the intermediate message type
+ */
+@ThreadSafe
+public final class FallbackTemplateLocator<ViewerT, TemplateT>
+    implements TemplateLocator<ViewerT, TemplateT>, ITemplateSource<TemplateT>, ITemplateChangeListener<TemplateT> {
+  /**
+   * The outcomes by locale and translation key; either a template or a {@link MissingTranslationKeyException}.
+   */
+  private final ConcurrentMap<Locale, ConcurrentMap<String, Object>> outcomes = new ConcurrentHashMap<>();
+  private final Function<? super ViewerT, Locale> localeLookup;
+  private final ITemplateSource<? extends TemplateT> source;
+  private final Function<Locale, ? extends List<Locale>> fallbackChain;
+
+  public FallbackTemplateLocator(final Function<? super ViewerT, Locale> localeLookup,
+                                 final ITemplateSource<? extends TemplateT> source) {
+    this(localeLookup, source, FallbackTemplateLocator::defaultFallbackChain);
+  }
+
+  /**
+   * @param localeLookup the lookup of a viewer's locale
+   * @param source the source of templates
+   * @param fallbackChain the chain of locales to look a template up in for a viewer's locale, starting with itself
+   */
+  public FallbackTemplateLocator(final Function<? super ViewerT, Locale> localeLookup,
+                                 final ITemplateSource<? extends TemplateT> source,
+                                 final Function<Locale, ? extends List<Locale>> fallbackChain) {
+    this.localeLookup = localeLookup;
+    this.source = source;
+    this.fallbackChain = fallbackChain;
+  }
+
+  /**
+   * Create the chain of a locale, dropping its variant, country and language in turn.
+   *
+   * @param locale the locale to start the chain with
+   * @return the chain, e.g. {@code [de_AT, de, ]} for {@code de_AT}
+   */
+  public static List<Locale> defaultFallbackChain(final Locale locale) {
+    final List<Locale> chain = new ArrayList<>(4);
+    chain.add(locale);
+    if (!locale.getVariant().isEmpty()) {
+      chain.add(new Locale(locale.getLanguage(), locale.getCountry()));
+    }
+    if (!locale.getCountry().isEmpty()) {
+      chain.add(new Locale(locale.getLanguage()));
+    }
+    if (!locale.getLanguage().isEmpty()) {
+      chain.add(Locale.ROOT);
+    }
+    return chain;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked") // Outcomes are either templates or exceptions.
+  public TemplateT templateOf(final ViewerT viewer, final String translationKey) throws MissingTranslationKeyException {
+    final Object outcome = this.outcome(this.localeLookup.apply(viewer), translationKey);
+    if (outcome instanceof MissingTranslationKeyException missing) {
+      throw missing;
+    }
+
+    return (TemplateT) outcome;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked") // Outcomes are either templates or exceptions.
+  public @Nullable TemplateT template(final Locale locale, final String translationKey) {
+    final Object outcome = this.outcome(locale, translationKey);
+    return outcome instanceof MissingTranslationKeyException ? null : (TemplateT) outcome;
+  }
+
+  @Override
+  public void templateChanged(final Locale locale, final String translationKey, final @Nullable TemplateT previous,
+                              final @Nullable TemplateT current) {
+    // Any locale may fall back to the changed one.
+    for (final ConcurrentMap<String, Object> localeOutcomes : this.outcomes.values()) {
+      localeOutcomes.remove(translationKey);
+    }
+  }
+
+  /**
+   * Invalidate all cached outcomes, e.g. once the source was replaced entirely.
+   */
+  public void invalidateAll() {
+    this.outcomes.clear();
+  }
+
+  private Object outcome(final Locale locale, final String translationKey) {
+    final ConcurrentMap<String, Object> localeOutcomes =
+        this.outcomes.computeIfAbsent(locale, ignored -> new ConcurrentHashMap<>());
+    final @Nullable Object outcome = localeOutcomes.get(translationKey);
+    if (outcome != null) {
+      return outcome;
+    }
+
+    return localeOutcomes.computeIfAbsent(translationKey, ignored -> this.resolve(locale, translationKey));
+  }
+
+  private Object resolve(final Locale locale, final String translationKey) {
+    for (final Locale fallback : this.fallbackChain.apply(locale)) {
+      final @Nullable TemplateT template = this.source.template(fallback, translationKey);
+      if (template != null) {
+        return template;
+      }
+    }
+
+    return new MissingTranslationKeyException(translationKey, false);
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard.message;
+
+import java.util.List;
+import java.util.function.BinaryOperator;
+import net.kyori.hazzard.annotation.meta.ThreadSafe;
+
+/**
+ * A merger of messages that are delivered to the same viewer in one batch, e.g. to join several chat lines into a
+ * single packet.
+ *
+ * @param <ViewerT> the viewer type
+ * @param <MessageT> the output/rendered message type
+ */
+@FunctionalInterface
+@ThreadSafe
+public interface IMessageMerger<ViewerT, MessageT> {
+  /**
+   * @return a merger delivering every message as-is
+   */
+  static <ViewerT, MessageT> IMessageMerger<ViewerT, MessageT> identity() {
+    return (viewer, messages) -> messages;
+  }
+
+  /**
+   * @param combiner the combiner of two messages into one, e.g. joining them with a newline
+   * @return a merger delivering all messages of a batch as a single message
+   */
+  static <ViewerT, MessageT> IMessageMerger<ViewerT, MessageT> reducing(final BinaryOperator<MessageT> combiner) {
+    return (viewer, messages) -> {
+      if (messages.size() == 1) {
+        return messages;
+      }
+
+      MessageT merged = messages.get(0);
+      for (int idx = 1; idx < messages.size(); ++idx) {
+        merged = combiner.apply(merged, messages.get(idx));
+      }
+      return List.of(merged);
+    };
+  }
+
+  /**
+   * Merge a batch of messages for the given viewer.
+   *
+   * @param viewer the receiver of the messages
+   * @param messages the messages in the order they were sent; never empty
+   * @return the messages to deliver, in order
+   */
+  List<MessageT> merge(final ViewerT viewer, final List<MessageT> messages);
+}
@@ -0,0 +1,42 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard.message;
+
+import java.util.Locale;
+import net.kyori.hazzard.annotation.meta.ThreadSafe;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A source of templates by locale and translation key, e.g. a layer of a {@link LayeredTemplateLocator}.
+ * <p>
+ * Unlike a {@link TemplateLocator}, a source signals a missing template by returning {@code null}, so it may be asked
+ * for templates it does not have on the hot path without any exceptions being constructed.
+ * </p>
+ *
+ * @param <TemplateT> the intermediate message type
+ */
+@FunctionalInterface
+@ThreadSafe
+public interface ITemplateSource<TemplateT> {
+  /**
+   * @param locale the locale of the template
+   * @param translationKey the key of the template
+   * @return the template, or {@code null} if there is none for the locale and key
+   */
+  @Nullable TemplateT template(final Locale locale, final String translationKey);
+}
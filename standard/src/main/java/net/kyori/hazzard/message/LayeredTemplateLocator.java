@@ -0,0 +1,135 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard.message;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Function;
+import net.kyori.hazzard.annotation.meta.ThreadSafe;
+import net.kyori.hazzard.exception.MissingTranslationKeyException;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A template locator stacking layers of template sources, e.g. per-server overrides above network overrides above
+ * the plugin defaults, without merging them into a copy.
+ * <p>
+ * The template of the first layer having one is cached per locale and translation key, including misses: a key
+ * missing in all layers throws the same cached {@link MissingTranslationKeyException} without a stack trace every
+ * time. Layers are looked up outside of any lock, so they may load templates lazily. The cache is not aware of any
+ * changes to the layers; {@link #templateChanged} invalidates a single entry, and can therefore be registered as a
+ * {@link ITemplateChangeSource#addListener(ITemplateChangeListener) listener} of reloading or evicting layers.
+ * </p>
+ *
+ * @param <ViewerT> the viewer type
+ * @param <TemplateT> the intermediate message type
+ */
+@ThreadSafe
+public final class LayeredTemplateLocator<ViewerT, TemplateT>
+    implements TemplateLocator<ViewerT, TemplateT>, ITemplateSource<TemplateT>, ITemplateChangeListener<TemplateT> {
+  /**
+   * The outcomes by locale and translation key; either a template, a {@link MissingTranslationKeyException}, or the
+   * {@link Resolving} marker of a resolution in progress.
+   */
+  private final ConcurrentMap<Locale, ConcurrentMap<String, Object>> outcomes = new ConcurrentHashMap<>();
+  private final Function<? super ViewerT, Locale> localeLookup;
+  private final List<ITemplateSource<? extends TemplateT>> layers;
+
+  /**
+   * @param localeLookup the lookup of a viewer's locale
+   * @param layers the layers to look templates up in, from the highest to the lowest precedence
+   */
+  public LayeredTemplateLocator(final Function<? super ViewerT, Locale> localeLookup,
+                                final List<? extends ITemplateSource<? extends TemplateT>> layers) {
+    this.localeLookup = localeLookup;
+    this.layers = List.copyOf(layers);
+  }
+
+  @Override
+  @SuppressWarnings("unchecked") // Outcomes are either templates or exceptions.
+  public TemplateT templateOf(final ViewerT viewer, final String translationKey) throws MissingTranslationKeyException {
+    final Object outcome = this.outcome(this.localeLookup.apply(viewer), translationKey);
+    if (outcome instanceof MissingTranslationKeyException missing) {
+      throw missing;
+    }
+
+    return (TemplateT) outcome;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked") // Outcomes are either templates or exceptions.
+  public @Nullable TemplateT template(final Locale locale, final String translationKey) {
+    final Object outcome = this.outcome(locale, translationKey);
+    return outcome instanceof MissingTranslationKeyException ? null : (TemplateT) outcome;
+  }
+
+  private Object outcome(final Locale locale, final String translationKey) {
+    final ConcurrentMap<String, Object> localeOutcomes =
+        this.outcomes.computeIfAbsent(locale, ignored -> new ConcurrentHashMap<>());
+    @Nullable Object outcome = localeOutcomes.get(translationKey);
+    if (outcome == null) {
+      final Resolving resolving = new Resolving();
+      outcome = localeOutcomes.putIfAbsent(translationKey, resolving);
+      if (outcome == null) {
+        outcome = resolving;
+      }
+    }
+    if (!(outcome instanceof Resolving resolving)) {
+      return outcome;
+    }
+
+    // A change while resolving removes the marker, so the possibly stale outcome is returned but never cached.
+    final Object resolved = this.resolve(locale, translationKey);
+    localeOutcomes.replace(translationKey, resolving, resolved);
+    return resolved;
+  }
+
+  private Object resolve(final Locale locale, final String translationKey) {
+    for (final ITemplateSource<? extends TemplateT> layer : this.layers) {
+      final @Nullable TemplateT template = layer.template(locale, translationKey);
+      if (template != null) {
+        return template;
+      }
+    }
+
+    return new MissingTranslationKeyException(translationKey, false);
+  }
+
+  @Override
+  public void templateChanged(final Locale locale, final String translationKey, final @Nullable TemplateT previous,
+                              final @Nullable TemplateT current) {
+    final @Nullable ConcurrentMap<String, Object> localeOutcomes = this.outcomes.get(locale);
+    if (localeOutcomes != null) {
+      localeOutcomes.remove(translationKey);
+    }
+  }
+
+  /**
+   * Invalidate all cached templates, e.g. once a layer was replaced entirely.
+   */
+  public void invalidateAll() {
+    this.outcomes.clear();
+  }
+
+  /**
+   * The marker of a resolution in progress, unique to every resolution so a stale one cannot replace another.
+   */
+  private static final class Resolving {
+  }
+}
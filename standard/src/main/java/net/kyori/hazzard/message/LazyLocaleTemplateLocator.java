@@ -0,0 +1,265 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard.message;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.ToLongFunction;
+import net.kyori.hazzard.annotation.meta.ThreadSafe;
+import net.kyori.hazzard.exception.MissingTranslationKeyException;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.dataflow.qual.Pure;
+
+/**
+ * A template locator loading the templates of a locale once a viewer of it needs one, and evicting the least recently
+ * used locales once the weight of all loaded templates exceeds a budget.
+ * <p>
+ * Locating a template of a loaded locale takes no locks; loading and evicting locales is serialised. The locale being
+ * located is never evicted, even if it exceeds the budget by itself.
+ * </p>
+ * <p>
+ * Every template of an evicted locale is passed to the {@link #addListener(ITemplateChangeListener) listeners} as
+ * removed, so caches stacked on top of this locator do not keep it reachable; they should listen to it for the budget
+ * to hold at all.
+ * </p>
+ *
+ * @param <ViewerT> the viewer type
+ * @param <TemplateT> the intermediate message type
+ */
+@ThreadSafe
+public final class LazyLocaleTemplateLocator<ViewerT, TemplateT>
+    implements TemplateLocator<ViewerT, TemplateT>, ITemplateSource<TemplateT>, ITemplateChangeSource<TemplateT> {
+  /**
+   * The resolution of the default access clock, which keeps locating templates from writing their locale's last
+   * access on every call.
+   */
+  private static final long DEFAULT_ACCESS_RESOLUTION_NANOS = 100_000_000L;
+
+  private final ConcurrentMap<Locale, LoadedLocale<TemplateT>> loadedLocales = new ConcurrentHashMap<>();
+  private final List<ITemplateChangeListener<? super TemplateT>> listeners = new CopyOnWriteArrayList<>();
+  private final Object loadLock = new Object();
+  private final Function<? super ViewerT, Locale> localeLookup;
+  private final Function<Locale, ? extends Map<String, ? extends TemplateT>> localeLoader;
+  private final ToLongFunction<? super TemplateT> weigher;
+  private final long budget;
+  private final LongSupplier accessClock;
+  private long loadedWeight;
+
+  public LazyLocaleTemplateLocator(final Function<? super ViewerT, Locale> localeLookup,
+                                   final Function<Locale, ? extends Map<String, ? extends TemplateT>> localeLoader,
+                                   final ToLongFunction<? super TemplateT> weigher, final long budget) {
+    this(localeLookup, localeLoader, weigher, budget, () -> System.nanoTime() / DEFAULT_ACCESS_RESOLUTION_NANOS);
+  }
+
+  /**
+   * @param localeLookup the lookup of a viewer's locale
+   * @param localeLoader the loader of all templates of a locale by translation key, which may be empty
+   * @param weigher the weigher of a template, e.g. its approximate size in bytes
+   * @param budget the total weight of templates to keep loaded
+   * @param accessClock the coarse clock of accesses, e.g. the current server tick; locales accessed at the same time
+   *     count as equally recent, and their last access is only written once per time
+   */
+  public LazyLocaleTemplateLocator(final Function<? super ViewerT, Locale> localeLookup,
+                                   final Function<Locale, ? extends Map<String, ? extends TemplateT>> localeLoader,
+                                   final ToLongFunction<? super TemplateT> weigher, final long budget,
+                                   final LongSupplier accessClock) {
+    this.localeLookup = localeLookup;
+    this.localeLoader = localeLoader;
+    this.weigher = weigher;
+    this.budget = budget;
+    this.accessClock = accessClock;
+  }
+
+  @Override
+  public TemplateT templateOf(final ViewerT viewer, final String translationKey) throws MissingTranslationKeyException {
+    final @Nullable TemplateT template = this.template(this.localeLookup.apply(viewer), translationKey);
+    if (template == null) {
+      throw new MissingTranslationKeyException(translationKey);
+    }
+
+    return template;
+  }
+
+  @Override
+  public @Nullable TemplateT template(final Locale locale, final String translationKey) {
+    @Nullable LoadedLocale<TemplateT> loaded = this.loadedLocales.get(locale);
+    if (loaded == null) {
+      final Map<Locale, LoadedLocale<TemplateT>> evicted = new HashMap<>();
+      loaded = this.load(locale, evicted);
+      this.notifyEvicted(evicted);
+    }
+
+    // Writing only once per time keeps the threads sharing a locale from contending on its last access.
+    final long now = this.accessClock.getAsLong();
+    if (loaded.lastAccess != now) {
+      loaded.lastAccess = now;
+    }
+    return loaded.templates().get(translationKey);
+  }
+
+  /**
+   * @return an unmodifiable view of the currently loaded locales
+   */
+  @Pure
+  public Set<Locale> loadedLocales() {
+    return this.loadedLocales.keySet();
+  }
+
+  /**
+   * @return the total weight of all currently loaded templates
+   */
+  public long loadedWeight() {
+    synchronized (this.loadLock) {
+      return this.loadedWeight;
+    }
+  }
+
+  /**
+   * Add a listener of the templates of every locale evicted from now on.
+   *
+   * @param listener the listener to add
+   */
+  @Override
+  public void addListener(final ITemplateChangeListener<? super TemplateT> listener) {
+    this.listeners.add(listener);
+  }
+
+  @Override
+  public void removeListener(final ITemplateChangeListener<? super TemplateT> listener) {
+    this.listeners.remove(listener);
+  }
+
+  /**
+   * Evict a locale, regardless of the budget, e.g. once its templates have changed.
+   *
+   * @param locale the locale to evict
+   */
+  public void evict(final Locale locale) {
+    final @Nullable LoadedLocale<TemplateT> loaded;
+    synchronized (this.loadLock) {
+      loaded = this.loadedLocales.remove(locale);
+      if (loaded != null) {
+        this.loadedWeight -= loaded.weight();
+      }
+    }
+    if (loaded != null) {
+      this.notifyEvicted(Map.of(locale, loaded));
+    }
+  }
+
+  private LoadedLocale<TemplateT> load(final Locale locale, final Map<Locale, LoadedLocale<TemplateT>> evicted) {
+    synchronized (this.loadLock) {
+      final @Nullable LoadedLocale<TemplateT> current = this.loadedLocales.get(locale);
+      if (current != null) {
+        // Another thread loaded it while we were waiting.
+        return current;
+      }
+
+      final Map<String, TemplateT> templates = Map.copyOf(this.localeLoader.apply(locale));
+      long weight = 0;
+      for (final TemplateT template : templates.values()) {
+        weight += this.weigher.applyAsLong(template);
+      }
+
+      final LoadedLocale<TemplateT> loaded = new LoadedLocale<>(templates, weight, this.accessClock.getAsLong());
+      this.loadedLocales.put(locale, loaded);
+      this.loadedWeight += weight;
+      this.evictOverBudget(locale, evicted);
+      return loaded;
+    }
+  }
+
+  private void evictOverBudget(final Locale retained, final Map<Locale, LoadedLocale<TemplateT>> evicted) {
+    while (this.loadedWeight > this.budget) {
+      @Nullable Locale leastRecentlyUsed = null;
+      long leastRecentAccess = Long.MAX_VALUE;
+      for (final Map.Entry<Locale, LoadedLocale<TemplateT>> entry : this.loadedLocales.entrySet()) {
+        final long lastAccess = entry.getValue().lastAccess;
+        if (!entry.getKey().equals(retained) && (leastRecentlyUsed == null || lastAccess - leastRecentAccess < 0)) {
+          leastRecentlyUsed = entry.getKey();
+          leastRecentAccess = lastAccess;
+        }
+      }
+
+      if (leastRecentlyUsed == null) {
+        return;
+      }
+
+      final LoadedLocale<TemplateT> loaded = this.loadedLocales.remove(leastRecentlyUsed);
+      this.loadedWeight -= loaded.weight();
+      evicted.put(leastRecentlyUsed, loaded);
+    }
+  }
+
+  /**
+   * Tell every listener about the removal of every template of the evicted locales, outside of the load lock. Every
+   * listener is told about every template, even if others fail; the first failure is rethrown afterwards, with any
+   * further ones suppressed.
+   *
+   * @param evicted the evicted locales
+   */
+  private void notifyEvicted(final Map<Locale, LoadedLocale<TemplateT>> evicted) {
+    @Nullable RuntimeException failure = null;
+    for (final Map.Entry<Locale, LoadedLocale<TemplateT>> locale : evicted.entrySet()) {
+      for (final Map.Entry<String, TemplateT> template : locale.getValue().templates().entrySet()) {
+        for (final ITemplateChangeListener<? super TemplateT> listener : this.listeners) {
+          try {
+            listener.templateChanged(locale.getKey(), template.getKey(), template.getValue(), null);
+          } catch (final RuntimeException ex) {
+            if (failure == null) {
+              failure = ex;
+            } else {
+              failure.addSuppressed(ex);
+            }
+          }
+        }
+      }
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  private static final class LoadedLocale<TemplateT> {
+    private final Map<String, TemplateT> templates;
+    private final long weight;
+    private volatile long lastAccess;
+
+    private LoadedLocale(final Map<String, TemplateT> templates, final long weight, final long loadedAt) {
+      this.templates = templates;
+      this.weight = weight;
+      this.lastAccess = loadedAt;
+    }
+
+    private Map<String, TemplateT> templates() {
+      return this.templates;
+    }
+
+    private long weight() {
+      return this.weight;
+    }
+  }
+}
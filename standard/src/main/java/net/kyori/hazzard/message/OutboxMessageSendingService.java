@@ -0,0 +1,132 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard.message;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import net.kyori.hazzard.annotation.meta.ThreadSafe;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A sending service collecting rendered messages into an outbox per viewer rather than sending them immediately.
+ * <p>
+ * The messages are only delivered through the delegate once {@link #flush()} is called, usually once per tick by a
+ * scheduler, with all messages of a viewer handed to an {@link IMessageMerger} first. A burst of messages, such as the
+ * lines of a help page, thereby costs a single batch per viewer instead of one write per message.
+ * </p>
+ * <p>
+ * Outboxes are kept for as long as their viewers are known, so {@link #discard(Object)} should be called once a viewer
+ * is gone.
+ * </p>
+ *
+ * @param <ViewerT> the viewer type
+ * @param <MessageT> the output/rendered message type
+ */
+@ThreadSafe
+public final class OutboxMessageSendingService<ViewerT, MessageT> implements IMessageSendingService<ViewerT, MessageT> {
+  private final ConcurrentMap<ViewerT, Queue<MessageT>> outboxes = new ConcurrentHashMap<>();
+  private final IMessageSendingService<ViewerT, MessageT> delegate;
+  private final IMessageMerger<ViewerT, MessageT> merger;
+
+  public OutboxMessageSendingService(final IMessageSendingService<ViewerT, MessageT> delegate) {
+    this(delegate, IMessageMerger.identity());
+  }
+
+  public OutboxMessageSendingService(final IMessageSendingService<ViewerT, MessageT> delegate,
+                                     final IMessageMerger<ViewerT, MessageT> merger) {
+    this.delegate = delegate;
+    this.merger = merger;
+  }
+
+  @Override
+  public void send(final ViewerT viewer, final MessageT renderedMessage) {
+    @Nullable Queue<MessageT> outbox = this.outboxes.get(viewer);
+    if (outbox == null) {
+      outbox = this.outboxes.computeIfAbsent(viewer, ignored -> new ConcurrentLinkedQueue<>());
+    }
+    outbox.add(renderedMessage);
+  }
+
+  /**
+   * Deliver the pending messages of every viewer, one batch per viewer.
+   */
+  public void flush() {
+    this.outboxes.forEach(this::flush);
+  }
+
+  /**
+   * Deliver the pending messages of a single viewer.
+   *
+   * @param viewer the viewer to deliver to
+   */
+  public void flush(final ViewerT viewer) {
+    final @Nullable Queue<MessageT> outbox = this.outboxes.get(viewer);
+    if (outbox != null) {
+      this.flush(viewer, outbox);
+    }
+  }
+
+  /**
+   * Drop the outbox of a viewer that is gone, without delivering its pending messages.
+   *
+   * @param viewer the viewer to discard
+   * @return the messages that were pending
+   */
+  public List<MessageT> discard(final ViewerT viewer) {
+    final @Nullable Queue<MessageT> outbox = this.outboxes.remove(viewer);
+    return outbox == null ? List.of() : drain(outbox);
+  }
+
+  /**
+   * @return the amount of messages pending over all viewers
+   */
+  public int pending() {
+    int pending = 0;
+    for (final Queue<MessageT> outbox : this.outboxes.values()) {
+      pending += outbox.size();
+    }
+    return pending;
+  }
+
+  private void flush(final ViewerT viewer, final Queue<MessageT> outbox) {
+    // Concurrent flushes of one outbox would each take a part of the batch and could deliver them out of order.
+    synchronized (outbox) {
+      final List<MessageT> messages = drain(outbox);
+      if (messages.isEmpty()) {
+        return;
+      }
+
+      for (final MessageT message : this.merger.merge(viewer, messages)) {
+        this.delegate.send(viewer, message);
+      }
+    }
+  }
+
+  private static <MessageT> List<MessageT> drain(final Queue<MessageT> outbox) {
+    final List<MessageT> messages = new ArrayList<>();
+    @Nullable MessageT message;
+    while ((message = outbox.poll()) != null) {
+      messages.add(message);
+    }
+    return messages;
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard.message;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongSupplier;
+import net.kyori.hazzard.annotation.meta.ThreadSafe;
+import net.kyori.hazzard.model.HazzardMethod;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A suppression service allowing every viewer at most a number of messages of the same translation key per time
+ * window, regardless of their replacement values.
+ * <p>
+ * Windows are fixed, starting with the first message of a key; the windows of every viewer are remembered until
+ * {@link #forget(Object)} is called for it.
+ * </p>
+ *
+ * @param <ViewerT> the viewer type
+ * @param <ReplacementT> the finalised replacement type
+ */
+@ThreadSafe
+public final class RateLimitingMessageSuppressionService<ViewerT, ReplacementT>
+    implements IMessageSuppressionService<ViewerT, ReplacementT> {
+  private final ConcurrentMap<ViewerT, ConcurrentMap<String, Window>> windows = new ConcurrentHashMap<>();
+  private final int permits;
+  private final long windowNanos;
+  private final LongSupplier nanoClock;
+
+  public RateLimitingMessageSuppressionService(final int permits, final Duration window) {
+    this(permits, window, System::nanoTime);
+  }
+
+  /**
+   * @param permits the amount of messages of a translation key a viewer may receive per window
+   * @param window the length of a window
+   * @param nanoClock the source of the current time in nanoseconds, e.g. {@link System#nanoTime()}
+   */
+  public RateLimitingMessageSuppressionService(final int permits, final Duration window, final LongSupplier nanoClock) {
+    if (permits < 1) {
+      throw new IllegalArgumentException("permits must be positive; got " + permits);
+    }
+
+    this.permits = permits;
+    this.windowNanos = window.toNanos();
+    this.nanoClock = nanoClock;
+  }
+
+  @Override
+  public boolean suppress(final ViewerT viewer, final HazzardMethod<? extends ViewerT> hazzardMethod,
+                          final Map<String, ? extends ReplacementT> replacementValues) {
+    final long now = this.nanoClock.getAsLong();
+    final Window window = this.windows.computeIfAbsent(viewer, ignored -> new ConcurrentHashMap<>())
+        .compute(hazzardMethod.translationKey(), (key, current) -> this.next(current, now));
+    return window.sent() > this.permits;
+  }
+
+  /**
+   * Forget the windows of a viewer, e.g. once it is gone.
+   *
+   * @param viewer the viewer to forget
+   */
+  public void forget(final ViewerT viewer) {
+    this.windows.remove(viewer);
+  }
+
+  private Window next(final @Nullable Window current, final long now) {
+    if (current == null || now - current.start() >= this.windowNanos) {
+      return new Window(now, 1);
+    }
+
+    // Stop counting once over the limit, so a key fired every tick for hours cannot overflow.
+    return current.sent() > this.permits ? current : new Window(current.start(), current.sent() + 1);
+  }
+
+  private record Window(long start, int sent) {
+  }
+}
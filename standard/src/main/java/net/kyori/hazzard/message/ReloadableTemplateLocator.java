@@ -0,0 +1,185 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard.message;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import net.kyori.hazzard.annotation.meta.ThreadSafe;
+import net.kyori.hazzard.exception.MissingTranslationKeyException;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.dataflow.qual.Pure;
+
+/**
+ * A template locator serving templates from a {@link TemplateCatalog} snapshot, which may be reloaded at any time.
+ * <p>
+ * A reload loads an entirely new catalog before publishing it, so locating a template never blocks and always sees
+ * either the previous or the new catalog in full. Reloads are serialised; a failing reload keeps the previous catalog.
+ * </p>
+ * <p>
+ * Templates equal to those of the previous catalog keep their previous instance, and only the changed templates are
+ * passed to the {@link #addListener(ITemplateChangeListener) listeners} after publishing.
+ * </p>
+ *
+ * @param <ViewerT> the viewer type
+ * @param <TemplateT> the intermediate message type
+ */
+@ThreadSafe
+public final class ReloadableTemplateLocator<ViewerT, TemplateT>
+    implements TemplateLocator<ViewerT, TemplateT>, ITemplateSource<TemplateT>, ITemplateChangeSource<TemplateT> {
+  private final Object reloadLock = new Object();
+  private final List<ITemplateChangeListener<? super TemplateT>> listeners = new CopyOnWriteArrayList<>();
+  private final Function<? super ViewerT, Locale> localeLookup;
+  private final Supplier<TemplateCatalog<TemplateT>> catalogLoader;
+  private volatile TemplateCatalog<TemplateT> catalog;
+
+  /**
+   * Create a locator, loading its initial catalog on the current thread.
+   *
+   * @param localeLookup the lookup of a viewer's locale
+   * @param catalogLoader the loader of a complete catalog, called on every reload
+   */
+  public ReloadableTemplateLocator(final Function<? super ViewerT, Locale> localeLookup,
+                                   final Supplier<TemplateCatalog<TemplateT>> catalogLoader) {
+    this.localeLookup = localeLookup;
+    this.catalogLoader = catalogLoader;
+    this.catalog = catalogLoader.get();
+  }
+
+  @Override
+  public TemplateT templateOf(final ViewerT viewer, final String translationKey) throws MissingTranslationKeyException {
+    final @Nullable TemplateT template = this.template(this.localeLookup.apply(viewer), translationKey);
+    if (template == null) {
+      throw new MissingTranslationKeyException(translationKey);
+    }
+
+    return template;
+  }
+
+  @Override
+  public @Nullable TemplateT template(final Locale locale, final String translationKey) {
+    return this.catalog.template(locale, translationKey);
+  }
+
+  /**
+   * @return the currently published catalog
+   */
+  @Pure
+  public TemplateCatalog<TemplateT> catalog() {
+    return this.catalog;
+  }
+
+  /**
+   * Add a listener of the templates changed by every following reload.
+   *
+   * @param listener the listener to add
+   */
+  @Override
+  public void addListener(final ITemplateChangeListener<? super TemplateT> listener) {
+    this.listeners.add(listener);
+  }
+
+  @Override
+  public void removeListener(final ITemplateChangeListener<? super TemplateT> listener) {
+    this.listeners.remove(listener);
+  }
+
+  /**
+   * Load a new catalog on the current thread and publish it.
+   * <p>
+   * Every listener is told about every change, even if others fail; the first failure is rethrown afterwards, with
+   * any further ones suppressed, though the catalog stays published.
+   * </p>
+   *
+   * @return the published catalog
+   */
+  public TemplateCatalog<TemplateT> reload() {
+    synchronized (this.reloadLock) {
+      final TemplateCatalog<TemplateT> previous = this.catalog;
+      final TemplateCatalog<TemplateT> loaded = this.catalogLoader.get();
+      final List<Change<TemplateT>> changes = new ArrayList<>();
+      final Map<Locale, Map<String, TemplateT>> templates = new HashMap<>();
+
+      for (final Locale locale : loaded.locales()) {
+        final Map<String, TemplateT> previousTemplates = previous.templates(locale);
+        final Map<String, TemplateT> localeTemplates = new HashMap<>(loaded.templates(locale));
+        localeTemplates.replaceAll((translationKey, template) -> {
+          final @Nullable TemplateT previousTemplate = previousTemplates.get(translationKey);
+          if (template.equals(previousTemplate)) {
+            return previousTemplate;
+          }
+
+          changes.add(new Change<>(locale, translationKey, previousTemplate, template));
+          return template;
+        });
+        templates.put(locale, localeTemplates);
+      }
+
+      for (final Locale locale : previous.locales()) {
+        final Map<String, TemplateT> loadedTemplates = loaded.templates(locale);
+        previous.templates(locale).forEach((translationKey, template) -> {
+          if (!loadedTemplates.containsKey(translationKey)) {
+            changes.add(new Change<>(locale, translationKey, template, null));
+          }
+        });
+      }
+
+      final TemplateCatalog<TemplateT> catalog = TemplateCatalog.of(templates);
+      this.catalog = catalog;
+      @Nullable RuntimeException failure = null;
+      for (final Change<TemplateT> change : changes) {
+        for (final ITemplateChangeListener<? super TemplateT> listener : this.listeners) {
+          try {
+            listener.templateChanged(change.locale(), change.translationKey(), change.previous(), change.current());
+          } catch (final RuntimeException ex) {
+            if (failure == null) {
+              failure = ex;
+            } else {
+              failure.addSuppressed(ex);
+            }
+          }
+        }
+      }
+      if (failure != null) {
+        throw failure;
+      }
+      return catalog;
+    }
+  }
+
+  /**
+   * Load a new catalog on the given executor and publish it.
+   *
+   * @param executor the executor to load the catalog on
+   * @return a future of the published catalog
+   */
+  public CompletableFuture<TemplateCatalog<TemplateT>> reloadAsync(final Executor executor) {
+    return CompletableFuture.supplyAsync(this::reload, executor);
+  }
+
+  private record Change<TemplateT>(Locale locale, String translationKey, @Nullable TemplateT previous,
+                                   @Nullable TemplateT current) {
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard.message;
+
+import java.util.function.Function;
+import net.kyori.hazzard.strategy.IElementJoiner;
+
+/**
+ * A standard joiner of string replacements, separating the elements and ending the result with the truncation marker if
+ * any elements were skipped.
+ *
+ * @param separator the separator between elements
+ * @param truncationMarker the marker appended in place of skipped elements, e.g. {@code ", ..."}
+ * @param maxElements the maximum amount of elements to join
+ * @param maxLength the maximum length of the joined elements, excluding the truncation marker; an element exceeding
+ *     it is skipped along with all following elements
+ * @param elementToStringConverter the converter of resolved elements to strings
+ * @param stringToReplacementConverter the converter of the joined string back to a replacement
+ */
+public record StringElementJoiner<ReplacementT>(
+    String separator,
+    String truncationMarker,
+    int maxElements,
+    int maxLength,
+    Function<ReplacementT, String> elementToStringConverter,
+    Function<String, ReplacementT> stringToReplacementConverter
+) implements IElementJoiner<ReplacementT> {
+  public StringElementJoiner {
+    if (maxElements < 0 || maxLength < 0) {
+      throw new IllegalArgumentException("limits must not be negative");
+    }
+  }
+
+  /**
+   * @param separator the separator between elements
+   * @param truncationMarker the marker appended in place of skipped elements
+   * @param maxElements the maximum amount of elements to join
+   * @param maxLength the maximum length of the joined elements, excluding the truncation marker
+   * @return a joiner of plain string replacements
+   */
+  public static StringElementJoiner<String> strings(final String separator, final String truncationMarker,
+                                                    final int maxElements, final int maxLength) {
+    return new StringElementJoiner<>(separator, truncationMarker, maxElements, maxLength,
+        Function.identity(), Function.identity());
+  }
+
+  @Override
+  public Joining<ReplacementT> join() {
+    return new Joining<>() {
+      private final StringBuilder joined = new StringBuilder();
+      private int elements;
+      private boolean truncated;
+
+      @Override
+      public boolean append(final ReplacementT element) {
+        final String string = StringElementJoiner.this.elementToStringConverter.apply(element);
+        final int length = this.elements == 0
+            ? string.length()
+            : this.joined.length() + StringElementJoiner.this.separator.length() + string.length();
+        if (this.elements == StringElementJoiner.this.maxElements || length > StringElementJoiner.this.maxLength) {
+          this.truncated = true;
+          return false;
+        }
+
+        if (this.elements++ != 0) {
+          this.joined.append(StringElementJoiner.this.separator);
+        }
+        this.joined.append(string);
+        return this.elements != StringElementJoiner.this.maxElements;
+      }
+
+      @Override
+      public boolean refused() {
+        return this.truncated;
+      }
+
+      @Override
+      public ReplacementT finish(final boolean exhausted) {
+        if (this.truncated || !exhausted) {
+          this.joined.append(StringElementJoiner.this.truncationMarker);
+        }
+        return StringElementJoiner.this.stringToReplacementConverter.apply(this.joined.toString());
+      }
+    };
+  }
+}
@@ -51,4 +51,9 @@ public record StringMessageComposer<ViewerT, TemplateT, MessageT, ReplacementT>(
     }
     return this.stringToOutputConverter.apply(intermediate);
   }
+
+  @Override
+  public boolean isViewerInvariant() {
+    return true;
+  }
 }
@@ -0,0 +1,69 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard.message;
+
+import java.util.Map;
+import java.util.function.Function;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A standard folder for string templates, substituting {@code "${prefix}${name}${suffix}"} the same way as
+ * {@link StringMessageComposer}.
+ * <p>
+ * The template is scanned once from left to right, so placeholders within the values of global variables are never
+ * substituted themselves. Those values are still composed along with the variables of every invocation though, and
+ * should thus not contain any placeholders of them either.
+ * </p>
+ */
+public record StringTemplateFolder<ReplacementT>(
+    String prefix,
+    String suffix,
+    Function<ReplacementT, String> templateArgumentToStringConverter
+) implements ITemplateFolder<String, ReplacementT> {
+  public StringTemplateFolder {
+    if (prefix.isEmpty()) {
+      throw new IllegalArgumentException("prefix must not be empty");
+    }
+  }
+
+  @Override
+  public String fold(final String template, final Map<String, ? extends ReplacementT> globalVariables) {
+    final StringBuilder folded = new StringBuilder(template.length());
+    int from = 0;
+    int start;
+    while ((start = template.indexOf(this.prefix, from)) >= 0) {
+      final int nameStart = start + this.prefix.length();
+      final int end = template.indexOf(this.suffix, nameStart);
+      if (end < 0) {
+        break;
+      }
+
+      final @Nullable ReplacementT value = globalVariables.get(template.substring(nameStart, end));
+      if (value == null) {
+        // Anything but a global variable is kept, though it may still end another placeholder.
+        folded.append(template, from, nameStart);
+        from = nameStart;
+        continue;
+      }
+
+      folded.append(template, from, start).append(this.templateArgumentToStringConverter.apply(value));
+      from = end + this.suffix.length();
+    }
+    return folded.append(template, from, template.length()).toString();
+  }
+}
@@ -0,0 +1,44 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard.message;
+
+import java.util.Set;
+import java.util.function.Function;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A standard validator checking that string templates use every variable as {@code "${prefix}${name}${suffix}"}, the
+ * same way {@link StringMessageComposer} replaces them.
+ */
+public record StringTemplateValidator<TemplateT>(
+    String prefix,
+    String suffix,
+    Function<TemplateT, String> intermediateToStringConverter
+) implements ITemplateValidator<TemplateT> {
+  @Override
+  public @Nullable String validate(final TemplateT template, final Set<String> variableNames) {
+    final String intermediate = this.intermediateToStringConverter.apply(template);
+    for (final String variableName : variableNames) {
+      if (!intermediate.contains(this.prefix + variableName + this.suffix)) {
+        return "Template does not use variable " + variableName + ": " + intermediate;
+      }
+    }
+
+    return null;
+  }
+}
@@ -0,0 +1,159 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard.message;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import net.kyori.hazzard.annotation.meta.ThreadSafe;
+import net.kyori.hazzard.message.AsyncMessageSendingService.OverflowPolicy;
+
+/**
+ * A sending service delivering messages concurrently across viewers while keeping the order of messages to any single
+ * viewer.
+ * <p>
+ * Every viewer is striped onto one of a fixed set of lanes by its {@link Object#hashCode() hash}, each lane being an
+ * {@link AsyncMessageSendingService} with a single consumer thread. Messages to one viewer thereby always pass through
+ * the same thread in order, while different viewers are delivered in parallel.
+ * </p>
+ *
+ * @param <ViewerT> the viewer type
+ * @param <MessageT> the output/rendered message type
+ */
+@ThreadSafe
+public final class StripedMessageSendingService<ViewerT, MessageT>
+    implements IMessageSendingService<ViewerT, MessageT>, AutoCloseable {
+  private static final AtomicInteger THREAD_COUNTER = new AtomicInteger();
+
+  private final AsyncMessageSendingService<ViewerT, MessageT>[] lanes;
+
+  /**
+   * Create a new service with one daemon thread per lane.
+   *
+   * @param delegate the service to deliver messages with
+   * @param lanes the amount of lanes, usually the amount of available cores
+   * @param laneCapacity the maximum amount of pending messages per lane
+   * @param overflowPolicy the policy once a lane's capacity is reached
+   */
+  public StripedMessageSendingService(final IMessageSendingService<ViewerT, MessageT> delegate, final int lanes,
+                                      final int laneCapacity, final OverflowPolicy overflowPolicy) {
+    this(delegate, lanes, laneCapacity, overflowPolicy, runnable -> {
+      final Thread thread = new Thread(runnable, "hazzard-striped-sender-" + THREAD_COUNTER.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  /**
+   * Create a new service, starting the threads of all lanes immediately.
+   *
+   * @param delegate the service to deliver messages with
+   * @param lanes the amount of lanes, usually the amount of available cores
+   * @param laneCapacity the maximum amount of pending messages per lane
+   * @param overflowPolicy the policy once a lane's capacity is reached
+   * @param threadFactory the factory of the lane threads
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"}) // Generic array creation.
+  public StripedMessageSendingService(final IMessageSendingService<ViewerT, MessageT> delegate, final int lanes,
+                                      final int laneCapacity, final OverflowPolicy overflowPolicy,
+                                      final ThreadFactory threadFactory) {
+    if (lanes < 1) {
+      throw new IllegalArgumentException("lanes must be positive; got " + lanes);
+    }
+
+    this.lanes = new AsyncMessageSendingService[lanes];
+    for (int idx = 0; idx < lanes; ++idx) {
+      this.lanes[idx] = new AsyncMessageSendingService<>(delegate, laneCapacity, overflowPolicy, 1, threadFactory);
+    }
+  }
+
+  @Override
+  public void send(final ViewerT viewer, final MessageT renderedMessage) {
+    this.lane(viewer).send(viewer, renderedMessage);
+  }
+
+  /**
+   * @param viewer the viewer to find the lane of
+   * @return the lane all messages to the viewer pass through
+   */
+  public AsyncMessageSendingService<ViewerT, MessageT> lane(final ViewerT viewer) {
+    final int hash = viewer.hashCode();
+    // Spread the higher bits downwards, so hash codes differing only in those still end up on different lanes.
+    return this.lanes[Math.floorMod(hash ^ (hash >>> 16), this.lanes.length)];
+  }
+
+  /**
+   * @return the amount of lanes
+   */
+  public int lanes() {
+    return this.lanes.length;
+  }
+
+  /**
+   * @return the amount of messages currently waiting to be delivered over all lanes
+   */
+  public int queueDepth() {
+    int depth = 0;
+    for (final AsyncMessageSendingService<ViewerT, MessageT> lane : this.lanes) {
+      depth += lane.queueDepth();
+    }
+    return depth;
+  }
+
+  /**
+   * @return the amount of messages handed to the delegate so far over all lanes
+   */
+  public long deliveredCount() {
+    long delivered = 0;
+    for (final AsyncMessageSendingService<ViewerT, MessageT> lane : this.lanes) {
+      delivered += lane.deliveredCount();
+    }
+    return delivered;
+  }
+
+  /**
+   * @return the amount of messages dropped due to overflow so far over all lanes
+   */
+  public long droppedCount() {
+    long dropped = 0;
+    for (final AsyncMessageSendingService<ViewerT, MessageT> lane : this.lanes) {
+      dropped += lane.droppedCount();
+    }
+    return dropped;
+  }
+
+  /**
+   * @return the amount of messages replaced by a newer message to the same viewer so far over all lanes
+   */
+  public long coalescedCount() {
+    long coalesced = 0;
+    for (final AsyncMessageSendingService<ViewerT, MessageT> lane : this.lanes) {
+      coalesced += lane.coalescedCount();
+    }
+    return coalesced;
+  }
+
+  /**
+   * Stop accepting messages, deliver all pending ones and wait for the lane threads to finish.
+   */
+  @Override
+  public void close() {
+    for (final AsyncMessageSendingService<ViewerT, MessageT> lane : this.lanes) {
+      lane.close();
+    }
+  }
+}
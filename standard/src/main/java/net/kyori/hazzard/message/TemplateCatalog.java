@@ -0,0 +1,89 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard.message;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import net.kyori.hazzard.annotation.meta.ThreadSafe;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.checkerframework.dataflow.qual.Pure;
+
+/**
+ * An immutable snapshot of templates by locale and translation key.
+ *
+ * @param <TemplateT> the intermediate message type
+ */
+@ThreadSafe
+public final class TemplateCatalog<TemplateT> implements ITemplateSource<TemplateT> {
+  private static final TemplateCatalog<?> EMPTY = new TemplateCatalog<>(Collections.emptyMap());
+
+  private final Map<Locale, Map<String, TemplateT>> templates;
+
+  private TemplateCatalog(final Map<Locale, Map<String, TemplateT>> templates) {
+    this.templates = templates;
+  }
+
+  /**
+   * @return an empty catalog
+   */
+  @SuppressWarnings("unchecked") // The empty catalog contains no templates of any type.
+  public static <TemplateT> TemplateCatalog<TemplateT> empty() {
+    return (TemplateCatalog<TemplateT>) EMPTY;
+  }
+
+  /**
+   * Create a catalog of a copy of the given templates.
+   *
+   * @param templates the templates by locale and translation key
+   * @param <TemplateT> the intermediate message type
+   * @return the created catalog
+   */
+  public static <TemplateT> TemplateCatalog<TemplateT> of(
+      final Map<Locale, ? extends Map<String, ? extends TemplateT>> templates) {
+    final Map<Locale, Map<String, TemplateT>> copy = new HashMap<>(templates.size());
+    templates.forEach((locale, localeTemplates) -> copy.put(locale, Map.copyOf(localeTemplates)));
+    return new TemplateCatalog<>(Collections.unmodifiableMap(copy));
+  }
+
+  @Override
+  @Pure
+  public @Nullable TemplateT template(final Locale locale, final String translationKey) {
+    final @Nullable Map<String, TemplateT> localeTemplates = this.templates.get(locale);
+    return localeTemplates == null ? null : localeTemplates.get(translationKey);
+  }
+
+  /**
+   * @param locale the locale of the templates
+   * @return an unmodifiable map of all templates of the locale by translation key
+   */
+  @Pure
+  public Map<String, TemplateT> templates(final Locale locale) {
+    return this.templates.getOrDefault(locale, Collections.emptyMap());
+  }
+
+  /**
+   * @return an unmodifiable set of all locales with templates
+   */
+  @Pure
+  public Set<Locale> locales() {
+    return this.templates.keySet();
+  }
+}
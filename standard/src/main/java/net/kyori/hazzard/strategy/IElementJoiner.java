@@ -0,0 +1,82 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard.strategy;
+
+import net.kyori.hazzard.annotation.meta.NotThreadSafe;
+import net.kyori.hazzard.annotation.meta.ThreadSafe;
+
+/**
+ * A joiner of the resolved elements of an {@link Iterable} or {@link java.util.stream.Stream} template argument into a
+ * single replacement.
+ * <p>
+ * The elements are resolved and appended one by one, while iterating the argument. Once the joining refuses another
+ * element, e.g. because a maximum amount of elements or characters is reached, iterating stops, so elements past the
+ * limit are never resolved at all.
+ * </p>
+ * <p>
+ * Every element must resolve to a single variable named like the argument itself, as that is the one appended.
+ * Elements which do not, e.g. resolving {@code players} into {@code players_name}, fail the resolution with an
+ * {@link net.kyori.hazzard.exception.UnfulfilledVariableReplacementException}.
+ * </p>
+ *
+ * @param <ReplacementT> the finalised replacement type
+ */
+@FunctionalInterface
+@ThreadSafe
+public interface IElementJoiner<ReplacementT> {
+  /**
+   * Start joining the elements of a single template argument.
+   *
+   * @return the joining of the elements
+   */
+  Joining<ReplacementT> join();
+
+  /**
+   * The joining of the elements of a single template argument.
+   *
+   * @param <ReplacementT> the finalised replacement type
+   */
+  @NotThreadSafe
+  interface Joining<ReplacementT> {
+    /**
+     * Append the next element.
+     *
+     * @param element the resolved element
+     * @return whether any further element may be appended; if not, the remaining elements are skipped
+     */
+    boolean append(final ReplacementT element);
+
+    /**
+     * Whether an element was refused already, so that some elements are known to be skipped without
+     * looking for further elements.
+     *
+     * @return whether an element was refused
+     */
+    default boolean refused() {
+      return false;
+    }
+
+    /**
+     * Finish joining the elements.
+     *
+     * @param exhausted whether all elements were appended, rather than some being skipped
+     * @return the joined replacement
+     */
+    ReplacementT finish(final boolean exhausted);
+  }
+}
@@ -20,12 +20,20 @@ package net.kyori.hazzard.strategy;
 import static java.util.Collections.emptyNavigableSet;
 
 import io.leangen.geantyref.GenericTypeReflector;
+import java.lang.reflect.Method;
 import java.lang.reflect.Parameter;
+import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.function.IntPredicate;
+import java.util.stream.Stream;
 import net.kyori.hazzard.Hazzard;
 import net.kyori.hazzard.annotation.TemplateArgument;
 import net.kyori.hazzard.annotation.meta.ThreadSafe;
@@ -33,6 +41,7 @@ import net.kyori.hazzard.exception.VariableResolutionException;
 import net.kyori.hazzard.exception.UnfulfilledVariableReplacementException;
 import net.kyori.hazzard.internal.PrefixedDelegateIterator;
 import net.kyori.hazzard.model.HazzardMethod;
+import net.kyori.hazzard.model.ScannedPlaceholder;
 import net.kyori.hazzard.variable.IntermediateValue;
 import net.kyori.hazzard.variable.ITemplateVariableResolver;
 import net.kyori.hazzard.strategy.supertype.ISupertypeStrategy;
@@ -43,8 +52,25 @@ public final class StandardTemplateVariableResolution<ViewerT, TemplateT, Replac
         net.kyori.hazzard.strategy.ITemplateVariableResolver<ViewerT, TemplateT, ReplacementT> {
   private final ISupertypeStrategy supertypeStrategy;
 
+  /**
+   * The joiner of the elements of {@link Iterable} and {@link Stream} arguments, or {@code null} to resolve these
+   * arguments as a whole.
+   */
+  private final @Nullable IElementJoiner<ReplacementT> elementJoiner;
+
   public StandardTemplateVariableResolution(final ISupertypeStrategy supertypeStrategy) {
+    this(supertypeStrategy, null);
+  }
+
+  /**
+   * @param supertypeStrategy the strategy of iterating the supertypes of arguments to find variable resolvers for
+   * @param elementJoiner the joiner of the elements of {@link Iterable} and {@link Stream} arguments, which are then
+   *     resolved element by element, or {@code null} to resolve these arguments as a whole
+   */
+  public StandardTemplateVariableResolution(final ISupertypeStrategy supertypeStrategy,
+                                            final @Nullable IElementJoiner<ReplacementT> elementJoiner) {
     this.supertypeStrategy = supertypeStrategy;
+    this.elementJoiner = elementJoiner;
   }
 
   @Override
@@ -53,36 +79,44 @@ public final class StandardTemplateVariableResolution<ViewerT, TemplateT, Replac
                                                               final HazzardMethod<? extends ViewerT> hazzardMethod,
                                                               final @Nullable Object[] parameters)
       throws VariableResolutionException {
-    if (parameters.length == 0) {
+    return this.resolveVariables(hazzard, receiver, template, hazzardMethod, parameters, idx -> true);
+  }
+
+  @Override
+  public Map<String, ? extends ReplacementT> resolveVariables(final Hazzard<ViewerT, TemplateT, ?, ReplacementT> hazzard,
+                                                              final ViewerT receiver, final TemplateT template,
+                                                              final HazzardMethod<? extends ViewerT> hazzardMethod,
+                                                              final @Nullable Object[] parameters,
+                                                              final IntPredicate parameterFilter)
+      throws VariableResolutionException {
+    final List<ScannedPlaceholder> placeholders = hazzardMethod.placeholders();
+    if (placeholders.isEmpty()) {
       return Collections.emptyMap();
     }
 
-    final Map<String, ReplacementT> finalisedPlaceholders = new LinkedHashMap<>(parameters.length);
+    final Map<String, ReplacementT> finalisedPlaceholders = new LinkedHashMap<>(placeholders.size());
     final Map<String, IntermediateValue<?>> resolvingPlaceholders = new LinkedHashMap<>(16);
-    final Parameter[] methodParameters = hazzardMethod.reflectMethod().getParameters();
     final Type[] exactParameterTypes = GenericTypeReflector.getParameterTypes(
         hazzardMethod.reflectMethod(), hazzard.proxiedType());
 
-    for (int idx = 0; idx < parameters.length; ++idx) {
-      final Parameter parameter = methodParameters[idx];
+    // The placeholders were scanned once with the method, rather than reading the annotations on every invocation.
+    for (final ScannedPlaceholder placeholder : placeholders) {
+      final int idx = placeholder.parameterIndex();
       final @Nullable Object value = parameters[idx];
-      if (value == null) {
+      if (value == null || !parameterFilter.test(idx)) {
         // Nothing to resolve with.
         continue;
       }
 
-      final Type parameterType = GenericTypeReflector.getExactSubType(
-          exactParameterTypes[idx], value.getClass());
-
-      final @Nullable TemplateArgument templateArgument = parameter.getAnnotation(TemplateArgument.class);
-      if (templateArgument == null) {
-        // Nothing to resolve.
+      final String placeholderName = placeholder.name();
+      if (this.elementJoiner != null && (value instanceof Iterable<?> || value instanceof Stream<?>)) {
+        finalisedPlaceholders.put(placeholderName, this.joinElements(hazzard, receiver, this.elementJoiner,
+            placeholderName, value, exactParameterTypes[idx], hazzardMethod, parameters));
         continue;
       }
 
-      final String placeholderName = templateArgument.value().isEmpty()
-          ? parameter.getName()
-          : templateArgument.value();
+      final Type parameterType = GenericTypeReflector.getExactSubType(
+          exactParameterTypes[idx], value.getClass());
       resolvingPlaceholders
           .put(placeholderName, IntermediateValue.continuanceValue(value, parameterType));
     }
@@ -93,6 +127,117 @@ public final class StandardTemplateVariableResolution<ViewerT, TemplateT, Replac
     return finalisedPlaceholders;
   }
 
+  @Override
+  public List<ScannedPlaceholder> scanPlaceholders(final Method method) {
+    final Parameter[] parameters = method.getParameters();
+    final List<ScannedPlaceholder> placeholders = new ArrayList<>(parameters.length);
+    for (int idx = 0; idx < parameters.length; ++idx) {
+      final Parameter parameter = parameters[idx];
+      final @Nullable TemplateArgument templateArgument = parameter.getAnnotation(TemplateArgument.class);
+      if (templateArgument != null) {
+        placeholders.add(new ScannedPlaceholder(
+            templateArgument.value().isEmpty() ? parameter.getName() : templateArgument.value(),
+            idx, templateArgument.validated()));
+      }
+    }
+
+    return placeholders;
+  }
+
+  @Override
+  public boolean resolvesNoVariables(final HazzardMethod<? extends ViewerT> hazzardMethod) {
+    return hazzardMethod.placeholders().isEmpty();
+  }
+
+  @Override
+  public Set<String> variableNames(final HazzardMethod<? extends ViewerT> hazzardMethod) {
+    final Set<String> variableNames = new LinkedHashSet<>();
+    for (final ScannedPlaceholder placeholder : hazzardMethod.placeholders()) {
+      if (placeholder.validated()) {
+        variableNames.add(placeholder.name());
+      }
+    }
+
+    return variableNames;
+  }
+
+  @Override
+  public void close() {
+    this.supertypeStrategy.close();
+  }
+
+  @Override
+  public void evict(final ClassLoader classLoader) {
+    this.supertypeStrategy.evict(classLoader);
+  }
+
+  /**
+   * Resolve the elements of an {@link Iterable} or {@link Stream} argument one by one, until the joiner refuses any
+   * more of them.
+   *
+   * @param hazzard the hazzard instance
+   * @param elementJoiner the joiner of the resolved elements
+   * @param placeholderName the name of the variable of the argument, under which every element is resolved
+   * @param value the argument
+   * @param parameterType the exact type of the parameter
+   * @param hazzardMethod the method we are resolving a placeholder for
+   * @return the joined elements
+   * @throws UnfulfilledVariableReplacementException if an element does not resolve to the variable of the argument
+   */
+  private ReplacementT joinElements(final Hazzard<ViewerT, TemplateT, ?, ReplacementT> hazzard, final ViewerT receiver,
+                                    final IElementJoiner<ReplacementT> elementJoiner, final String placeholderName,
+                                    final Object value, final Type parameterType,
+                                    final HazzardMethod<? extends ViewerT> hazzardMethod,
+                                    final @Nullable Object[] parameters)
+      throws UnfulfilledVariableReplacementException {
+    final Class<?> container = value instanceof Stream<?> ? Stream.class : Iterable.class;
+    final @Nullable Type elementType = GenericTypeReflector.getTypeParameter(parameterType,
+        container.getTypeParameters()[0]);
+
+    final IElementJoiner.Joining<ReplacementT> joining = elementJoiner.join();
+    final Map<String, ReplacementT> resolvedElement = new LinkedHashMap<>(1);
+    final Map<String, IntermediateValue<?>> resolvingElement = new LinkedHashMap<>(1);
+    // Streams are closed as they are consumed here, but iterables are owned by the caller.
+    try (final @Nullable Stream<?> stream = value instanceof Stream<?> valueStream ? valueStream : null) {
+      final Iterator<?> elements = stream != null ? stream.iterator() : ((Iterable<?>) value).iterator();
+      while (elements.hasNext()) {
+        final @Nullable Object element = elements.next();
+        if (element == null) {
+          continue;
+        }
+
+        resolvedElement.clear();
+        resolvingElement.put(placeholderName,
+            IntermediateValue.continuanceValue(element, exactElementType(elementType, element)));
+        this.resolvePlaceholder(hazzard, receiver, resolvedElement, resolvingElement, hazzardMethod, parameters);
+
+        final @Nullable ReplacementT resolved = resolvedElement.get(placeholderName);
+        if (resolved == null) {
+          // Any differently named variables of the element have nowhere to go.
+          throw new UnfulfilledVariableReplacementException(hazzardMethod, placeholderName, element);
+        }
+        if (!joining.append(resolved)) {
+          // A refused element is known to be skipped; only look for another one when the joiner is full.
+          return joining.finish(!joining.refused() && !elements.hasNext());
+        }
+      }
+    }
+
+    return joining.finish(true);
+  }
+
+  private static Type exactElementType(final @Nullable Type elementType, final Object element) {
+    // Wildcards and type variables say nothing more than the element itself.
+    if (elementType instanceof Class<?> || elementType instanceof ParameterizedType) {
+      final @Nullable Type exactElementType = GenericTypeReflector.getExactSubType(elementType, element.getClass());
+      if (exactElementType != null) {
+        return exactElementType;
+      }
+    }
+
+    return element.getClass();
+  }
+
   /**
    * Resolve a single template argument.
    *
@@ -34,4 +34,19 @@ public interface ISupertypeStrategy {
    * @return the hierarchy type iterator
    */
   Iterator<Type> hierarchyIterator(final Type type);
+
+  /**
+   * Release any cached hierarchies, e.g. of types of an unloaded class loader. The strategy stays usable afterwards.
+   */
+  default void close() {
+  }
+
+  /**
+   * Release the cached hierarchies involving types of the given class loader, e.g. once the last proxy of its types
+   * was closed, so it can be unloaded. The strategy stays usable afterwards.
+   *
+   * @param classLoader the class loader to release the types of
+   */
+  default void evict(final ClassLoader classLoader) {
+  }
 }
@@ -18,7 +18,14 @@
 package net.kyori.hazzard.strategy.supertype;
 
 import io.leangen.geantyref.GenericTypeReflector;
+import java.lang.reflect.Executable;
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.GenericDeclaration;
+import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
@@ -98,6 +105,48 @@ public final class StandardSupertypeThenInterfaceSupertypeStrategy implements IS
     }).iterator();
   }
 
+  @Override
+  public void close() {
+    this.typeToHierarchyCache.clear();
+  }
+
+  @Override
+  public void evict(final ClassLoader classLoader) {
+    this.typeToHierarchyCache.entrySet().removeIf(entry -> isDefinedBy(entry.getKey(), classLoader)
+        || entry.getValue().stream().anyMatch(type -> isDefinedBy(type, classLoader)));
+  }
+
+  private static boolean isDefinedBy(final Type type, final ClassLoader classLoader) {
+    if (type instanceof Class<?> clazz) {
+      Class<?> componentType = clazz;
+      while (componentType.isArray()) {
+        componentType = componentType.getComponentType();
+      }
+      return componentType.getClassLoader() == classLoader;
+    }
+    if (type instanceof ParameterizedType parameterizedType) {
+      final @Nullable Type ownerType = parameterizedType.getOwnerType();
+      return isDefinedBy(parameterizedType.getRawType(), classLoader)
+          || (ownerType != null && isDefinedBy(ownerType, classLoader))
+          || Arrays.stream(parameterizedType.getActualTypeArguments()).anyMatch(arg -> isDefinedBy(arg, classLoader));
+    }
+    if (type instanceof GenericArrayType genericArrayType) {
+      return isDefinedBy(genericArrayType.getGenericComponentType(), classLoader);
+    }
+    if (type instanceof WildcardType wildcardType) {
+      return Stream.concat(Arrays.stream(wildcardType.getUpperBounds()), Arrays.stream(wildcardType.getLowerBounds()))
+          .anyMatch(bound -> isDefinedBy(bound, classLoader));
+    }
+    if (type instanceof TypeVariable<?> typeVariable) {
+      // The bounds may refer to the variable itself, but the declaration is always defined by the same class loader.
+      final GenericDeclaration declaration = typeVariable.getGenericDeclaration();
+      return declaration instanceof Class<?> declaringClass
+          ? isDefinedBy(declaringClass, classLoader)
+          : declaration instanceof Executable executable && isDefinedBy(executable.getDeclaringClass(), classLoader);
+    }
+    return false;
+  }
+
   private LinkedHashSet<Type> aggregateSuperTypes(final Type baseType) {
     final LinkedHashSet<Type> types = new LinkedHashSet<>();
     @Nullable Class<?> erasedSuperType = GenericTypeReflector.erase(baseType);
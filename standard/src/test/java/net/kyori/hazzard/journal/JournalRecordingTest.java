@@ -0,0 +1,168 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard.journal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.leangen.geantyref.TypeToken;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import net.kyori.hazzard.Hazzard;
+import net.kyori.hazzard.annotation.TemplateArgument;
+import net.kyori.hazzard.annotation.TranslationKey;
+import net.kyori.hazzard.exception.scan.UnscannableMethodException;
+import net.kyori.hazzard.message.StringMessageComposer;
+import net.kyori.hazzard.strategy.StandardTemplateVariableResolution;
+import net.kyori.hazzard.strategy.supertype.StandardSupertypeThenInterfaceSupertypeStrategy;
+import net.kyori.hazzard.util.VariableWrapper;
+import net.kyori.hazzard.variable.ITemplateVariableResolver;
+import net.kyori.hazzard.variable.ReplacementResult;
+import org.junit.jupiter.api.Test;
+
+/* package-private */ class JournalRecordingTest {
+  @Test
+  void readsWrittenEntries() throws IOException {
+    final List<JournalEntry> entries = List.of(
+        new JournalEntry("a.Messages", "welcome", "en",
+            List.of(new JournalEntry.Argument("java.lang.String", 5), new JournalEntry.Argument(null, 0)),
+            1_000, 250),
+        new JournalEntry("a.Messages", "welcome", "de",
+            List.of(new JournalEntry.Argument("java.lang.String", 3), new JournalEntry.Argument("[I", 2)),
+            900, 4_000_000_000L));
+
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    try (final JournalWriter writer = new JournalWriter(output)) {
+      for (final JournalEntry entry : entries) {
+        writer.write(entry);
+      }
+    }
+
+    try (final JournalReader reader = new JournalReader(new ByteArrayInputStream(output.toByteArray()))) {
+      assertThat(reader.readAll()).isEqualTo(entries);
+    }
+  }
+
+  @Test
+  void recordsSentMessages() throws IOException, UnscannableMethodException {
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    try (final JournalWriter writer = new JournalWriter(output)) {
+      final Messages messages = Hazzard.<Messages, String>builder(TypeToken.get(Messages.class))
+          .viewerLookupServiceLocator((method, proxy) -> (method1, proxy1, parameters) -> (String) parameters[0], 1)
+          .templateLocator((viewer, key) -> "Welcome, {player}!")
+          .<String, String>composed(new StringMessageComposer<>("{", "}",
+              Function.identity(), Function.identity(), Function.identity()))
+          .sent((viewer, message) -> {
+          })
+          .variableResolver(new StandardTemplateVariableResolution<>(
+              new StandardSupertypeThenInterfaceSupertypeStrategy(false)))
+          .weightedVariableResolver(String.class, ITemplateVariableResolver.identityPlaceholderResolver(), 1)
+          .intercepted(new JournalRecordingInterceptor<>(writer, viewer -> viewer.substring(0, 2)))
+          .create();
+
+      messages.welcome("en-alice", "Alice");
+      messages.welcome("de-bob", "Bob");
+    }
+
+    try (final JournalReader reader = new JournalReader(new ByteArrayInputStream(output.toByteArray()))) {
+      final List<JournalEntry> entries = reader.readAll();
+      assertThat(entries).hasSize(2);
+      assertThat(entries.get(0).proxiedType()).isEqualTo(Messages.class.getName());
+      assertThat(entries.get(0).translationKey()).isEqualTo("welcome");
+      assertThat(entries.get(0).viewerClass()).isEqualTo("en");
+      assertThat(entries.get(0).arguments()).containsExactly(
+          new JournalEntry.Argument("java.lang.String", 8), new JournalEntry.Argument("java.lang.String", 5));
+      assertThat(entries.get(1).viewerClass()).isEqualTo("de");
+      assertThat(entries.get(1).offsetNanos()).isGreaterThanOrEqualTo(entries.get(0).offsetNanos());
+    }
+  }
+
+  @Test
+  void recordsMessagesSentWhileRenderingOthers() throws IOException, UnscannableMethodException {
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    try (final JournalWriter writer = new JournalWriter(output)) {
+      final AtomicReference<Messages> proxy = new AtomicReference<>();
+      final Messages messages = Hazzard.<Messages, String>builder(TypeToken.get(Messages.class))
+          .viewerLookupServiceLocator((method, proxy1) -> (method1, proxy2, parameters) -> (String) parameters[0], 1)
+          .templateLocator((viewer, key) -> key.equals("announce") ? "{announcement}" : "Welcome, {player}!")
+          .<String, String>composed(new StringMessageComposer<>("{", "}",
+              Function.identity(), Function.identity(), Function.identity()))
+          .sent((viewer, message) -> {
+          })
+          .variableResolver(new StandardTemplateVariableResolution<>(
+              new StandardSupertypeThenInterfaceSupertypeStrategy(false)))
+          .weightedVariableResolver(String.class, ITemplateVariableResolver.identityPlaceholderResolver(), 1)
+          .weightedVariableResolver(Announcement.class, (name, value, viewer, owner, method, parameters) -> {
+            // Neither the filtered nor the sent message may be mistaken for the one being rendered.
+            proxy.get().welcome("xx-nobody", "Nobody");
+            proxy.get().welcome("de-bob", "Bob");
+            return Map.of(name, VariableWrapper.finalResult(ReplacementResult.conclusionValue(value.text())));
+          }, 1)
+          .filteredBy((viewer, hazzardMethod, arguments) -> !viewer.startsWith("xx"))
+          .intercepted(new JournalRecordingInterceptor<>(writer, viewer -> viewer.substring(0, 2)))
+          .create();
+      proxy.set(messages);
+
+      messages.announce("en-alice", new Announcement("Restarting"));
+    }
+
+    try (final JournalReader reader = new JournalReader(new ByteArrayInputStream(output.toByteArray()))) {
+      final List<JournalEntry> entries = reader.readAll();
+      assertThat(entries).hasSize(2);
+      assertThat(entries.get(0).translationKey()).isEqualTo("welcome");
+      assertThat(entries.get(0).viewerClass()).isEqualTo("de");
+      assertThat(entries.get(0).arguments()).containsExactly(
+          new JournalEntry.Argument("java.lang.String", 6), new JournalEntry.Argument("java.lang.String", 3));
+      assertThat(entries.get(1).translationKey()).isEqualTo("announce");
+      assertThat(entries.get(1).viewerClass()).isEqualTo("en");
+      assertThat(entries.get(1).arguments()).containsExactly(
+          new JournalEntry.Argument("java.lang.String", 8), new JournalEntry.Argument(Announcement.class.getName(), 0));
+      assertThat(entries.get(1).offsetNanos()).isLessThanOrEqualTo(entries.get(0).offsetNanos());
+    }
+  }
+
+  @Test
+  void dropsEntriesOnceQueueIsFull() throws IOException {
+    final JournalEntry entry = new JournalEntry("a.Messages", "welcome", "en", List.of(), 0, 0);
+    final ByteArrayOutputStream output = new ByteArrayOutputStream();
+    final JournalWriter writer = new JournalWriter(output, 1);
+    for (int idx = 0; idx < 1_000; ++idx) {
+      writer.write(entry);
+    }
+    writer.close();
+
+    try (final JournalReader reader = new JournalReader(new ByteArrayInputStream(output.toByteArray()))) {
+      assertThat((long) reader.readAll().size() + writer.droppedCount()).isEqualTo(1_000);
+    }
+  }
+
+  /* package-private */ interface Messages {
+    @TranslationKey("welcome")
+    void welcome(String viewer, @TemplateArgument String player);
+
+    @TranslationKey("announce")
+    void announce(String viewer, @TemplateArgument Announcement announcement);
+  }
+
+  /* package-private */ record Announcement(String text) {
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard.message;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import net.kyori.hazzard.exception.MissingTranslationKeyException;
+import net.kyori.hazzard.model.TranslationKeyIndex;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.junit.jupiter.api.Test;
+
+/* package-private */ class ArrayTemplateLocatorTest {
+  private final TranslationKeyIndex index = new TranslationKeyIndex();
+  private final List<String> lookups = new ArrayList<>();
+  private final TemplateCatalog<String> catalog = TemplateCatalog.of(Map.of(
+      Locale.ENGLISH, Map.of("greeting", "Hello", "farewell", "Bye")));
+  private final ArrayTemplateLocator<Locale, String> locator =
+      new ArrayTemplateLocator<>(Function.identity(), (locale, key) -> {
+        this.lookups.add(locale + "/" + key);
+        return this.catalog.template(locale, key);
+      });
+
+  @Test
+  void fillsSlotsOnce() throws Exception {
+    final int greeting = this.index.intern("greeting");
+    final int farewell = this.index.intern("farewell");
+    assertThat(this.index.intern("greeting")).isEqualTo(greeting);
+    assertThat(farewell).isEqualTo(greeting + 1);
+
+    assertThat(this.locator.templateOf(Locale.ENGLISH, greeting, "greeting")).isEqualTo("Hello");
+    assertThat(this.locator.templateOf(Locale.ENGLISH, greeting, "greeting")).isEqualTo("Hello");
+    assertThat(this.locator.templateOf(Locale.ENGLISH, farewell, "farewell")).isEqualTo("Bye");
+
+    assertThat(this.lookups).containsExactly("en/greeting", "en/farewell");
+  }
+
+  @Test
+  void cachesMissesAndEmptiesChangedSlots() throws Exception {
+    final int missing = this.index.intern("missing");
+    final int greeting = this.index.intern("greeting");
+
+    assertThatThrownBy(() -> this.locator.templateOf(Locale.ENGLISH, missing, "missing"))
+        .isInstanceOf(MissingTranslationKeyException.class);
+    assertThatThrownBy(() -> this.locator.templateOf(Locale.ENGLISH, missing, "missing"))
+        .isInstanceOf(MissingTranslationKeyException.class);
+
+    this.locator.templateOf(Locale.ENGLISH, greeting, "greeting");
+    this.locator.templateChanged(Locale.ENGLISH, "greeting", "Hello", "Hi");
+    this.locator.templateOf(Locale.ENGLISH, greeting, "greeting");
+
+    assertThat(this.lookups).containsExactly("en/missing", "en/greeting", "en/greeting");
+  }
+
+  @Test
+  void neverFillsTemplatesChangedWhileLookingUp() throws Exception {
+    final int greeting = this.index.intern("greeting");
+    final AtomicReference<ArrayTemplateLocator<Locale, String>> reloaded = new AtomicReference<>();
+    final ArrayTemplateLocator<Locale, String> locator =
+        new ArrayTemplateLocator<>(Function.identity(), (locale, key) -> {
+          final @Nullable ArrayTemplateLocator<Locale, String> changing = reloaded.getAndSet(null);
+          if (changing == null) {
+            return "Hi";
+          }
+
+          changing.templateChanged(locale, key, "Hello", "Hi");
+          return "Hello";
+        });
+    reloaded.set(locator);
+
+    assertThat(locator.templateOf(Locale.ENGLISH, greeting, "greeting")).isEqualTo("Hello");
+    assertThat(locator.templateOf(Locale.ENGLISH, greeting, "greeting")).isEqualTo("Hi");
+    assertThat(locator.templateOf(Locale.ENGLISH, greeting, "greeting")).isEqualTo("Hi");
+  }
+}
@@ -0,0 +1,132 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard.message;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import net.kyori.hazzard.message.AsyncMessageSendingService.OverflowPolicy;
+import org.junit.jupiter.api.Test;
+
+/* package-private */ class AsyncMessageSendingServiceTest {
+  @Test
+  void dropNewest() throws InterruptedException {
+    final Harness harness = new Harness(OverflowPolicy.DROP_NEWEST);
+    harness.overflow();
+
+    assertThat(harness.release()).containsExactly("a: 1", "a: 2", "a: 3");
+    assertThat(harness.service.droppedCount()).isEqualTo(1L);
+  }
+
+  @Test
+  void dropOldest() throws InterruptedException {
+    final Harness harness = new Harness(OverflowPolicy.DROP_OLDEST);
+    harness.overflow();
+
+    assertThat(harness.release()).containsExactly("a: 1", "a: 3", "a: 4");
+    assertThat(harness.service.droppedCount()).isEqualTo(1L);
+  }
+
+  @Test
+  void coalescePerViewer() throws InterruptedException {
+    final Harness harness = new Harness(OverflowPolicy.COALESCE);
+    harness.overflow();
+
+    assertThat(harness.release()).containsExactly("a: 1", "a: 2", "a: 4");
+    assertThat(harness.service.droppedCount()).isEqualTo(0L);
+    assertThat(harness.service.coalescedCount()).isEqualTo(1L);
+  }
+
+  @Test
+  void rejectsAfterClose() {
+    final AsyncMessageSendingService<String, String> service =
+        new AsyncMessageSendingService<>((viewer, message) -> { }, 1, OverflowPolicy.BLOCK);
+    service.close();
+
+    assertThatThrownBy(() -> service.send("a", "1")).isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  void deliversBlockedSendsWhileClosing() throws InterruptedException {
+    final Harness harness = new Harness(OverflowPolicy.BLOCK);
+    harness.service.send("a", "1");
+    while (harness.service.queueDepth() != 0) {
+      Thread.sleep(1);
+    }
+    harness.service.send("a", "2");
+    harness.service.send("a", "3");
+
+    final Thread sender = new Thread(() -> harness.service.send("a", "4"));
+    sender.start();
+    awaitWaiting(sender);
+    final Thread closer = new Thread(harness.service::close);
+    closer.start();
+    awaitWaiting(closer);
+
+    harness.stall.countDown();
+    sender.join();
+    closer.join();
+
+    assertThat(harness.delivered).containsExactly("a: 1", "a: 2", "a: 3", "a: 4");
+  }
+
+  private static void awaitWaiting(final Thread thread) throws InterruptedException {
+    while (thread.getState() != Thread.State.WAITING) {
+      Thread.sleep(1);
+    }
+  }
+
+  /**
+   * A service of capacity 2 whose delegate stalls on the first message until released.
+   */
+  private static final class Harness {
+    private final CountDownLatch stall = new CountDownLatch(1);
+    private final List<String> delivered = new CopyOnWriteArrayList<>();
+    private final AsyncMessageSendingService<String, String> service;
+
+    private Harness(final OverflowPolicy policy) {
+      this.service = new AsyncMessageSendingService<>((viewer, message) -> {
+        try {
+          this.stall.await();
+        } catch (final InterruptedException ex) {
+          Thread.currentThread().interrupt();
+        }
+        this.delivered.add(viewer + ": " + message);
+      }, 2, policy);
+    }
+
+    private void overflow() throws InterruptedException {
+      this.service.send("a", "1");
+      while (this.service.queueDepth() != 0) {
+        Thread.sleep(1);
+      }
+      this.service.send("a", "2");
+      this.service.send("a", "3");
+      this.service.send("a", "4");
+    }
+
+    private List<String> release() {
+      this.stall.countDown();
+      this.service.close();
+      return this.delivered;
+    }
+  }
+}
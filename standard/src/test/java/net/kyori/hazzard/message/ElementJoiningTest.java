@@ -0,0 +1,122 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard.message;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.leangen.geantyref.TypeToken;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import net.kyori.hazzard.Hazzard;
+import net.kyori.hazzard.annotation.TemplateArgument;
+import net.kyori.hazzard.annotation.TranslationKey;
+import net.kyori.hazzard.exception.UnfulfilledVariableReplacementException;
+import net.kyori.hazzard.exception.scan.UnscannableMethodException;
+import net.kyori.hazzard.strategy.StandardTemplateVariableResolution;
+import net.kyori.hazzard.strategy.supertype.StandardSupertypeThenInterfaceSupertypeStrategy;
+import net.kyori.hazzard.util.VariableWrapper;
+import net.kyori.hazzard.variable.ReplacementResult;
+import org.junit.jupiter.api.Test;
+
+/* package-private */ class ElementJoiningTest {
+  private final AtomicInteger resolved = new AtomicInteger();
+  private final List<String> sent = new ArrayList<>();
+
+  @Test
+  void joinsAllElements() throws UnscannableMethodException {
+    this.createMessages(10, 100).online("viewer", List.of("Alice", "Bob"));
+
+    assertThat(this.sent).containsExactly("Online: ALICE, BOB");
+  }
+
+  @Test
+  void stopsResolvingAtElementLimit() throws UnscannableMethodException {
+    this.createMessages(2, 100).online("viewer", List.of("Alice", "Bob", "Carol", "Dave"));
+
+    assertThat(this.sent).containsExactly("Online: ALICE, BOB, ...");
+    assertThat(this.resolved.get()).isEqualTo(2);
+  }
+
+  @Test
+  void stopsConsumingStreamAtLengthLimit() throws UnscannableMethodException {
+    final AtomicInteger consumed = new AtomicInteger();
+    this.createMessages(10, 12).onlineStream("viewer",
+        Stream.iterate(0, idx -> idx + 1).map(idx -> "Player" + idx).peek(name -> consumed.incrementAndGet()));
+
+    assertThat(this.sent).containsExactly("Online: PLAYER0, ...");
+    assertThat(this.resolved.get()).isEqualTo(2);
+    assertThat(consumed.get()).isEqualTo(2);
+  }
+
+  @Test
+  void omitsMarkerWhenLimitMatchesElements() throws UnscannableMethodException {
+    this.createMessages(2, 100).online("viewer", List.of("Alice", "Bob"));
+
+    assertThat(this.sent).containsExactly("Online: ALICE, BOB");
+  }
+
+  @Test
+  void failsOnElementsResolvedUnderOtherNames() throws UnscannableMethodException {
+    final Messages messages = Hazzard.<Messages, String>builder(TypeToken.get(Messages.class))
+        .viewerLookupServiceLocator((method, proxy) -> (method1, proxy1, parameters) -> (String) parameters[0], 1)
+        .templateLocator((viewer, key) -> "Online: {players_name}")
+        .<String, String>composed(new StringMessageComposer<>("{", "}",
+            Function.identity(), Function.identity(), Function.identity()))
+        .sent((viewer, message) -> this.sent.add(message))
+        .variableResolver(new StandardTemplateVariableResolution<>(
+            new StandardSupertypeThenInterfaceSupertypeStrategy(false),
+            StringElementJoiner.strings(", ", ", ...", 10, 100)))
+        .weightedVariableResolver(String.class, (name, value, viewer, owner, method, parameters) ->
+            Map.of(name + "_name", VariableWrapper.finalResult(ReplacementResult.conclusionValue(value))), 1)
+        .create();
+
+    assertThatThrownBy(() -> messages.online("viewer", List.of("Alice", "Bob")))
+        .hasCauseInstanceOf(UnfulfilledVariableReplacementException.class);
+    assertThat(this.sent).isEmpty();
+  }
+
+  private Messages createMessages(final int maxElements, final int maxLength) throws UnscannableMethodException {
+    return Hazzard.<Messages, String>builder(TypeToken.get(Messages.class))
+        .viewerLookupServiceLocator((method, proxy) -> (method1, proxy1, parameters) -> (String) parameters[0], 1)
+        .templateLocator((viewer, key) -> "Online: {players}")
+        .<String, String>composed(new StringMessageComposer<>("{", "}",
+            Function.identity(), Function.identity(), Function.identity()))
+        .sent((viewer, message) -> this.sent.add(message))
+        .variableResolver(new StandardTemplateVariableResolution<>(
+            new StandardSupertypeThenInterfaceSupertypeStrategy(false),
+            StringElementJoiner.strings(", ", ", ...", maxElements, maxLength)))
+        .weightedVariableResolver(String.class, (name, value, viewer, owner, method, parameters) -> {
+          this.resolved.incrementAndGet();
+          return Map.of(name, VariableWrapper.finalResult(ReplacementResult.conclusionValue(value.toUpperCase())));
+        }, 1)
+        .create();
+  }
+
+  /* package-private */ interface Messages {
+    @TranslationKey("online")
+    void online(final String viewer, @TemplateArgument("players") final List<String> players);
+
+    @TranslationKey("online")
+    void onlineStream(final String viewer, @TemplateArgument("players") final Stream<String> players);
+  }
+}
@@ -0,0 +1,71 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard.message;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+import net.kyori.hazzard.exception.MissingTranslationKeyException;
+import org.junit.jupiter.api.Test;
+
+/* package-private */ class FallbackTemplateLocatorTest {
+  private static final Locale AUSTRIAN = new Locale("de", "AT");
+
+  private final List<Locale> lookups = new ArrayList<>();
+  private final TemplateCatalog<String> catalog = TemplateCatalog.of(Map.of(
+      Locale.GERMAN, Map.of("greeting", "Hallo"),
+      Locale.ROOT, Map.of("greeting", "Hello", "farewell", "Bye")
+  ));
+  private final FallbackTemplateLocator<Locale, String> locator =
+      new FallbackTemplateLocator<>(Function.identity(), (locale, key) -> {
+        this.lookups.add(locale);
+        return this.catalog.template(locale, key);
+      });
+
+  @Test
+  void fallsBackThroughChain() throws Exception {
+    assertThat(this.locator.templateOf(AUSTRIAN, "greeting")).isEqualTo("Hallo");
+    assertThat(this.locator.templateOf(AUSTRIAN, "farewell")).isEqualTo("Bye");
+    assertThat(FallbackTemplateLocator.defaultFallbackChain(AUSTRIAN))
+        .containsExactly(AUSTRIAN, Locale.GERMAN, Locale.ROOT);
+  }
+
+  @Test
+  void cachesMisses() {
+    assertThatThrownBy(() -> this.locator.templateOf(AUSTRIAN, "missing"))
+        .isInstanceOf(MissingTranslationKeyException.class);
+    assertThatThrownBy(() -> this.locator.templateOf(AUSTRIAN, "missing"))
+        .isInstanceOf(MissingTranslationKeyException.class);
+
+    assertThat(this.lookups).containsExactly(AUSTRIAN, Locale.GERMAN, Locale.ROOT);
+  }
+
+  @Test
+  void forgetsChangedKeys() throws Exception {
+    this.locator.templateOf(AUSTRIAN, "greeting");
+    this.locator.templateChanged(Locale.GERMAN, "greeting", "Hallo", "Servus");
+    this.locator.templateOf(AUSTRIAN, "greeting");
+
+    assertThat(this.lookups).containsExactly(AUSTRIAN, Locale.GERMAN, AUSTRIAN, Locale.GERMAN);
+  }
+}
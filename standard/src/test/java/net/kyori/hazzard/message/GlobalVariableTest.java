@@ -0,0 +1,110 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard.message;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.leangen.geantyref.TypeToken;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import net.kyori.hazzard.Hazzard;
+import net.kyori.hazzard.HazzardBuilder;
+import net.kyori.hazzard.annotation.TemplateArgument;
+import net.kyori.hazzard.annotation.TranslationKey;
+import net.kyori.hazzard.exception.scan.UnscannableMethodException;
+import net.kyori.hazzard.strategy.StandardTemplateVariableResolution;
+import net.kyori.hazzard.strategy.supertype.StandardSupertypeThenInterfaceSupertypeStrategy;
+import net.kyori.hazzard.variable.ITemplateVariableResolver;
+import org.junit.jupiter.api.Test;
+
+/* package-private */ class GlobalVariableTest {
+  private final AtomicInteger folded = new AtomicInteger();
+  private final List<String> sent = new ArrayList<>();
+
+  @Test
+  void foldsGlobalVariablesOncePerTemplate() throws UnscannableMethodException {
+    final StringTemplateFolder<String> folder = new StringTemplateFolder<>("{", "}", Function.identity());
+    final Messages messages = this.builder()
+        .templateFolder((template, globalVariables) -> {
+          this.folded.incrementAndGet();
+          return folder.fold(template, globalVariables);
+        })
+        .create();
+
+    messages.welcome("alice", "Alice");
+    messages.welcome("bob", "Bob");
+
+    assertThat(this.sent).containsExactly("Welcome to Lobby, Alice!", "Welcome to Lobby, Bob!");
+    assertThat(this.folded.get()).isEqualTo(1);
+  }
+
+  @Test
+  void composesGlobalVariablesWithoutFolder() throws UnscannableMethodException {
+    final Messages messages = this.builder().create();
+
+    messages.welcome("alice", "Alice");
+
+    assertThat(this.sent).containsExactly("Welcome to Lobby, Alice!");
+  }
+
+  @Test
+  void resolvedVariablesTakePrecedenceOverFoldedGlobalVariables() throws UnscannableMethodException {
+    final Messages messages = this.builder()
+        .globalVariable("player", "Nobody")
+        .templateFolder(new StringTemplateFolder<>("{", "}", Function.identity()))
+        .create();
+
+    messages.welcome("alice", "Alice");
+    messages.welcomeStranger("bob");
+
+    assertThat(this.sent).containsExactly("Welcome to Lobby, Alice!", "Welcome to Lobby, Nobody!");
+  }
+
+  @Test
+  void neverFoldsPlaceholdersWithinGlobalVariables() {
+    final StringTemplateFolder<String> folder = new StringTemplateFolder<>("{", "}", Function.identity());
+
+    assertThat(folder.fold("{motd} on {server}{", Map.of("motd", "Welcome to {server}", "server", "Lobby")))
+        .isEqualTo("Welcome to {server} on Lobby{");
+    assertThat(folder.fold("{{server}}", Map.of("server", "Lobby"))).isEqualTo("{Lobby}");
+  }
+
+  private HazzardBuilder.Resolved<Messages, String, String, String, String> builder() {
+    return Hazzard.<Messages, String>builder(TypeToken.get(Messages.class))
+        .viewerLookupServiceLocator((method, proxy) -> (method1, proxy1, parameters) -> (String) parameters[0], 1)
+        .templateLocator((viewer, key) -> "Welcome to {server}, {player}!")
+        .<String, String>composed(new StringMessageComposer<>("{", "}",
+            Function.identity(), Function.identity(), Function.identity()))
+        .sent((viewer, message) -> this.sent.add(message))
+        .variableResolver(new StandardTemplateVariableResolution<>(
+            new StandardSupertypeThenInterfaceSupertypeStrategy(false)))
+        .weightedVariableResolver(String.class, ITemplateVariableResolver.identityPlaceholderResolver(), 1)
+        .globalVariable("server", "Lobby");
+  }
+
+  /* package-private */ interface Messages {
+    @TranslationKey("welcome")
+    void welcome(String viewer, @TemplateArgument String player);
+
+    @TranslationKey("welcome")
+    void welcomeStranger(String viewer);
+  }
+}
@@ -0,0 +1,121 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard.message;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import net.kyori.hazzard.exception.MissingTranslationKeyException;
+import org.junit.jupiter.api.Test;
+
+/* package-private */ class LayeredTemplateLocatorTest {
+  private final TemplateCatalog<String> defaults = TemplateCatalog.of(Map.of(Locale.ENGLISH,
+      Map.of("greeting", "Hello", "farewell", "Bye")));
+
+  @Test
+  void prefersHigherLayers() throws Exception {
+    final TemplateCatalog<String> overrides = TemplateCatalog.of(Map.of(Locale.ENGLISH, Map.of("greeting", "Howdy")));
+    final LayeredTemplateLocator<Locale, String> locator =
+        new LayeredTemplateLocator<>(Function.identity(), List.of(overrides, this.defaults));
+
+    assertThat(locator.templateOf(Locale.ENGLISH, "greeting")).isEqualTo("Howdy");
+    assertThat(locator.templateOf(Locale.ENGLISH, "farewell")).isEqualTo("Bye");
+    assertThatThrownBy(() -> locator.templateOf(Locale.GERMAN, "greeting"))
+        .isInstanceOf(MissingTranslationKeyException.class);
+  }
+
+  @Test
+  void cachesUntilChanged() throws Exception {
+    final AtomicInteger lookups = new AtomicInteger();
+    final ITemplateSource<String> counting = (locale, key) -> {
+      lookups.incrementAndGet();
+      return this.defaults.template(locale, key);
+    };
+    final LayeredTemplateLocator<Locale, String> locator =
+        new LayeredTemplateLocator<>(Function.identity(), List.of(counting));
+
+    locator.templateOf(Locale.ENGLISH, "greeting");
+    locator.templateOf(Locale.ENGLISH, "greeting");
+    assertThat(lookups.get()).isEqualTo(1);
+
+    locator.templateChanged(Locale.ENGLISH, "greeting", "Hello", "Hi");
+    locator.templateOf(Locale.ENGLISH, "greeting");
+    assertThat(lookups.get()).isEqualTo(2);
+  }
+
+  @Test
+  void cachesMisses() throws Exception {
+    final AtomicInteger lookups = new AtomicInteger();
+    final ITemplateSource<String> counting = (locale, key) -> {
+      lookups.incrementAndGet();
+      return this.defaults.template(locale, key);
+    };
+    final LayeredTemplateLocator<Locale, String> locator =
+        new LayeredTemplateLocator<>(Function.identity(), List.of(counting, counting));
+
+    assertThatThrownBy(() -> locator.templateOf(Locale.ENGLISH, "missing"))
+        .isInstanceOf(MissingTranslationKeyException.class);
+    assertThatThrownBy(() -> locator.templateOf(Locale.ENGLISH, "missing"))
+        .isInstanceOf(MissingTranslationKeyException.class);
+    assertThat(locator.template(Locale.ENGLISH, "missing")).isNull();
+
+    assertThat(lookups.get()).isEqualTo(2);
+  }
+
+  @Test
+  void neverCachesTemplatesChangedWhileLookingUp() throws Exception {
+    final CountDownLatch lookingUp = new CountDownLatch(1);
+    final CountDownLatch changed = new CountDownLatch(1);
+    final AtomicInteger lookups = new AtomicInteger();
+    final ITemplateSource<String> reloading = (locale, key) -> {
+      if (lookups.getAndIncrement() > 0) {
+        return "Hi";
+      }
+
+      lookingUp.countDown();
+      try {
+        changed.await();
+      } catch (final InterruptedException ex) {
+        Thread.currentThread().interrupt();
+      }
+      return "Hello";
+    };
+    final LayeredTemplateLocator<Locale, String> locator =
+        new LayeredTemplateLocator<>(Function.identity(), List.of(reloading));
+
+    final Thread lookup = new Thread(() -> locator.template(Locale.ENGLISH, "greeting"));
+    lookup.start();
+    lookingUp.await();
+    final Thread change = new Thread(() -> locator.templateChanged(Locale.ENGLISH, "greeting", "Hello", "Hi"));
+    change.start();
+    while (change.isAlive() && change.getState() != Thread.State.BLOCKED) {
+      Thread.sleep(1);
+    }
+    changed.countDown();
+    lookup.join();
+    change.join();
+
+    assertThat(locator.templateOf(Locale.ENGLISH, "greeting")).isEqualTo("Hi");
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard.message;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import net.kyori.hazzard.exception.MissingTranslationKeyException;
+import org.junit.jupiter.api.Test;
+
+/* package-private */ class LazyLocaleTemplateLocatorTest {
+  private final AtomicLong clock = new AtomicLong();
+  private final List<Locale> loads = new ArrayList<>();
+
+  @Test
+  void loadsLocalesOnce() throws Exception {
+    final LazyLocaleTemplateLocator<Locale, String> locator = this.create(100);
+
+    assertThat(locator.templateOf(Locale.ENGLISH, "greeting")).isEqualTo("greeting/en");
+    assertThat(locator.templateOf(Locale.ENGLISH, "greeting")).isEqualTo("greeting/en");
+    assertThatThrownBy(() -> locator.templateOf(Locale.ENGLISH, "missing"))
+        .isInstanceOf(MissingTranslationKeyException.class);
+
+    assertThat(this.loads).containsExactly(Locale.ENGLISH);
+    assertThat(locator.loadedWeight()).isEqualTo(11);
+  }
+
+  @Test
+  void evictsLeastRecentlyUsedLocale() throws Exception {
+    final LazyLocaleTemplateLocator<Locale, String> locator = this.create(25);
+
+    locator.templateOf(Locale.ENGLISH, "greeting");
+    locator.templateOf(Locale.GERMAN, "greeting");
+    locator.templateOf(Locale.ENGLISH, "greeting");
+    locator.templateOf(Locale.FRENCH, "greeting");
+
+    assertThat(locator.loadedLocales()).containsExactlyInAnyOrder(Locale.ENGLISH, Locale.FRENCH);
+    assertThat(locator.loadedWeight()).isEqualTo(22);
+  }
+
+  @Test
+  void notifiesRemovalOfEvictedTemplates() throws Exception {
+    final LazyLocaleTemplateLocator<Locale, String> locator = this.create(25);
+    final List<String> changes = new ArrayList<>();
+    locator.addListener((locale, key, previous, current) ->
+        changes.add(locale + "/" + key + ": " + previous + " -> " + current));
+
+    locator.templateOf(Locale.ENGLISH, "greeting");
+    locator.templateOf(Locale.GERMAN, "greeting");
+    locator.templateOf(Locale.FRENCH, "greeting");
+    locator.evict(Locale.FRENCH);
+    locator.evict(Locale.FRENCH);
+
+    assertThat(changes).containsExactly("en/greeting: greeting/en -> null", "fr/greeting: greeting/fr -> null");
+  }
+
+  private LazyLocaleTemplateLocator<Locale, String> create(final long budget) {
+    return new LazyLocaleTemplateLocator<>(Function.identity(), locale -> {
+      this.loads.add(locale);
+      return Map.of("greeting", "greeting/" + locale);
+    }, String::length, budget, this.clock::incrementAndGet);
+  }
+}
@@ -0,0 +1,101 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard.message;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.leangen.geantyref.TypeToken;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import net.kyori.hazzard.Hazzard;
+import net.kyori.hazzard.annotation.TemplateArgument;
+import net.kyori.hazzard.annotation.TranslationKey;
+import net.kyori.hazzard.exception.scan.UnscannableMethodException;
+import net.kyori.hazzard.strategy.StandardTemplateVariableResolution;
+import net.kyori.hazzard.strategy.supertype.StandardSupertypeThenInterfaceSupertypeStrategy;
+import net.kyori.hazzard.variable.ITemplateVariableResolver;
+import org.junit.jupiter.api.Test;
+
+/* package-private */ class MessageSuppressionTest {
+  private final AtomicLong clock = new AtomicLong();
+  private final AtomicInteger composed = new AtomicInteger();
+  private final List<String> sent = new ArrayList<>();
+
+  @Test
+  void suppressesEqualMessagesWithinWindow() throws UnscannableMethodException {
+    final Messages messages = this.create(new DuplicateMessageSuppressionService<>(Duration.ofSeconds(1), this.clock::get));
+
+    messages.denied("alice", "combat");
+    messages.denied("alice", "combat");
+    messages.denied("alice", "spawn");
+    messages.denied("bob", "combat");
+
+    assertThat(this.sent).containsExactly("alice: combat", "alice: spawn", "bob: combat");
+    assertThat(this.composed.get()).isEqualTo(3);
+
+    this.clock.addAndGet(Duration.ofSeconds(1).toNanos());
+    messages.denied("bob", "combat");
+
+    assertThat(this.sent).containsExactly("alice: combat", "alice: spawn", "bob: combat", "bob: combat");
+  }
+
+  @Test
+  void rateLimitsPerKey() throws UnscannableMethodException {
+    final Messages messages =
+        this.create(new RateLimitingMessageSuppressionService<>(2, Duration.ofSeconds(1), this.clock::get));
+
+    messages.denied("alice", "first");
+    messages.denied("alice", "second");
+    messages.denied("alice", "third");
+
+    assertThat(this.sent).containsExactly("alice: first", "alice: second");
+
+    this.clock.addAndGet(Duration.ofSeconds(1).toNanos());
+    messages.denied("alice", "fourth");
+
+    assertThat(this.sent).containsExactly("alice: first", "alice: second", "alice: fourth");
+  }
+
+  private Messages create(final IMessageSuppressionService<String, String> suppressionService)
+      throws UnscannableMethodException {
+    return Hazzard.<Messages, String>builder(TypeToken.get(Messages.class))
+        .viewerLookupServiceLocator((method, proxy) -> (method1, proxy1, parameters) -> (String) parameters[0], 1)
+        .templateLocator((viewer, key) -> "{reason}")
+        .<String, String>composed((viewer, template, replacements, method, owner) -> {
+          this.composed.incrementAndGet();
+          return new StringMessageComposer<String, String, String, String>("{", "}",
+              Function.identity(), Function.identity(), Function.identity())
+              .compose(viewer, template, replacements, method, owner);
+        })
+        .sent((viewer, message) -> this.sent.add(viewer + ": " + message))
+        .variableResolver(new StandardTemplateVariableResolution<>(
+            new StandardSupertypeThenInterfaceSupertypeStrategy(false)))
+        .weightedVariableResolver(String.class, ITemplateVariableResolver.identityPlaceholderResolver(), 1)
+        .suppressedBy(suppressionService)
+        .create();
+  }
+
+  /* package-private */ interface Messages {
+    @TranslationKey("denied")
+    void denied(String viewer, @TemplateArgument String reason);
+  }
+}
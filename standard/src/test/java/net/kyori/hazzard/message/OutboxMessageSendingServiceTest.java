@@ -0,0 +1,73 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard.message;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+/* package-private */ class OutboxMessageSendingServiceTest {
+  @Test
+  void deliversNothingBeforeFlush() {
+    final List<String> delivered = new ArrayList<>();
+    final OutboxMessageSendingService<String, String> outbox =
+        new OutboxMessageSendingService<>((viewer, message) -> delivered.add(viewer + ": " + message));
+
+    outbox.send("alice", "first");
+    outbox.send("bob", "second");
+
+    assertThat(delivered).isEmpty();
+    assertThat(outbox.pending()).isEqualTo(2);
+
+    outbox.flush();
+
+    assertThat(delivered).containsExactlyInAnyOrder("alice: first", "bob: second");
+    assertThat(outbox.pending()).isEqualTo(0);
+  }
+
+  @Test
+  void mergesBatchPerViewerInOrder() {
+    final List<String> delivered = new ArrayList<>();
+    final OutboxMessageSendingService<String, String> outbox = new OutboxMessageSendingService<>(
+        (viewer, message) -> delivered.add(viewer + ": " + message),
+        IMessageMerger.reducing((first, second) -> first + '\n' + second));
+
+    for (int line = 1; line <= 3; ++line) {
+      outbox.send("alice", "line " + line);
+    }
+    outbox.flush("alice");
+    outbox.flush("alice");
+
+    assertThat(delivered).containsExactly("alice: line 1\nline 2\nline 3");
+  }
+
+  @Test
+  void discardDropsPendingMessages() {
+    final List<String> delivered = new ArrayList<>();
+    final OutboxMessageSendingService<String, String> outbox =
+        new OutboxMessageSendingService<>((viewer, message) -> delivered.add(message));
+
+    outbox.send("alice", "goodbye");
+
+    assertThat(outbox.discard("alice")).containsExactly("goodbye");
+    outbox.flush();
+    assertThat(delivered).isEmpty();
+  }
+}
@@ -0,0 +1,168 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard.message;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.leangen.geantyref.TypeToken;
+import java.lang.reflect.Method;
+import java.lang.reflect.Type;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import net.kyori.hazzard.Hazzard;
+import net.kyori.hazzard.annotation.TranslationKey;
+import net.kyori.hazzard.exception.MissingTranslationKeyException;
+import net.kyori.hazzard.strategy.StandardTemplateVariableResolution;
+import net.kyori.hazzard.strategy.supertype.StandardSupertypeThenInterfaceSupertypeStrategy;
+import org.junit.jupiter.api.Test;
+
+/* package-private */ class ReloadableTemplateLocatorTest {
+  @Test
+  void publishesReloadedCatalog() throws Exception {
+    final Deque<TemplateCatalog<String>> catalogs = new ArrayDeque<>();
+    catalogs.add(TemplateCatalog.of(Map.of(Locale.ENGLISH, Map.of("greeting", "Hello"))));
+    catalogs.add(TemplateCatalog.of(Map.of(Locale.ENGLISH, Map.of("greeting", "Hi"))));
+    final ReloadableTemplateLocator<Locale, String> locator =
+        new ReloadableTemplateLocator<>(Function.identity(), catalogs::remove);
+
+    assertThat(locator.templateOf(Locale.ENGLISH, "greeting")).isEqualTo("Hello");
+    locator.reload();
+    assertThat(locator.templateOf(Locale.ENGLISH, "greeting")).isEqualTo("Hi");
+  }
+
+  @Test
+  void keepsCatalogOnFailedReload() throws Exception {
+    final Deque<TemplateCatalog<String>> catalogs = new ArrayDeque<>();
+    catalogs.add(TemplateCatalog.of(Map.of(Locale.ENGLISH, Map.of("greeting", "Hello"))));
+    final ReloadableTemplateLocator<Locale, String> locator =
+        new ReloadableTemplateLocator<>(Function.identity(), catalogs::remove);
+
+    assertThatThrownBy(locator::reload).isInstanceOf(NoSuchElementException.class);
+    assertThat(locator.templateOf(Locale.ENGLISH, "greeting")).isEqualTo("Hello");
+    assertThatThrownBy(() -> locator.templateOf(Locale.GERMAN, "greeting"))
+        .isInstanceOf(MissingTranslationKeyException.class);
+  }
+
+  @Test
+  void notifiesOnlyChangedTemplates() throws Exception {
+    final String unchanged = new String("Bye");
+    final Deque<TemplateCatalog<String>> catalogs = new ArrayDeque<>();
+    catalogs.add(TemplateCatalog.of(Map.of(Locale.ENGLISH, Map.of("greeting", "Hello", "farewell", unchanged,
+        "removed", "Gone"))));
+    catalogs.add(TemplateCatalog.of(Map.of(Locale.ENGLISH, Map.of("greeting", "Hi", "farewell", new String("Bye")),
+        Locale.GERMAN, Map.of("greeting", "Hallo"))));
+    final ReloadableTemplateLocator<Locale, String> locator =
+        new ReloadableTemplateLocator<>(Function.identity(), catalogs::remove);
+    final List<String> changes = new ArrayList<>();
+    locator.addListener((locale, key, previous, current) ->
+        changes.add(locale + "/" + key + ": " + previous + " -> " + current));
+
+    locator.reload();
+
+    assertThat(changes).containsExactlyInAnyOrder("en/greeting: Hello -> Hi", "de/greeting: null -> Hallo",
+        "en/removed: Gone -> null");
+    assertThat(locator.templateOf(Locale.ENGLISH, "farewell")).isSameAs(unchanged);
+  }
+
+  @Test
+  void notifiesEveryListenerDespiteFailures() {
+    final Deque<TemplateCatalog<String>> catalogs = new ArrayDeque<>();
+    catalogs.add(TemplateCatalog.of(Map.of(Locale.ENGLISH, Map.of("greeting", "Hello", "farewell", "Bye"))));
+    catalogs.add(TemplateCatalog.of(Map.of(Locale.ENGLISH, Map.of("greeting", "Hi", "farewell", "Ciao"))));
+    final ReloadableTemplateLocator<Locale, String> locator =
+        new ReloadableTemplateLocator<>(Function.identity(), catalogs::remove);
+    final List<String> changes = new ArrayList<>();
+    locator.addListener((locale, key, previous, current) -> {
+      throw new IllegalStateException(key);
+    });
+    locator.addListener((locale, key, previous, current) -> changes.add(key));
+
+    assertThatThrownBy(locator::reload)
+        .isInstanceOf(IllegalStateException.class)
+        .satisfies(ex -> assertThat(ex.getSuppressed()).hasSize(1));
+    assertThat(changes).containsExactlyInAnyOrder("greeting", "farewell");
+    assertThat(locator.catalog().template(Locale.ENGLISH, "greeting")).isEqualTo("Hi");
+  }
+
+  @Test
+  void invalidatesConstantMessagesOfChangedTemplatesOnly() throws Exception {
+    final Deque<TemplateCatalog<String>> catalogs = new ArrayDeque<>();
+    final String german = new String("Hello");
+    catalogs.add(TemplateCatalog.of(Map.of(Locale.ENGLISH, Map.of("greeting", "Hello"),
+        Locale.GERMAN, Map.of("greeting", german))));
+    catalogs.add(TemplateCatalog.of(Map.of(Locale.ENGLISH, Map.of("greeting", "Hi"),
+        Locale.GERMAN, Map.of("greeting", german))));
+    catalogs.add(TemplateCatalog.of(Map.of(Locale.ENGLISH, Map.of("greeting", new String("Hello")),
+        Locale.GERMAN, Map.of("greeting", german))));
+    final ReloadableTemplateLocator<Locale, String> locator =
+        new ReloadableTemplateLocator<>(Function.identity(), catalogs::remove);
+    final AtomicInteger compositions = new AtomicInteger();
+    final List<String> sent = new ArrayList<>();
+    final Greetings greetings = Hazzard.<Greetings, Locale>builder(TypeToken.get(Greetings.class))
+        .viewerLookupServiceLocator((method, proxy) -> (method1, proxy1, parameters) -> (Locale) parameters[0], 1)
+        .templateLocator(locator)
+        .<String, String>composed(new IMessageComposer<>() {
+          @Override
+          public String compose(final Locale receiver, final String template,
+                                final Map<String, ? extends String> replacements, final Method method,
+                                final Type owner) {
+            compositions.incrementAndGet();
+            return template;
+          }
+
+          @Override
+          public boolean isViewerInvariant() {
+            return true;
+          }
+        })
+        .sent((viewer, message) -> sent.add(message))
+        .variableResolver(new StandardTemplateVariableResolution<>(
+            new StandardSupertypeThenInterfaceSupertypeStrategy(false)))
+        .create();
+
+    greetings.greeting(Locale.ENGLISH);
+    greetings.greeting(Locale.GERMAN);
+    assertThat(compositions.get()).isEqualTo(1);
+
+    // The English template the message was composed of is replaced, so the German one composes it anew.
+    locator.reload();
+    greetings.greeting(Locale.ENGLISH);
+    greetings.greeting(Locale.GERMAN);
+    assertThat(compositions.get()).isEqualTo(3);
+
+    // The German template the message is now composed of is still located, so it is kept for the English one too.
+    locator.reload();
+    greetings.greeting(Locale.ENGLISH);
+    greetings.greeting(Locale.GERMAN);
+    assertThat(compositions.get()).isEqualTo(3);
+    assertThat(sent).containsExactly("Hello", "Hello", "Hi", "Hello", "Hello", "Hello");
+  }
+
+  /* package-private */ interface Greetings {
+    @TranslationKey("greeting")
+    void greeting(Locale viewer);
+  }
+}
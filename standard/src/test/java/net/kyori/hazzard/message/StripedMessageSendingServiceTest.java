@@ -0,0 +1,61 @@
+/*
+ * hazzard - A localisation library for Java.
+ * Copyright (C) Mariell Hoversholm
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published
+ * by the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with this program.  If not, see <https://www.gnu.org/licenses/>.
+ */
+package net.kyori.hazzard.message;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+import net.kyori.hazzard.message.AsyncMessageSendingService.OverflowPolicy;
+import org.junit.jupiter.api.Test;
+
+/* package-private */ class StripedMessageSendingServiceTest {
+  @Test
+  void keepsOrderPerViewer() {
+    final int viewers = 16;
+    final int messages = 500;
+    final Map<Integer, List<Integer>> received = new ConcurrentHashMap<>();
+    final StripedMessageSendingService<Integer, Integer> service = new StripedMessageSendingService<>(
+        (viewer, message) -> received.computeIfAbsent(viewer, ignored -> new ArrayList<>()).add(message),
+        4, 64, OverflowPolicy.BLOCK);
+
+    for (int message = 0; message < messages; ++message) {
+      for (int viewer = 0; viewer < viewers; ++viewer) {
+        service.send(viewer, message);
+      }
+    }
+    service.close();
+
+    final List<Integer> expected = IntStream.range(0, messages).boxed().toList();
+    assertThat(received).hasSize(viewers);
+    received.values().forEach(viewerMessages -> assertThat(viewerMessages).isEqualTo(expected));
+    assertThat(service.deliveredCount()).isEqualTo((long) viewers * messages);
+  }
+
+  @Test
+  void viewerAlwaysUsesSameLane() {
+    final StripedMessageSendingService<String, String> service =
+        new StripedMessageSendingService<>((viewer, message) -> { }, 8, 1, OverflowPolicy.DROP_NEWEST);
+
+    assertThat(service.lane("alice")).isSameAs(service.lane("alice"));
+    service.close();
+  }
+}